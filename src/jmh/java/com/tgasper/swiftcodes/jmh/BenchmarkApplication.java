@@ -0,0 +1,38 @@
+package com.tgasper.swiftcodes.jmh;
+
+import com.tgasper.swiftcodes.SwiftCodesApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// starts the application without a web server on an in-memory H2 database, in server mode so
+// the bundled CSV is not imported
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(boolean indexEnabled) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.properties.hibernate.jdbc.batch_size", "1000");
+        properties.put("spring.jpa.properties.hibernate.order_inserts", "true");
+        properties.put("spring.jpa.properties.hibernate.order_updates", "true");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        properties.put("swift-codes.index.enabled", String.valueOf(indexEnabled));
+        properties.put("logging.level.root", "WARN");
+
+        return new SpringApplicationBuilder(SwiftCodesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run("--server");
+    }
+}
@@ -0,0 +1,55 @@
+package com.tgasper.swiftcodes.jmh;
+
+import com.tgasper.swiftcodes.model.Bic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Bic against the regex and String based validation it replaced; run with -prof gc to compare allocations:
+// ./mvnw -Pjmh test-compile exec:exec -Djmh.args="BicBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BicBenchmark {
+
+    // canonical input is the common case, lower case and 8-character codes need a copy
+    @Param({"BPKOPLPWKRA", "bpkoplpwkra", "BPKOPLPW"})
+    private String swiftCode;
+
+    private String countryCode;
+
+    @Setup
+    public void setUp() {
+        countryCode = swiftCode.substring(4, 6);
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        blackhole.consume(swiftCode.matches("^[A-Za-z]{6}[A-Za-z0-9]{2}([A-Za-z0-9]{3})?$"));
+        blackhole.consume(countryCode.matches("^[A-Za-z]{2}$"));
+        blackhole.consume((swiftCode.length() == 8 ? (swiftCode + "XXX") : swiftCode).toUpperCase());
+        blackhole.consume(countryCode.toUpperCase());
+    }
+
+    @Benchmark
+    public void bic(Blackhole blackhole) {
+        blackhole.consume(Bic.isValid(swiftCode));
+        blackhole.consume(Bic.isValidCountryCode(countryCode));
+        blackhole.consume(Bic.normalize(swiftCode));
+        blackhole.consume(Bic.toUpperCase(countryCode));
+    }
+}
@@ -0,0 +1,72 @@
+package com.tgasper.swiftcodes.jmh;
+
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.SwiftCodeParserService;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// SwiftCodeParserService.parseAndSave of a generated directory into an empty H2 database, one import per measurement
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ImportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private SwiftCodeParserService swiftCodeParserService;
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start(false);
+        swiftCodeParserService = context.getBean(SwiftCodeParserService.class);
+        csvFile = Files.createTempFile("swift-codes-jmh", ".csv");
+        new SwiftDirectoryGenerator(42).write(csvFile, rows);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearDatabase() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            jdbcTemplate.execute("DELETE FROM swift_codes");
+            jdbcTemplate.execute("DELETE FROM banks");
+            jdbcTemplate.execute("DELETE FROM countries");
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public ImportResult parseAndSave() throws IOException {
+        return swiftCodeParserService.parseAndSave(csvFile.toString());
+    }
+}
@@ -0,0 +1,75 @@
+package com.tgasper.swiftcodes.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tgasper.swiftcodes.config.JacksonConfig;
+import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DTO mapping and JSON serialization without a database, with the ObjectMapper configured like the application's
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    // branches of a headquarters, codes of a country
+    @Param({"20", "1000", "10000"})
+    private int codes;
+
+    private ObjectMapper objectMapper;
+    private SwiftCodeView headquarters;
+    private List<SwiftCodeView> views;
+    private SwiftCodeResponse headquartersResponse;
+    private CountrySwiftCodesResponse countryResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().jackson2ObjectMapperBuilder().build();
+        views = new ArrayList<>(codes);
+        for (int i = 0; i < codes; i++) {
+            views.add(new SwiftCodeView(SyntheticDataset.swiftCode(i / 20, i % 20), "STREET " + i + ", CITY",
+                    "BANK " + i / 20, "PL", "POLAND", i % 20 == 0));
+        }
+        headquarters = views.get(0);
+        headquartersResponse = new SwiftCodeResponse(headquarters, views.subList(1, views.size()));
+        countryResponse = new CountrySwiftCodesResponse("PL", "POLAND", views);
+    }
+
+    @Benchmark
+    public SwiftCodeResponse mapHeadquarters() {
+        return new SwiftCodeResponse(headquarters, views.subList(1, views.size()));
+    }
+
+    @Benchmark
+    public CountrySwiftCodesResponse mapCountry() {
+        return new CountrySwiftCodesResponse("PL", "POLAND", views);
+    }
+
+    @Benchmark
+    public byte[] serializeHeadquarters() throws Exception {
+        return objectMapper.writeValueAsBytes(headquartersResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCountry() throws Exception {
+        return objectMapper.writeValueAsBytes(countryResponse);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tgasper.swiftcodes.jmh;
+
+import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import com.tgasper.swiftcodes.service.SwiftCodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// SwiftCodeService read paths on H2, with and without the in-memory index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SwiftCodeLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean indexEnabled;
+
+    private ConfigurableApplicationContext context;
+    private SwiftCodeService swiftCodeService;
+    private int banks;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(indexEnabled);
+        SyntheticDataset.insert(context.getBean(JdbcTemplate.class), rows);
+        context.getBean(SwiftCodeIndex.class).rebuild();
+        swiftCodeService = context.getBean(SwiftCodeService.class);
+        banks = SyntheticDataset.bankCount(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // walks over all banks so every call resolves a different code
+    private int nextBank() {
+        next = (next + 7919) % banks;
+        return next;
+    }
+
+    @Benchmark
+    public SwiftCodeResponse headquarters() {
+        return swiftCodeService.getSwiftCodeDetails(SyntheticDataset.swiftCode(nextBank(), 0));
+    }
+
+    @Benchmark
+    public SwiftCodeResponse branch() {
+        return swiftCodeService.getSwiftCodeDetails(SyntheticDataset.swiftCode(nextBank(), 1));
+    }
+
+    @Benchmark
+    public CountrySwiftCodesResponse country() {
+        return swiftCodeService.getSwiftCodesByCountry(
+                SyntheticDataset.countryCode(nextBank() % SyntheticDataset.COUNTRIES));
+    }
+}
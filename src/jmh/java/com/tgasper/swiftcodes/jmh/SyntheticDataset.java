@@ -0,0 +1,79 @@
+package com.tgasper.swiftcodes.jmh;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic dataset: banks of BRANCHES_PER_BANK codes (one headquarters each), spread
+// round-robin over COUNTRIES two-letter country codes.
+final class SyntheticDataset {
+    static final int COUNTRIES = 200;
+    static final int BRANCHES_PER_BANK = 20;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private SyntheticDataset() {
+    }
+
+    static int bankCount(int rows) {
+        return (rows + BRANCHES_PER_BANK - 1) / BRANCHES_PER_BANK;
+    }
+
+    static String countryCode(int country) {
+        return "" + (char) ('A' + country / 26) + (char) ('A' + country % 26);
+    }
+
+    static String countryOfBank(int bank) {
+        return countryCode(bank % COUNTRIES);
+    }
+
+    static String baseCode(int bank) {
+        char[] bankCode = new char[4];
+        int value = bank;
+        for (int i = bankCode.length - 1; i >= 0; i--) {
+            bankCode[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(bankCode) + countryOfBank(bank) + "PW";
+    }
+
+    static String swiftCode(int bank, int branch) {
+        return baseCode(bank) + (branch == 0 ? "XXX" : String.format("%03d", branch));
+    }
+
+    static void insert(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> countries = new ArrayList<>();
+        for (int country = 0; country < COUNTRIES; country++) {
+            countries.add(new Object[]{countryCode(country), "COUNTRY " + countryCode(country)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO countries (iso2_code, name) VALUES (?, ?)", countries);
+
+        List<Object[]> banks = new ArrayList<>();
+        for (int bank = 0; bank < bankCount(rows); bank++) {
+            banks.add(new Object[]{bank + 1L, "BANK " + bank, baseCode(bank)});
+            if (banks.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO banks (id, bank_name, swift_code) VALUES (?, ?, ?)", banks);
+                banks.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO banks (id, bank_name, swift_code) VALUES (?, ?, ?)", banks);
+
+        List<Object[]> swiftCodes = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            int bank = row / BRANCHES_PER_BANK;
+            int branch = row % BRANCHES_PER_BANK;
+            swiftCodes.add(new Object[]{swiftCode(bank, branch), baseCode(bank), "STREET " + branch + ", CITY " + bank,
+                    branch == 0, bank + 1L, countryOfBank(bank)});
+            if (swiftCodes.size() == INSERT_BATCH_SIZE) {
+                insertSwiftCodes(jdbcTemplate, swiftCodes);
+                swiftCodes.clear();
+            }
+        }
+        insertSwiftCodes(jdbcTemplate, swiftCodes);
+    }
+
+    private static void insertSwiftCodes(JdbcTemplate jdbcTemplate, List<Object[]> swiftCodes) {
+        jdbcTemplate.batchUpdate("INSERT INTO swift_codes (swift_code, base_code, address, is_headquarter, bank_id, country_iso2_code) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", swiftCodes);
+    }
+}
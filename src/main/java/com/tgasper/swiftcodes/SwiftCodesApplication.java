@@ -2,8 +2,10 @@ package com.tgasper.swiftcodes;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SwiftCodesApplication {
     public static void main(String[] args) {
         SpringApplication.run(SwiftCodesApplication.class, args);
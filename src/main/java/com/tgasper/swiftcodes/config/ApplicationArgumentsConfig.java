@@ -5,6 +5,9 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class ApplicationArgumentsConfig {
+    private static final int DEFAULT_IMPORT_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_IMPORT_WRITERS = 4;
+
     private final ApplicationArguments args;
 
     public ApplicationArgumentsConfig(ApplicationArguments args) {
@@ -15,15 +18,55 @@ public class ApplicationArgumentsConfig {
         return args.containsOption("import");
     }
 
+    public boolean isImportRollback() {
+        return args.containsOption("import-rollback");
+    }
+
     public boolean isServerMode() {
         return args.containsOption("server");
     }
 
     public String getImportPath() {
-        if (args.containsOption("import")) {
-            String[] values = args.getOptionValues("import").toArray(new String[0]);
+        return getOptionValue("import");
+    }
+
+    public ImportMode getSelectedImportMode() {
+        return ImportMode.fromOption(getOptionValue("import-mode"));
+    }
+
+    public int getImportChunkSize() {
+        return getPositiveIntOption("import-chunk-size", DEFAULT_IMPORT_CHUNK_SIZE);
+    }
+
+    public int getImportParserThreads() {
+        return getPositiveIntOption("import-parsers", Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getImportWriterThreads() {
+        return getPositiveIntOption("import-writers", DEFAULT_IMPORT_WRITERS);
+    }
+
+    private String getOptionValue(String name) {
+        if (args.containsOption(name)) {
+            String[] values = args.getOptionValues(name).toArray(new String[0]);
             return values.length > 0 ? values[0] : null;
         }
         return null;
     }
-}
\ No newline at end of file
+
+    private int getPositiveIntOption(String name, int defaultValue) {
+        String value = getOptionValue(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(String.format("--%s must be a positive integer, got '%s'", name, value));
+    }
+}
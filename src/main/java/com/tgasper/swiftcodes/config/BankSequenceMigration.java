@@ -0,0 +1,60 @@
+package com.tgasper.swiftcodes.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// Bank ids used to come from an IDENTITY column and now come from the pooled banks_seq sequence.
+// On databases created before the switch, ddl-auto creates banks_seq starting at 1 next to ids that
+// are already taken, so the sequence is moved past the highest stored id and the old id default is
+// dropped. Runs once all beans are created (schema update done) and before the web server accepts requests.
+@Component
+public class BankSequenceMigration implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(BankSequenceMigration.class);
+
+    // must match the allocationSize of the banks_seq generator on Bank
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BankSequenceMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (isPostgreSQL()) {
+            transactionTemplate.executeWithoutResult(status -> migrate());
+        }
+    }
+
+    private boolean isPostgreSQL() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    private void migrate() {
+        // older schemas generate ids either as an identity column or through a serial default
+        jdbcTemplate.execute("ALTER TABLE banks ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE banks ALTER COLUMN id DROP DEFAULT");
+
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM banks", Long.class);
+        Map<String, Object> sequence = jdbcTemplate.queryForMap("SELECT last_value, is_called FROM banks_seq");
+        long lastValue = ((Number) sequence.get("last_value")).longValue();
+        long nextValue = Boolean.TRUE.equals(sequence.get("is_called")) ? lastValue + ALLOCATION_SIZE : lastValue;
+
+        // the pooled optimizer hands out the block (nextValue - ALLOCATION_SIZE, nextValue]
+        if (nextValue - ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.queryForObject("SELECT setval('banks_seq', ?, false)", Long.class, maxId + ALLOCATION_SIZE);
+            logger.info("Moved banks_seq past the highest existing bank id {}", maxId);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.tgasper.swiftcodes.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// swift_codes.base_code was added after databases had been created. ddl-auto adds it as a nullable
+// column, so rows stored before are filled from their swift code, the column is made NOT NULL and the
+// index is created. The *_previous generation of a blue/green import is migrated the same way, so that
+// a rollback does not bring back a table without the column. Runs once all beans are created (schema
+// update done) and before the web server accepts requests; a migrated table costs one index lookup.
+@Component
+public class BaseCodeMigration implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(BaseCodeMigration.class);
+
+    // table suffixes of the current and the previous blue/green generation
+    private static final String[] GENERATIONS = {"", "_previous"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BaseCodeMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (isPostgreSQL()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String generation : GENERATIONS) {
+                    migrate("swift_codes" + generation, "idx_swift_code_base_code" + generation);
+                }
+            });
+        }
+    }
+
+    private boolean isPostgreSQL() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    private void migrate(String table, String index) {
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table) != Boolean.TRUE) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS base_code varchar(8)");
+        int filled = jdbcTemplate.update(
+                "UPDATE " + table + " SET base_code = substring(swift_code FROM 1 FOR 8) WHERE base_code IS NULL");
+        // a no-op when the column is NOT NULL already
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN base_code SET NOT NULL");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index + " ON " + table + " (base_code, swift_code)");
+        if (filled > 0) {
+            logger.info("Filled base_code of {} rows in {}", filled, table);
+        }
+    }
+}
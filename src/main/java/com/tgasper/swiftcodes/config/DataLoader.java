@@ -10,31 +10,80 @@ import java.nio.file.StandardCopyOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import org.springframework.core.io.ClassPathResource;
+import com.tgasper.swiftcodes.service.BlueGreenImportService;
+import com.tgasper.swiftcodes.service.CopyImportService;
+import com.tgasper.swiftcodes.service.DatasetVersion;
+import com.tgasper.swiftcodes.service.DeltaImportService;
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.ParallelImportService;
+import com.tgasper.swiftcodes.service.StreamingImportService;
 import com.tgasper.swiftcodes.service.SwiftCodeParserService;
+import com.tgasper.swiftcodes.service.SwiftCodeSnapshot;
 
 @Component
 public class DataLoader implements CommandLineRunner {
     private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
     private final SwiftCodeParserService swiftCodeParserService;
+    private final StreamingImportService streamingImportService;
+    private final ParallelImportService parallelImportService;
+    private final CopyImportService copyImportService;
+    private final DeltaImportService deltaImportService;
+    private final BlueGreenImportService blueGreenImportService;
+    private final SwiftCodeSnapshot swiftCodeSnapshot;
     private final ApplicationArgumentsConfig argumentsConfig;
+    private final DatasetVersion datasetVersion;
+    private final boolean skipDefaultImportWithSnapshot;
 
     @Autowired
     public DataLoader(SwiftCodeParserService swiftCodeParserService, 
-                     ApplicationArgumentsConfig argumentsConfig) {
+                     StreamingImportService streamingImportService,
+                     ParallelImportService parallelImportService,
+                     CopyImportService copyImportService,
+                     DeltaImportService deltaImportService,
+                     BlueGreenImportService blueGreenImportService,
+                     SwiftCodeSnapshot swiftCodeSnapshot,
+                     ApplicationArgumentsConfig argumentsConfig,
+                     DatasetVersion datasetVersion,
+                     @Value("${swift-codes.snapshot.skip-default-import:false}") boolean skipDefaultImportWithSnapshot) {
         this.swiftCodeParserService = swiftCodeParserService;
+        this.streamingImportService = streamingImportService;
+        this.parallelImportService = parallelImportService;
+        this.copyImportService = copyImportService;
+        this.deltaImportService = deltaImportService;
+        this.blueGreenImportService = blueGreenImportService;
+        this.swiftCodeSnapshot = swiftCodeSnapshot;
         this.argumentsConfig = argumentsConfig;
+        this.datasetVersion = datasetVersion;
+        this.skipDefaultImportWithSnapshot = skipDefaultImportWithSnapshot;
     }
 
     @Override
     public void run(String... args) throws Exception {
+        if (argumentsConfig.isImportRollback()) {
+            try {
+                blueGreenImportService.rollback();
+            } catch (IOException e) {
+                logger.error("Error during import rollback: {}", e.getMessage(), e);
+            }
+            return;
+        }
+
         if (argumentsConfig.isServerMode()) {
             logger.info("Starting in server-only mode...");
             return;
         }
 
+        // opt-in: a snapshot written at the current dataset version means an earlier run has imported
+        // already, though not necessarily the bundled file
+        if (skipDefaultImportWithSnapshot && swiftCodeSnapshot.isLoaded() && !argumentsConfig.isImportMode()) {
+            logger.info("Skipping the default import, serving the data of the SWIFT code snapshot");
+            return;
+        }
+
         // import mode is default or explicitly specified
         importData();
     }
@@ -55,9 +104,32 @@ public class DataLoader implements CommandLineRunner {
                 csvPath = loadDefaultResourceFile();
             }
 
-            logger.info("Importing data from: {}", csvPath);
-            swiftCodeParserService.parseAndSave(csvPath.toString());
-            logger.info("Data import completed successfully");
+            ImportMode importMode = argumentsConfig.getSelectedImportMode();
+            logger.info("Importing data from: {} (mode: {})", csvPath, importMode);
+            ImportResult result = switch (importMode) {
+                case STANDARD -> swiftCodeParserService.parseAndSave(csvPath.toString());
+                case STREAMING -> streamingImportService.parseAndSave(csvPath.toString(),
+                        argumentsConfig.getImportChunkSize());
+                case PARALLEL -> parallelImportService.parseAndSave(csvPath.toString(),
+                        argumentsConfig.getImportParserThreads(),
+                        argumentsConfig.getImportWriterThreads(),
+                        argumentsConfig.getImportChunkSize());
+                case COPY -> copyImportService.parseAndSave(csvPath.toString());
+                case DELTA -> deltaImportService.parseAndSave(csvPath.toString(),
+                        argumentsConfig.getImportChunkSize()).importResult();
+                case BLUE_GREEN -> blueGreenImportService.parseAndSave(csvPath.toString());
+            };
+            // rebuilds the in-memory copies here, other instances find the new version and follow;
+            // a blue/green switch stamps its version in the rename transaction and does this itself
+            if (importMode != ImportMode.BLUE_GREEN) {
+                datasetVersion.importCommitted(csvPath.toString());
+            }
+            logger.info("Data import completed successfully: {} rows in {} ms ({} rows/s)",
+                    result.rows(), result.elapsedMillis(), Math.round(result.rowsPerSecond()));
+            if (result.skippedRows() > 0 || result.failedRows() > 0) {
+                logger.warn("Import left out {} rows: {} skipped, {} in batches that could not be written",
+                        result.skippedRows() + result.failedRows(), result.skippedRows(), result.failedRows());
+            }
             logger.info("Started server...");
         } catch (IOException e) {
             logger.error("Error during data import: {}", e.getMessage(), e);
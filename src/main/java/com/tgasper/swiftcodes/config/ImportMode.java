@@ -0,0 +1,32 @@
+package com.tgasper.swiftcodes.config;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// selected with --import-mode=<name>, defaults to STANDARD
+public enum ImportMode {
+    // collect every entity in memory and save them in one transaction
+    STANDARD,
+    // flush and clear the persistence context in fixed-size chunks, constant memory
+    STREAMING,
+    // reader, parser and writer stages on separate threads joined by bounded queues
+    PARALLEL,
+    // PostgreSQL COPY into a staging table followed by set-based merges, STANDARD elsewhere
+    COPY,
+    // compare the file with the stored codes by content hash and write only inserts, updates and deletes
+    DELTA,
+    // PostgreSQL: load into *_next tables and switch generations by renaming the tables, STANDARD elsewhere
+    BLUE_GREEN;
+
+    public static ImportMode fromOption(String value) {
+        if (value == null || value.isBlank()) {
+            return STANDARD;
+        }
+        try {
+            return ImportMode.valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Unknown import mode '%s', expected one of: %s",
+                    value, Arrays.stream(values()).map(m -> m.name().toLowerCase()).collect(Collectors.joining(", "))));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tgasper.swiftcodes.config;
+
+import com.tgasper.swiftcodes.service.CountryResponseCache;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// metrics exported at /actuator/prometheus on top of the ones Spring Boot registers itself
+// (http.server.requests, spring.data.repository.invocations, hikaricp.*, jvm.*)
+@Configuration
+public class MetricsConfig {
+
+    // times the methods of classes annotated with @Timed
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder lookupCacheMetrics(SwiftCodeIndex swiftCodeIndex, CountryResponseCache countryResponseCache) {
+        return registry -> {
+            FunctionCounter.builder("swiftcodes.index.lookups", swiftCodeIndex, index -> index.getStats().hits())
+                    .description("Lookups answered by the in-memory index")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("swiftcodes.index.lookups", swiftCodeIndex, index -> index.getStats().misses())
+                    .description("Lookups answered by the in-memory index")
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("swiftcodes.index.size", swiftCodeIndex, index -> index.getStats().size())
+                    .description("SWIFT codes held by the in-memory index")
+                    .register(registry);
+            Gauge.builder("swiftcodes.response.cache.bytes", countryResponseCache, CountryResponseCache::getCachedBytes)
+                    .description("Bytes of serialized country listings held by the response cache")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
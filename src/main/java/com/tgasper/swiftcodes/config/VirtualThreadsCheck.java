@@ -0,0 +1,28 @@
+package com.tgasper.swiftcodes.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// the request execution mode is logged once at startup, so a deployment shows whether the
+// virtual-threads profile is active
+@Component
+public class VirtualThreadsCheck {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+
+    private final boolean virtualThreadsEnabled;
+
+    public VirtualThreadsCheck(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportExecutionMode() {
+        if (virtualThreadsEnabled) {
+            logger.info("Handling requests on virtual threads");
+        }
+    }
+}
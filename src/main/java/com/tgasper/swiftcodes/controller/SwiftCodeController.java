@@ -1,37 +1,202 @@
 package com.tgasper.swiftcodes.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeBulkResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeLookupResponse;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeBulkRequest;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeLookupRequest;
 import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
 import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeSearchResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeSuggestResponse;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.service.CountryResponseCache;
+import com.tgasper.swiftcodes.service.DatasetVersion;
+import com.tgasper.swiftcodes.service.SwiftCodeBulkService;
 import com.tgasper.swiftcodes.service.SwiftCodeService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.function.Function;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/v1/swift-codes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SwiftCodeController {
     private final SwiftCodeService swiftCodeService;
+    private final SwiftCodeBulkService swiftCodeBulkService;
+    private final ObjectMapper objectMapper;
+    private final DatasetVersion datasetVersion;
+    private final CountryResponseCache countryResponseCache;
 
-    public SwiftCodeController(SwiftCodeService swiftCodeService) {
+    public SwiftCodeController(SwiftCodeService swiftCodeService,
+                               SwiftCodeBulkService swiftCodeBulkService,
+                               ObjectMapper objectMapper,
+                               DatasetVersion datasetVersion,
+                               CountryResponseCache countryResponseCache) {
         this.swiftCodeService = swiftCodeService;
+        this.swiftCodeBulkService = swiftCodeBulkService;
+        this.objectMapper = objectMapper;
+        this.datasetVersion = datasetVersion;
+        this.countryResponseCache = countryResponseCache;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SwiftCodeSearchResponse> searchSwiftCodes(
+            @RequestParam String q,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(swiftCodeService.searchSwiftCodes(q, country, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<SwiftCodeSuggestResponse> suggestSwiftCodes(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(swiftCodeService.suggestSwiftCodes(prefix, limit));
     }
 
     @GetMapping("/{swiftCode}")
-    public ResponseEntity<SwiftCodeResponse> getSwiftCodeDetails(@PathVariable String swiftCode) {
-        SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails(swiftCode);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<SwiftCodeResponse> getSwiftCodeDetails(@PathVariable String swiftCode, WebRequest request) {
+        return versioned(request, datasetVersion.bankVersion(swiftCode),
+                response -> response.body(swiftCodeService.getSwiftCodeDetails(swiftCode)));
+    }
+
+    // the whole country, written from the pre-serialized bytes of the response cache
+    @GetMapping(value = "/country/{countryISO2code}", params = {"!limit", "!after"})
+    public ResponseEntity<byte[]> getAllSwiftCodesByCountry(@PathVariable String countryISO2code, WebRequest request) {
+        long version = datasetVersion.countryVersion(countryISO2code);
+        boolean gzip = countryResponseCache.compresses() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // each content coding is a different representation and needs its own strong validator
+        String etag = gzip ? version + "-gz" : Long.toString(version);
+        return versioned(request, etag, version, HttpHeaders.ACCEPT_ENCODING, response -> {
+            CountryResponseCache.CachedResponse cached = countryResponseCache.get(countryISO2code, version);
+            if (gzip && cached.gzip() != null) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
+            }
+            return response.body(cached.json());
+        });
     }
 
     @GetMapping("/country/{countryISO2code}")
     public ResponseEntity<CountrySwiftCodesResponse> getSwiftCodesByCountry(
-            @PathVariable String countryISO2code) {
-        CountrySwiftCodesResponse response = swiftCodeService.getSwiftCodesByCountry(countryISO2code);
+            @PathVariable String countryISO2code,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return versioned(request, datasetVersion.countryVersion(countryISO2code),
+                response -> response.body(swiftCodeService.getSwiftCodesByCountry(countryISO2code, limit, after)));
+    }
+
+    // same document as the country listing, written row by row while the database cursor is read
+    @GetMapping("/country/{countryISO2code}/stream")
+    public ResponseEntity<StreamingResponseBody> streamSwiftCodesByCountry(@PathVariable String countryISO2code,
+                                                                           WebRequest request) {
+        return versioned(request, datasetVersion.countryVersion(countryISO2code),
+                response -> response.body(streamingBody(countryISO2code)));
+    }
+
+    private StreamingResponseBody streamingBody(String countryISO2code) {
+        // resolved before the body is written, so an unknown or empty country is still a 404
+        Country country = swiftCodeService.getCountryWithSwiftCodes(countryISO2code);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeStringField("countryISO2", country.getIso2Code());
+                generator.writeStringField("countryName", country.getName());
+                generator.writeArrayFieldStart("swiftCodes");
+                swiftCodeService.streamSwiftCodesByCountry(country.getIso2Code(), view -> {
+                    try {
+                        generator.writeObject(new SwiftCodeResponse(view));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return body;
+    }
+
+    // Conditional GET on the dataset version: a client holding the current version gets a 304 before
+    // anything is read or serialized. The version is taken before the read, so a change committed in
+    // between pairs new data with the old version and only costs the client another download.
+    // no-cache lets clients and CDNs keep the body but revalidate it on every use.
+    private static <T> ResponseEntity<T> versioned(WebRequest request, long version,
+                                                   Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> ok) {
+        return versioned(request, Long.toString(version), version, null, ok);
+    }
+
+    // the same with an ETag of its own, and a Vary header that a 304 carries as well
+    private static <T> ResponseEntity<T> versioned(WebRequest request, String etag, long version, String vary,
+                                                   Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> ok) {
+        if (version < 0) {
+            // not a valid code, the service answers with the error
+            return ok.apply(ResponseEntity.ok());
+        }
+        // sets ETag and Last-Modified on the response, and the 304 status when they match
+        if (request.checkNotModified(etag, version)) {
+            ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache());
+            if (vary != null) {
+                notModified.varyBy(vary);
+            }
+            return notModified.build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (vary != null) {
+            response.varyBy(vary);
+        }
+        return ok.apply(response);
+    }
+
+    // gzip listed in Accept-Encoding and not refused with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<SwiftCodeLookupResponse> lookupSwiftCodes(@RequestBody SwiftCodeLookupRequest request) {
+        SwiftCodeLookupResponse response = swiftCodeService.lookupSwiftCodes(request);
         return ResponseEntity.ok(response);
     }
 
+    // 200 when every item was applied, 400 with the per-item results when nothing was written
+    @PostMapping("/bulk")
+    public ResponseEntity<SwiftCodeBulkResponse> applyBulk(@RequestBody SwiftCodeBulkRequest request) {
+        SwiftCodeBulkResponse response = swiftCodeBulkService.applyBulk(request);
+        return ResponseEntity.status(response.getApplied() ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
     @PostMapping
     public ResponseEntity<Map<String, String>> addSwiftCode(@RequestBody SwiftCodeRequest request) {
         String message = swiftCodeService.addSwiftCode(request);
@@ -1,6 +1,6 @@
 package com.tgasper.swiftcodes.dto;
 
-import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
 
 public class BranchResponse {
     private String address;
@@ -9,12 +9,12 @@ public class BranchResponse {
     private boolean isHeadquarter;
     private String swiftCode;
 
-    public BranchResponse(SwiftCode swiftCode) {
-        this.address = swiftCode.getAddress();
-        this.bankName = swiftCode.getBank().getBankName();
-        this.countryISO2 = swiftCode.getCountry().getIso2Code();
-        this.isHeadquarter = swiftCode.isHeadquarter();
-        this.swiftCode = swiftCode.getSwiftCode();
+    public BranchResponse(SwiftCodeView view) {
+        this.address = view.address();
+        this.bankName = view.bankName();
+        this.countryISO2 = view.countryISO2();
+        this.isHeadquarter = view.isHeadquarter();
+        this.swiftCode = view.swiftCode();
     }
 
     // Getters and Setters
@@ -0,0 +1,66 @@
+package com.tgasper.swiftcodes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID,
+        // valid, but not applied because another item of the request is invalid
+        SKIPPED
+    }
+
+    private Operation operation;
+    private String swiftCode;
+    private Status status;
+    private String message;
+
+    public BulkItemResult(Operation operation, String swiftCode, Status status, String message) {
+        this.operation = operation;
+        this.swiftCode = swiftCode;
+        this.status = status;
+        this.message = message;
+    }
+
+    // getters and setters
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public String getSwiftCode() {
+        return swiftCode;
+    }
+
+    public void setSwiftCode(String swiftCode) {
+        this.swiftCode = swiftCode;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -1,16 +1,19 @@
 package com.tgasper.swiftcodes.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CountrySwiftCodesResponse {
     private String countryISO2;
     private String countryName;
     private List<SwiftCodeResponse> swiftCodes;
+    private String nextCursor;
 
-    public CountrySwiftCodesResponse(String countryISO2, String countryName, List<SwiftCode> swiftCodes) {
+    public CountrySwiftCodesResponse(String countryISO2, String countryName, List<SwiftCodeView> swiftCodes) {
         this.countryISO2 = countryISO2;
         this.countryName = countryName;
         this.swiftCodes = swiftCodes.stream()
@@ -18,6 +21,12 @@ public class CountrySwiftCodesResponse {
                 .collect(Collectors.toList());
     }
 
+    // constructor for a page, nextCursor is the value for "after" on the following request, null on the last page
+    public CountrySwiftCodesResponse(String countryISO2, String countryName, List<SwiftCodeView> swiftCodes, String nextCursor) {
+        this(countryISO2, countryName, swiftCodes);
+        this.nextCursor = nextCursor;
+    }
+
     // getters and setters
     public String getCountryISO2() {
         return countryISO2;
@@ -42,4 +51,12 @@ public class CountrySwiftCodesResponse {
     public void setSwiftCodes(List<SwiftCodeResponse> swiftCodes) {
         this.swiftCodes = swiftCodes;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.tgasper.swiftcodes.dto;
+
+import java.util.List;
+
+public class SwiftCodeBulkResponse {
+    private boolean applied;
+    private List<BulkItemResult> results;
+
+    public SwiftCodeBulkResponse(boolean applied, List<BulkItemResult> results) {
+        this.applied = applied;
+        this.results = results;
+    }
+
+    // getters and setters
+    public boolean getApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public List<BulkItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkItemResult> results) {
+        this.results = results;
+    }
+}
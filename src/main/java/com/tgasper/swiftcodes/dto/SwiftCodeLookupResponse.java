@@ -0,0 +1,40 @@
+package com.tgasper.swiftcodes.dto;
+
+import java.util.List;
+
+public class SwiftCodeLookupResponse {
+    private List<SwiftCodeResponse> found;
+    private List<String> notFound;
+    private List<String> invalid;
+
+    public SwiftCodeLookupResponse(List<SwiftCodeResponse> found, List<String> notFound, List<String> invalid) {
+        this.found = found;
+        this.notFound = notFound;
+        this.invalid = invalid;
+    }
+
+    // getters and setters
+    public List<SwiftCodeResponse> getFound() {
+        return found;
+    }
+
+    public void setFound(List<SwiftCodeResponse> found) {
+        this.found = found;
+    }
+
+    public List<String> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<String> notFound) {
+        this.notFound = notFound;
+    }
+
+    public List<String> getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(List<String> invalid) {
+        this.invalid = invalid;
+    }
+}
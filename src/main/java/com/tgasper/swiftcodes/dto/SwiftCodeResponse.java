@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class SwiftCodeResponse {
@@ -16,18 +16,18 @@ public class SwiftCodeResponse {
     private String swiftCode;
     private List<BranchResponse> branches;
 
-    // constructor for branch response (without branches)
-    public SwiftCodeResponse(SwiftCode swiftCode) {
-        this.address = swiftCode.getAddress();
-        this.bankName = swiftCode.getBank().getBankName();
-        this.countryISO2 = swiftCode.getCountry().getIso2Code();
-        this.countryName = swiftCode.getCountry().getName();
-        this.isHeadquarter = swiftCode.isHeadquarter();
-        this.swiftCode = swiftCode.getSwiftCode();
+    // constructor for branch response built from a detached view
+    public SwiftCodeResponse(SwiftCodeView view) {
+        this.address = view.address();
+        this.bankName = view.bankName();
+        this.countryISO2 = view.countryISO2();
+        this.countryName = view.countryName();
+        this.isHeadquarter = view.isHeadquarter();
+        this.swiftCode = view.swiftCode();
     }
 
-    // constructor for headquarter response (with branches)
-    public SwiftCodeResponse(SwiftCode mainCode, List<SwiftCode> branches) {
+    // constructor for headquarter response built from detached views
+    public SwiftCodeResponse(SwiftCodeView mainCode, List<SwiftCodeView> branches) {
         this(mainCode);
         this.branches = branches.stream()
                 .map(BranchResponse::new)
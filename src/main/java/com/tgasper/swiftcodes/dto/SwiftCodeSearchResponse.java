@@ -0,0 +1,48 @@
+package com.tgasper.swiftcodes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SwiftCodeSearchResponse {
+    private String query;
+    private String countryISO2;
+    private List<SwiftCodeResponse> swiftCodes;
+
+    // best matches first; countryISO2 is null when the search was not restricted to a country
+    public SwiftCodeSearchResponse(String query, String countryISO2, List<SwiftCodeView> swiftCodes) {
+        this.query = query;
+        this.countryISO2 = countryISO2;
+        this.swiftCodes = swiftCodes.stream()
+                .map(SwiftCodeResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    // getters and setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getCountryISO2() {
+        return countryISO2;
+    }
+
+    public void setCountryISO2(String countryISO2) {
+        this.countryISO2 = countryISO2;
+    }
+
+    public List<SwiftCodeResponse> getSwiftCodes() {
+        return swiftCodes;
+    }
+
+    public void setSwiftCodes(List<SwiftCodeResponse> swiftCodes) {
+        this.swiftCodes = swiftCodes;
+    }
+}
@@ -0,0 +1,36 @@
+package com.tgasper.swiftcodes.dto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+
+public class SwiftCodeSuggestResponse {
+    private String prefix;
+    private List<SwiftCodeSuggestion> suggestions;
+
+    // suggestions ordered by code
+    public SwiftCodeSuggestResponse(String prefix, List<SwiftCodeView> swiftCodes) {
+        this.prefix = prefix;
+        this.suggestions = swiftCodes.stream()
+                .map(SwiftCodeSuggestion::new)
+                .collect(Collectors.toList());
+    }
+
+    // getters and setters
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public List<SwiftCodeSuggestion> getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(List<SwiftCodeSuggestion> suggestions) {
+        this.suggestions = suggestions;
+    }
+}
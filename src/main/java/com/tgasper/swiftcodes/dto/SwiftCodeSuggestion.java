@@ -0,0 +1,60 @@
+package com.tgasper.swiftcodes.dto;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+
+public class SwiftCodeSuggestion {
+    private String swiftCode;
+    private String bankName;
+    private String countryISO2;
+    private String countryName;
+    private boolean isHeadquarter;
+
+    public SwiftCodeSuggestion(SwiftCodeView view) {
+        this.swiftCode = view.swiftCode();
+        this.bankName = view.bankName();
+        this.countryISO2 = view.countryISO2();
+        this.countryName = view.countryName();
+        this.isHeadquarter = view.isHeadquarter();
+    }
+
+    // Getters and Setters
+    public String getSwiftCode() {
+        return swiftCode;
+    }
+
+    public void setSwiftCode(String swiftCode) {
+        this.swiftCode = swiftCode;
+    }
+
+    public String getBankName() {
+        return bankName;
+    }
+
+    public void setBankName(String bankName) {
+        this.bankName = bankName;
+    }
+
+    public String getCountryISO2() {
+        return countryISO2;
+    }
+
+    public void setCountryISO2(String countryISO2) {
+        this.countryISO2 = countryISO2;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public void setCountryName(String countryName) {
+        this.countryName = countryName;
+    }
+
+    public boolean getIsHeadquarter() {
+        return isHeadquarter;
+    }
+
+    public void setIsHeadquarter(boolean isHeadquarter) {
+        this.isHeadquarter = isHeadquarter;
+    }
+}
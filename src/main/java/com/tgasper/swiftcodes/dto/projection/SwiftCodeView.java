@@ -0,0 +1,28 @@
+package com.tgasper.swiftcodes.dto.projection;
+
+import com.tgasper.swiftcodes.model.SwiftCode;
+
+// read-only, detached view of a single swift_codes row together with its bank and country
+public record SwiftCodeView(
+    String swiftCode,
+    String address,
+    String bankName,
+    String countryISO2,
+    String countryName,
+    boolean isHeadquarter
+) {
+    public static SwiftCodeView from(SwiftCode swiftCode) {
+        return new SwiftCodeView(
+            swiftCode.getSwiftCode(),
+            swiftCode.getAddress(),
+            swiftCode.getBank().getBankName(),
+            swiftCode.getCountry().getIso2Code(),
+            swiftCode.getCountry().getName(),
+            swiftCode.isHeadquarter()
+        );
+    }
+
+    public String baseCode() {
+        return swiftCode.substring(0, 8);
+    }
+}
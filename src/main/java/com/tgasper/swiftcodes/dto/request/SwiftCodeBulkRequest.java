@@ -0,0 +1,9 @@
+package com.tgasper.swiftcodes.dto.request;
+
+import java.util.List;
+
+public record SwiftCodeBulkRequest(
+    List<SwiftCodeRequest> upserts,
+
+    List<String> deletes
+) {}
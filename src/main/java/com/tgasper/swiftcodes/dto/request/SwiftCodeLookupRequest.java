@@ -0,0 +1,7 @@
+package com.tgasper.swiftcodes.dto.request;
+
+import java.util.List;
+
+public record SwiftCodeLookupRequest(
+    List<String> swiftCodes
+) {}
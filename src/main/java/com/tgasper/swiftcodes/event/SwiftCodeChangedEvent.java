@@ -0,0 +1,20 @@
+package com.tgasper.swiftcodes.event;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+
+// published by SwiftCodeService for every single-code write
+public record SwiftCodeChangedEvent(SwiftCodeView swiftCode, ChangeType changeType) {
+
+    public enum ChangeType {
+        ADDED,
+        DELETED
+    }
+
+    public static SwiftCodeChangedEvent added(SwiftCodeView swiftCode) {
+        return new SwiftCodeChangedEvent(swiftCode, ChangeType.ADDED);
+    }
+
+    public static SwiftCodeChangedEvent deleted(SwiftCodeView swiftCode) {
+        return new SwiftCodeChangedEvent(swiftCode, ChangeType.DELETED);
+    }
+}
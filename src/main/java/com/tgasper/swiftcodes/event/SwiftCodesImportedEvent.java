@@ -0,0 +1,6 @@
+package com.tgasper.swiftcodes.event;
+
+// published once a CSV import has been committed, here or by another instance sharing the database;
+// the whole dataset may have changed
+public record SwiftCodesImportedEvent(String source) {
+}
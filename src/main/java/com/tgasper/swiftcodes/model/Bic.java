@@ -0,0 +1,98 @@
+package com.tgasper.swiftcodes.model;
+
+import com.tgasper.swiftcodes.exception.SwiftCodeValidationException;
+
+// Validation and normalization of BICs (SWIFT codes) and ISO2 country codes with a plain character scan.
+// A BIC has 8 or 11 characters: 4 letters for the bank, 2 letters for the country, 2 alphanumeric
+// characters for the location and optionally 3 alphanumeric characters for the branch, XXX being the
+// headquarters. Methods that normalize return their input when it is already in canonical form, so
+// codes that arrive upper-cased and complete are not copied.
+public final class Bic {
+    public static final int BIC8_LENGTH = 8;
+    public static final int BIC11_LENGTH = 11;
+    public static final String HEADQUARTER_BRANCH = "XXX";
+
+    private Bic() {
+    }
+
+    public static boolean isValid(String code) {
+        if (code == null || (code.length() != BIC8_LENGTH && code.length() != BIC11_LENGTH)) {
+            return false;
+        }
+        for (int i = 0; i < 6; i++) {
+            if (!isLetter(code.charAt(i))) {
+                return false;
+            }
+        }
+        for (int i = 6; i < code.length(); i++) {
+            if (!isAlphanumeric(code.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidCountryCode(String code) {
+        return code != null && code.length() == 2 && isLetter(code.charAt(0)) && isLetter(code.charAt(1));
+    }
+
+    // upper-cased BIC11, 8-character codes get the headquarters branch
+    public static String normalize(String code) {
+        if (code.length() != BIC8_LENGTH && code.length() != BIC11_LENGTH) {
+            throw new SwiftCodeValidationException("Invalid SWIFT code length");
+        }
+        if (!isValid(code)) {
+            throw new SwiftCodeValidationException("Invalid SWIFT code format");
+        }
+        return toCanonical(code);
+    }
+
+    // normalize without validation, for input that is validated separately (or not at all, like CSV rows)
+    public static String toCanonical(String code) {
+        if (code.length() != BIC8_LENGTH) {
+            return toUpperCase(code);
+        }
+        char[] canonical = new char[BIC11_LENGTH];
+        for (int i = 0; i < BIC8_LENGTH; i++) {
+            canonical[i] = toUpperCase(code.charAt(i));
+        }
+        HEADQUARTER_BRANCH.getChars(0, 3, canonical, BIC8_LENGTH);
+        return new String(canonical);
+    }
+
+    // ASCII upper case; unlike String.toUpperCase the input is returned when it has no lower-case letter
+    public static String toUpperCase(String value) {
+        int first = 0;
+        while (first < value.length() && !isLowerCase(value.charAt(first))) {
+            first++;
+        }
+        if (first == value.length()) {
+            return value;
+        }
+        char[] upper = value.toCharArray();
+        for (int i = first; i < upper.length; i++) {
+            upper[i] = toUpperCase(upper[i]);
+        }
+        return new String(upper);
+    }
+
+    public static boolean isHeadquarter(String code) {
+        return code.endsWith(HEADQUARTER_BRANCH);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || isLowerCase(c);
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static char toUpperCase(char c) {
+        return isLowerCase(c) ? (char) (c - ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,144 @@
+package com.tgasper.swiftcodes.model;
+
+// Packed primitive keys for BICs and ISO2 country codes, used by the in-memory structures in place of
+// String keys. A BIC11 takes 60 bits of a long: 5 bits for each of the 6 letters and 6 bits for each of
+// the 5 alphanumeric characters, the first character in the highest bits. Digits are ordered before
+// letters, so keys sort like the codes themselves. A BIC8 is packed as its headquarters BIC11, and the
+// key of the bank (the 8-character base code) is the BIC11 key without the branch bits.
+public final class BicKey {
+    // returned for input that is not a valid BIC or country code
+    public static final long NONE = -1;
+
+    // number of distinct country keys, country keys are 0 .. COUNTRY_KEYS - 1
+    public static final int COUNTRY_KEYS = 26 * 26;
+
+    private static final int LETTER_BITS = 5;
+    private static final int ALPHANUMERIC_BITS = 6;
+    private static final int BRANCH_BITS = 3 * ALPHANUMERIC_BITS;
+    private static final long HEADQUARTER_BRANCH = (33L << 12) | (33L << 6) | 33L;
+
+    private BicKey() {
+    }
+
+    // key of a BIC8 or BIC11 in any case, NONE when the code is not valid
+    public static long of(String code) {
+        if (code == null || (code.length() != Bic.BIC8_LENGTH && code.length() != Bic.BIC11_LENGTH)) {
+            return NONE;
+        }
+        long key = packBase(code);
+        if (key == NONE) {
+            return NONE;
+        }
+        if (code.length() == Bic.BIC8_LENGTH) {
+            return (key << BRANCH_BITS) | HEADQUARTER_BRANCH;
+        }
+        for (int i = Bic.BIC8_LENGTH; i < Bic.BIC11_LENGTH; i++) {
+            int value = alphanumeric(code.charAt(i));
+            if (value < 0) {
+                return NONE;
+            }
+            key = (key << ALPHANUMERIC_BITS) | value;
+        }
+        return key;
+    }
+
+    // key of the bank, from a base code or a complete BIC
+    public static long ofBase(String code) {
+        return code == null || code.length() < Bic.BIC8_LENGTH ? NONE : packBase(code);
+    }
+
+    public static long base(long key) {
+        return key >>> BRANCH_BITS;
+    }
+
+    // lowest key of a bank, the keys of its codes are base(key) == baseKey from here on
+    public static long firstOfBase(long baseKey) {
+        return baseKey << BRANCH_BITS;
+    }
+
+    // lowest key of the BIC11s starting with the prefix (1 to 11 characters in any case), NONE when no
+    // code can; their keys run from here up to, not including, firstOfPrefix + prefixSpan(prefix length)
+    public static long firstOfPrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > Bic.BIC11_LENGTH) {
+            return NONE;
+        }
+        long key = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            int value = i < 6 ? letter(prefix.charAt(i)) : alphanumeric(prefix.charAt(i));
+            if (value < 0) {
+                return NONE;
+            }
+            key = (key << (i < 6 ? LETTER_BITS : ALPHANUMERIC_BITS)) | value;
+        }
+        return key << bitsAfter(prefix.length());
+    }
+
+    public static long prefixSpan(int length) {
+        return 1L << bitsAfter(length);
+    }
+
+    // bits taken by the characters from position length on
+    private static int bitsAfter(int length) {
+        return Math.max(0, 6 - length) * LETTER_BITS + Math.min(5, Bic.BIC11_LENGTH - length) * ALPHANUMERIC_BITS;
+    }
+
+    public static int ofCountry(String iso2Code) {
+        if (iso2Code == null || iso2Code.length() != 2) {
+            return (int) NONE;
+        }
+        int first = letter(iso2Code.charAt(0));
+        int second = letter(iso2Code.charAt(1));
+        return first < 0 || second < 0 ? (int) NONE : first * 26 + second;
+    }
+
+    public static String toString(long key) {
+        char[] code = new char[Bic.BIC11_LENGTH];
+        for (int i = Bic.BIC11_LENGTH - 1; i >= 6; i--) {
+            int value = (int) (key & 0x3F);
+            code[i] = (char) (value < 10 ? '0' + value : 'A' + value - 10);
+            key >>>= ALPHANUMERIC_BITS;
+        }
+        for (int i = 5; i >= 0; i--) {
+            code[i] = (char) ('A' + (key & 0x1F));
+            key >>>= LETTER_BITS;
+        }
+        return new String(code);
+    }
+
+    private static long packBase(String code) {
+        long key = 0;
+        for (int i = 0; i < 6; i++) {
+            int value = letter(code.charAt(i));
+            if (value < 0) {
+                return NONE;
+            }
+            key = (key << LETTER_BITS) | value;
+        }
+        for (int i = 6; i < Bic.BIC8_LENGTH; i++) {
+            int value = alphanumeric(code.charAt(i));
+            if (value < 0) {
+                return NONE;
+            }
+            key = (key << ALPHANUMERIC_BITS) | value;
+        }
+        return key;
+    }
+
+    private static int letter(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+
+    private static int alphanumeric(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        int letter = letter(c);
+        return letter < 0 ? -1 : letter + 10;
+    }
+}
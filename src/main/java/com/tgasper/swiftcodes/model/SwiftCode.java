@@ -9,7 +9,8 @@ import jakarta.validation.constraints.Size;
 @Table(name = "swift_codes",
        indexes = {
            @Index(name = "idx_swift_code_country", columnList = "country_iso2_code"),
-           @Index(name = "idx_swift_code_bank", columnList = "bank_id")
+           @Index(name = "idx_swift_code_bank", columnList = "bank_id"),
+           @Index(name = "idx_swift_code_base_code", columnList = "base_code, swift_code")
        })
 public class SwiftCode {
     @Id
@@ -19,6 +20,12 @@ public class SwiftCode {
     @Pattern(regexp = "^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$", message = "Must be in BIC8 or BIC11 format")
     private String swiftCode;
 
+    // first 8 characters of the code, set with it; branch queries compare it for equality because
+    // LIKE 'BASECODE%' cannot use the primary key index under a non-C collation. Made NOT NULL by
+    // BaseCodeMigration, so that ddl-auto can add it to a table that already has rows
+    @Column(name = "base_code", length = 8)
+    private String baseCode;
+
     @ManyToOne
     @JoinColumn(name = "bank_id", nullable = false)
     private Bank bank;
@@ -40,6 +47,13 @@ public class SwiftCode {
 
     public void setSwiftCode(String swiftCode) {
         this.swiftCode = swiftCode;
+        this.baseCode = swiftCode == null || swiftCode.length() < Bic.BIC8_LENGTH
+                ? null
+                : swiftCode.substring(0, Bic.BIC8_LENGTH);
+    }
+
+    public String getBaseCode() {
+        return baseCode;
     }
 
     public Bank getBank() {
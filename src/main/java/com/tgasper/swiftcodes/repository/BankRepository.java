@@ -2,10 +2,18 @@ package com.tgasper.swiftcodes.repository;
 
 import com.tgasper.swiftcodes.model.Bank;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BankRepository extends JpaRepository<Bank, Long> {
     Optional<Bank> findBySwiftCode(String swiftCode);
     void deleteBySwiftCode(String swiftCode);
+    List<Bank> findBySwiftCodeIn(Collection<String> swiftCodes);
+    // banks among the given base codes that no swift code refers to anymore
+    @Query("SELECT b FROM Bank b WHERE b.swiftCode IN :swiftCodes AND NOT EXISTS (SELECT s FROM SwiftCode s WHERE s.bank = b)")
+    List<Bank> findUnusedBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
 } 
\ No newline at end of file
@@ -1,15 +1,67 @@
 package com.tgasper.swiftcodes.repository;
 
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
 import com.tgasper.swiftcodes.model.SwiftCode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SwiftCodeRepository extends JpaRepository<SwiftCode, String> {
-    List<SwiftCode> findBySwiftCodeStartingWith(String baseCode);
-    @Query("SELECT s FROM SwiftCode s JOIN FETCH s.bank WHERE s.country.iso2Code = :countryIso2Code ORDER BY s.swiftCode")
-    List<SwiftCode> findByCountryIso2Code(@Param("countryIso2Code") String countryIso2Code);
-    long countBySwiftCodeStartingWith(String baseSwiftCode);
-} 
\ No newline at end of file
+    // rows go straight into views, no managed entities or dirty-checking snapshots
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c WHERE c.iso2Code = :countryIso2Code ORDER BY s.swiftCode")
+    List<SwiftCodeView> findByCountryIso2Code(@Param("countryIso2Code") String countryIso2Code);
+    // keyset page: codes after the cursor in swift code order, the page size comes from the Pageable
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c WHERE c.iso2Code = :countryIso2Code AND s.swiftCode > :after ORDER BY s.swiftCode")
+    List<SwiftCodeView> findPageByCountryIso2Code(@Param("countryIso2Code") String countryIso2Code,
+                                                  @Param("after") String after, Pageable pageable);
+    // read through a database cursor, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c WHERE c.iso2Code = :countryIso2Code ORDER BY s.swiftCode")
+    Stream<SwiftCodeView> streamByCountryIso2Code(@Param("countryIso2Code") String countryIso2Code);
+    // the whole table in swift code order through a database cursor, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c ORDER BY s.swiftCode")
+    Stream<SwiftCodeView> streamAllViews();
+    // stops at the first code of the country, on the country_iso2_code index
+    boolean existsByCountryIso2Code(String countryIso2Code);
+    // codes of a bank, an equality match on the indexed base_code column
+    long countByBaseCode(String baseCode);
+    // any prefix; LIKE cannot use an index under a non-C collation, bank lookups go through base_code
+    long countBySwiftCodeStartingWith(String prefix);
+    @Query("SELECT s FROM SwiftCode s JOIN FETCH s.bank JOIN FETCH s.country WHERE s.swiftCode IN :swiftCodes")
+    List<SwiftCode> findWithBankAndCountryBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c")
+    List<SwiftCodeView> findAllViews();
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c WHERE s.swiftCode IN :swiftCodes")
+    List<SwiftCodeView> findViewsBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
+    // codes from first (inclusive) to end (exclusive) in swift code order, a range of the primary key;
+    // the page size comes from the Pageable
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c " +
+           "WHERE s.swiftCode >= :first AND s.swiftCode < :end ORDER BY s.swiftCode")
+    List<SwiftCodeView> findViewsInRange(@Param("first") String first, @Param("end") String end, Pageable pageable);
+    // a single code by its primary key, bank and country joined in
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c WHERE s.swiftCode = :swiftCode")
+    Optional<SwiftCodeView> findViewBySwiftCode(@Param("swiftCode") String swiftCode);
+    // a code together with every other code of its bank in one statement, bank and country joined in
+    @Query("SELECT new com.tgasper.swiftcodes.dto.projection.SwiftCodeView(s.swiftCode, s.address, b.bankName, c.iso2Code, c.name, s.isHeadquarter) " +
+           "FROM SwiftCode s JOIN s.bank b JOIN s.country c " +
+           "WHERE s.baseCode = :baseCode ORDER BY s.swiftCode")
+    List<SwiftCodeView> findViewsByBaseCode(@Param("baseCode") String baseCode);
+} 
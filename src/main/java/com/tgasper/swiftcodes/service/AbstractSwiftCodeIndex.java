@@ -0,0 +1,114 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.event.SwiftCodesImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Build and update cycle shared by the in-memory indexes over all SWIFT codes. A generation is built
+// from the database on startup and after every import and then published to readers. Committed
+// single-code writes are applied to the published generation; those committed while a build is
+// running are recorded and replayed on the new generation before it is published, so none is lost.
+public abstract class AbstractSwiftCodeIndex<G> {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractSwiftCodeIndex.class);
+
+    private final boolean enabled;
+
+    // generation served to readers, null until the first build has finished
+    private volatile G current;
+
+    // guards writes to the index; while a rebuild is running, committed changes are also
+    // recorded here and replayed on the new generation before it is published
+    private final Object writeLock = new Object();
+    private List<SwiftCodeChangedEvent> replayLog;
+
+    protected AbstractSwiftCodeIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    // the generation served to readers, null while disabled or before the first build
+    protected G current() {
+        return current;
+    }
+
+    // a new generation holding every code of the database
+    protected abstract G build();
+
+    // applies a committed change, called by one thread at a time
+    protected abstract void apply(G generation, SwiftCodeChangedEvent event);
+
+    // what the generation holds, for the build log
+    protected abstract String describe(G generation);
+
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            replayLog = new ArrayList<>();
+        }
+
+        G generation;
+        try {
+            generation = build();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                replayLog = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            for (SwiftCodeChangedEvent event : replayLog) {
+                apply(generation, event);
+            }
+            replayLog = null;
+            current = generation;
+        }
+        logger.info("{} built in {} ms", describe(generation), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled && current == null) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onSwiftCodesImported(SwiftCodesImportedEvent event) {
+        rebuild();
+    }
+
+    // applied only once the write has been committed, rolled back writes never reach the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodeChanged(SwiftCodeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (current != null) {
+                apply(current, event);
+            }
+            if (replayLog != null) {
+                replayLog.add(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.tgasper.swiftcodes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Reloads the whole directory without readers ever seeing partial data (PostgreSQL only). The file is
+// loaded into countries_next, banks_next and swift_codes_next, which get the constraints and indexes
+// of the live tables once they are filled, and the generations are then switched by renaming the
+// tables in one short transaction. The replaced tables stay behind as *_previous for rollback() until
+// the next reload switches, which drops them in the same transaction; a reload that fails keeps them. The rename needs an exclusive lock, which is requested with a short lock_timeout
+// and retried, so that readers queue behind it for at most that long. The same transaction stamps
+// the whole dataset in dataset_versions, and once it has committed the in-memory copies of this
+// instance are rebuilt; other instances find the new version when they poll and rebuild theirs.
+// Writes made to the live tables while the next generation is loaded are not carried over.
+@Service
+public class BlueGreenImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BlueGreenImportService.class);
+
+    // in dependency order, referenced tables first
+    private static final List<String> TABLES = List.of("countries", "banks", "swift_codes");
+    private static final String NEXT = "_next";
+    private static final String PREVIOUS = "_previous";
+
+    private static final int LOCK_TIMEOUT_MILLIS = 100;
+    private static final int MAX_SWITCH_ATTEMPTS = 50;
+    private static final long SWITCH_RETRY_DELAY_MILLIS = 200;
+
+    // same merge rules as CopyImportService, into empty tables
+    private static final String LOAD_COUNTRIES = """
+            INSERT INTO countries_next (iso2_code, name)
+            SELECT DISTINCT ON (iso2_code) iso2_code, country_name
+            FROM swift_codes_staging
+            ORDER BY iso2_code, line_no""";
+
+    private static final String LOAD_BANKS = """
+            INSERT INTO banks_next (id, bank_name, swift_code)
+            SELECT nextval('banks_seq'), bank_name, base_code
+            FROM (
+                SELECT DISTINCT ON (base_code) bank_name, base_code
+                FROM swift_codes_staging
+                ORDER BY base_code, line_no
+            ) new_banks""";
+
+    private static final String LOAD_SWIFT_CODES = """
+            INSERT INTO swift_codes_next (swift_code, base_code, address, is_headquarter, bank_id, country_iso2_code)
+            SELECT DISTINCT ON (s.swift_code) s.swift_code, s.base_code, s.address, s.is_headquarter, b.id, s.iso2_code
+            FROM swift_codes_staging s
+            JOIN banks_next b ON b.swift_code = s.base_code
+            ORDER BY s.swift_code, s.line_no DESC""";
+
+    private static final String SELECT_CONSTRAINTS = """
+            SELECT conname, pg_get_constraintdef(oid)
+            FROM pg_constraint
+            WHERE conrelid = ?::regclass AND contype IN ('p', 'u', 'f', 'c', 'x')
+            ORDER BY contype = 'f', conname""";
+
+    // indexes that do not back a primary key or unique constraint
+    private static final String SELECT_INDEXES = """
+            SELECT indexname, indexdef
+            FROM pg_indexes
+            WHERE schemaname = current_schema() AND tablename = ?
+              AND indexname NOT IN (SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass)
+            ORDER BY indexname""";
+
+    private static final Pattern INDEX_DEFINITION =
+            Pattern.compile("^(CREATE (?:UNIQUE )?INDEX )(\\S+)( ON (?:ONLY )?(?:\\S+\\.)?)(\\S+)( .*)$");
+    private static final Pattern FOREIGN_KEY_TARGET = Pattern.compile("REFERENCES (?:\\S+\\.)?(\\w+)\\(");
+
+    private final DataSource dataSource;
+    private final CopyImportService copyImportService;
+    private final SwiftCodeParserService swiftCodeParserService;
+    private final DatasetVersion datasetVersion;
+
+    public BlueGreenImportService(DataSource dataSource,
+                                  CopyImportService copyImportService,
+                                  SwiftCodeParserService swiftCodeParserService,
+                                  DatasetVersion datasetVersion) {
+        this.dataSource = dataSource;
+        this.copyImportService = copyImportService;
+        this.swiftCodeParserService = swiftCodeParserService;
+        this.datasetVersion = datasetVersion;
+    }
+
+    public ImportResult parseAndSave(String filePath) throws IOException {
+        if (!copyImportService.isPostgreSQL()) {
+            logger.warn("Blue/green import requires PostgreSQL, falling back to the standard import");
+            ImportResult result = swiftCodeParserService.parseAndSave(filePath);
+            datasetVersion.importCommitted(filePath);
+            return result;
+        }
+
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                CopyImportService.StagedRows staged =
+                        inTransaction(connection, () -> loadNextGeneration(connection, filePath));
+                long version = switchGenerations(connection, () -> {
+                    // the rollback target is replaced only together with the switch, so a failed
+                    // reload leaves it in place
+                    try (Statement statement = connection.createStatement()) {
+                        dropGeneration(statement, PREVIOUS);
+                    }
+                    renameGeneration(connection, "", PREVIOUS);
+                    renameGeneration(connection, NEXT, "");
+                });
+                logger.info("Switched to the new generation of {} rows (version {}), the replaced one is kept as *{}",
+                        staged.rows(), version, PREVIOUS);
+                datasetVersion.importCommitted(filePath, version);
+                return ImportResult.since(staged.rows(), staged.skippedRows(), 0, start);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Blue/green import failed: " + e.getMessage(), e);
+        }
+    }
+
+    // switches back to the generation replaced by the last reload, which becomes the previous one in turn
+    public void rollback() throws IOException {
+        if (!copyImportService.isPostgreSQL()) {
+            throw new IOException("Blue/green rollback requires PostgreSQL");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tableExists(connection, "swift_codes" + PREVIOUS)) {
+                throw new IOException("No previous generation to roll back to");
+            }
+            try (Statement statement = connection.createStatement()) {
+                dropGeneration(statement, NEXT);
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long version = switchGenerations(connection, () -> {
+                    renameGeneration(connection, "", NEXT);
+                    renameGeneration(connection, PREVIOUS, "");
+                    renameGeneration(connection, NEXT, PREVIOUS);
+                });
+                logger.info("Rolled back to the previous generation (version {})", version);
+                datasetVersion.importCommitted("rollback", version);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Blue/green rollback failed: " + e.getMessage(), e);
+        }
+    }
+
+    private CopyImportService.StagedRows loadNextGeneration(Connection connection, String filePath)
+            throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // any leftover of a failed reload; the generation kept for rollback stays until the switch
+            dropGeneration(statement, NEXT);
+            // columns, defaults and NOT NULL only; keys and indexes are built after the load
+            for (String table : TABLES) {
+                statement.execute("CREATE TABLE " + table + NEXT + " (LIKE " + table + " INCLUDING DEFAULTS)");
+            }
+        }
+
+        CopyImportService.StagedRows staged = copyImportService.stage(connection, filePath);
+        long loadStart = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            int countries = statement.executeUpdate(LOAD_COUNTRIES);
+            int banks = statement.executeUpdate(LOAD_BANKS);
+            int swiftCodes = statement.executeUpdate(LOAD_SWIFT_CODES);
+            logger.info("Loaded the next generation: {} countries, {} banks, {} swift codes in {} ms",
+                    countries, banks, swiftCodes, (System.nanoTime() - loadStart) / 1_000_000);
+        }
+
+        long indexStart = System.nanoTime();
+        for (String table : TABLES) {
+            copyKeysAndIndexes(connection, table);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                statement.execute("ANALYZE " + table + NEXT);
+            }
+        }
+        logger.info("Built keys and indexes of the next generation in {} ms",
+                (System.nanoTime() - indexStart) / 1_000_000);
+        return staged;
+    }
+
+    // tables dropped in one statement, so that foreign keys between them do not get in the way
+    private void dropGeneration(Statement statement, String suffix) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS " + String.join(", ",
+                TABLES.stream().map(table -> table + suffix).toList()));
+    }
+
+    // recreates the constraints and indexes of a live table on its next generation, named with the suffix
+    private void copyKeysAndIndexes(Connection connection, String table) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        for (String[] constraint : query(connection, SELECT_CONSTRAINTS, table)) {
+            Matcher target = FOREIGN_KEY_TARGET.matcher(constraint[1]);
+            String definition = target.find() && TABLES.contains(target.group(1))
+                    ? target.replaceFirst("REFERENCES " + target.group(1) + NEXT + "(")
+                    : constraint[1];
+            statements.add("ALTER TABLE " + table + NEXT + " ADD CONSTRAINT "
+                    + quote(constraint[0] + NEXT) + " " + definition);
+        }
+        for (String[] index : query(connection, SELECT_INDEXES, table, table)) {
+            Matcher definition = INDEX_DEFINITION.matcher(index[1]);
+            if (!definition.matches()) {
+                throw new SQLException("Unexpected index definition: " + index[1]);
+            }
+            statements.add(definition.group(1) + quote(index[0] + NEXT) + definition.group(3)
+                    + table + NEXT + definition.group(5));
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    // renames the tables of a generation together with their constraints and indexes
+    private void renameGeneration(Connection connection, String from, String to) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        for (String table : TABLES) {
+            String source = table + from;
+            for (String[] constraint : query(connection, SELECT_CONSTRAINTS, source)) {
+                statements.add("ALTER TABLE " + source + " RENAME CONSTRAINT "
+                        + quote(constraint[0]) + " TO " + quote(rename(constraint[0], from, to)));
+            }
+            for (String[] index : query(connection, SELECT_INDEXES, source, source)) {
+                statements.add("ALTER INDEX " + quote(index[0]) + " RENAME TO " + quote(rename(index[0], from, to)));
+            }
+            statements.add("ALTER TABLE " + source + " RENAME TO " + table + to);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    // runs the renames in a transaction that gives up quickly on the table locks and is retried,
+    // so that waiting for running queries never holds up new readers for longer than the lock timeout;
+    // returns the dataset version stamped with them
+    private long switchGenerations(Connection connection, SqlAction renames) throws IOException, SQLException {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT_MILLIS + "ms'");
+                    statement.execute("LOCK TABLE " + String.join(", ", TABLES) + " IN ACCESS EXCLUSIVE MODE");
+                }
+                renames.run();
+                long version = datasetVersion.stampImport(connection);
+                connection.commit();
+                logger.info("Switched generations in {} ms after {} attempt(s)",
+                        (System.nanoTime() - start) / 1_000_000, attempt);
+                return version;
+            } catch (SQLException e) {
+                connection.rollback();
+                // 55P03 lock_not_available, 40P01 deadlock_detected
+                boolean lockConflict = "55P03".equals(e.getSQLState()) || "40P01".equals(e.getSQLState());
+                if (!lockConflict || attempt == MAX_SWITCH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(SWITCH_RETRY_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while switching generations", e);
+            }
+        }
+    }
+
+    private <T> T inTransaction(Connection connection, SqlSupplier<T> work) throws IOException, SQLException {
+        try {
+            T result = work.get();
+            connection.commit();
+            return result;
+        } catch (IOException | SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private boolean tableExists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private List<String[]> query(Connection connection, String sql, String... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            List<String[]> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(new String[]{resultSet.getString(1), resultSet.getString(2)});
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static String rename(String name, String from, String to) {
+        String base = name.endsWith(from) ? name.substring(0, name.length() - from.length()) : name;
+        return base + to;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlSupplier<T> {
+        T get() throws IOException, SQLException;
+    }
+}
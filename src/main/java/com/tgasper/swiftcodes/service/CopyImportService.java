@@ -0,0 +1,223 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.model.BicKey;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Bulk loader for PostgreSQL: rows are streamed through COPY into a temporary staging table and
+// merged into countries, banks and swift_codes with set-based statements in one transaction.
+// The merge reproduces SwiftCodeParserService: the first row of a country or bank wins its name,
+// existing countries and banks are kept, and swift codes are upserted with the last row winning.
+// Rows without a valid SWIFT or country code are skipped while staging, as they are there.
+// Other databases fall back to SwiftCodeParserService.
+@Service
+public class CopyImportService {
+    private static final Logger logger = LoggerFactory.getLogger(CopyImportService.class);
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE swift_codes_staging (
+                line_no bigint NOT NULL,
+                iso2_code varchar(2) NOT NULL,
+                country_name varchar(255) NOT NULL,
+                swift_code varchar(11) NOT NULL,
+                base_code varchar(8) NOT NULL,
+                bank_name varchar(255) NOT NULL,
+                address varchar(255),
+                is_headquarter boolean NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_STAGING = """
+            COPY swift_codes_staging (line_no, iso2_code, country_name, swift_code, base_code,
+                bank_name, address, is_headquarter) FROM STDIN""";
+
+    private static final String MERGE_COUNTRIES = """
+            INSERT INTO countries (iso2_code, name)
+            SELECT DISTINCT ON (iso2_code) iso2_code, country_name
+            FROM swift_codes_staging
+            ORDER BY iso2_code, line_no
+            ON CONFLICT (iso2_code) DO NOTHING""";
+
+    private static final String MERGE_BANKS = """
+            INSERT INTO banks (id, bank_name, swift_code)
+            SELECT nextval('banks_seq'), bank_name, base_code
+            FROM (
+                SELECT DISTINCT ON (base_code) bank_name, base_code
+                FROM swift_codes_staging
+                WHERE NOT EXISTS (SELECT 1 FROM banks b WHERE b.swift_code = base_code)
+                ORDER BY base_code, line_no
+            ) new_banks
+            ON CONFLICT (swift_code) DO NOTHING""";
+
+    private static final String MERGE_SWIFT_CODES = """
+            INSERT INTO swift_codes (swift_code, base_code, address, is_headquarter, bank_id, country_iso2_code)
+            SELECT DISTINCT ON (s.swift_code) s.swift_code, s.base_code, s.address, s.is_headquarter, b.id, s.iso2_code
+            FROM swift_codes_staging s
+            JOIN banks b ON b.swift_code = s.base_code
+            ORDER BY s.swift_code, s.line_no DESC
+            ON CONFLICT (swift_code) DO UPDATE SET
+                address = EXCLUDED.address,
+                is_headquarter = EXCLUDED.is_headquarter,
+                bank_id = EXCLUDED.bank_id,
+                country_iso2_code = EXCLUDED.country_iso2_code""";
+
+    private final DataSource dataSource;
+    private final SwiftCodeParserService swiftCodeParserService;
+
+    public CopyImportService(DataSource dataSource, SwiftCodeParserService swiftCodeParserService) {
+        this.dataSource = dataSource;
+        this.swiftCodeParserService = swiftCodeParserService;
+    }
+
+    public ImportResult parseAndSave(String filePath) throws IOException {
+        if (!isPostgreSQL()) {
+            logger.warn("COPY import requires PostgreSQL, falling back to the standard import");
+            return swiftCodeParserService.parseAndSave(filePath);
+        }
+
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                StagedRows staged = load(connection, filePath);
+                connection.commit();
+                return ImportResult.since(staged.rows(), staged.skippedRows(), 0, start);
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("COPY import failed: " + e.getMessage(), e);
+        }
+    }
+
+    boolean isPostgreSQL() throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            throw new IOException("Could not determine the database type: " + e.getMessage(), e);
+        }
+    }
+
+    private StagedRows load(Connection connection, String filePath) throws IOException, SQLException {
+        StagedRows staged = stage(connection, filePath);
+        try (Statement statement = connection.createStatement()) {
+            int countries = statement.executeUpdate(MERGE_COUNTRIES);
+            int banks = statement.executeUpdate(MERGE_BANKS);
+            int swiftCodes = statement.executeUpdate(MERGE_SWIFT_CODES);
+            logger.info("Merged staging rows: {} new countries, {} new banks, {} swift codes",
+                    countries, banks, swiftCodes);
+        }
+        return staged;
+    }
+
+    // copies the file into the swift_codes_staging table, which is dropped when the transaction ends;
+    // shared with BlueGreenImportService
+    StagedRows stage(Connection connection, String filePath) throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING_TABLE);
+        }
+
+        long copyStart = System.nanoTime();
+        StagedRows staged = copyToStaging(connection, filePath);
+        logger.info("Copied {} rows to staging in {} ms", staged.rows(), (System.nanoTime() - copyStart) / 1_000_000);
+        if (staged.skippedRows() > 0) {
+            logger.warn("Skipped {} invalid rows", staged.skippedRows());
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE swift_codes_staging");
+        }
+        return staged;
+    }
+
+    private StagedRows copyToStaging(Connection connection, String filePath) throws IOException, SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        CopyIn copyIn = copyManager.copyIn(COPY_STAGING);
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath));
+             CSVParser csvParser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            long lineNo = 0;
+            long skippedRows = 0;
+            for (CSVRecord record : csvParser) {
+                lineNo++;
+                SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+                // the rule of SwiftCodeParserService; such a row would also overflow the staging columns
+                if (BicKey.of(row.swiftCode()) == BicKey.NONE || BicKey.ofCountry(row.iso2Code()) < 0) {
+                    skippedRows++;
+                    logger.warn("Skipping invalid row with SWIFT code '{}' and country '{}'",
+                            row.swiftCode(), row.iso2Code());
+                    continue;
+                }
+                appendCopyLine(buffer, lineNo, row);
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            return new StagedRows(copyIn.endCopy(), skippedRows);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    // one line of COPY text format: tab separated columns, newline terminated
+    private void appendCopyLine(StringBuilder buffer, long lineNo, SwiftCodeCsvRow row) {
+        buffer.append(lineNo).append('\t');
+        appendEscaped(buffer, row.iso2Code()).append('\t');
+        appendEscaped(buffer, row.countryName()).append('\t');
+        appendEscaped(buffer, row.swiftCode()).append('\t');
+        appendEscaped(buffer, row.baseSwiftCode()).append('\t');
+        appendEscaped(buffer, row.bankName()).append('\t');
+        appendEscaped(buffer, row.address()).append('\t');
+        buffer.append(row.isHeadquarter() ? 't' : 'f').append('\n');
+    }
+
+    // rows copied to the staging table and rows left out as invalid
+    record StagedRows(long rows, long skippedRows) {
+    }
+
+    private StringBuilder appendEscaped(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,129 @@
+package com.tgasper.swiftcodes.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.event.SwiftCodesImportedEvent;
+import com.tgasper.swiftcodes.model.BicKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPOutputStream;
+
+// Full country listings (GET /v1/swift-codes/country/{countryISO2code} without paging) kept as the
+// serialized UTF-8 JSON and its gzip encoding, one entry per country. An entry belongs to the country
+// version of DatasetVersion it was built for: a write in the country raises that version, so the next
+// request rebuilds the entry while other countries keep theirs, and an import drops everything.
+// Entries that would take the cache over max-bytes are served but not kept.
+@Component
+public class CountryResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(CountryResponseCache.class);
+
+    private final SwiftCodeService swiftCodeService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxBytes;
+
+    private final AtomicReferenceArray<CachedResponse> entries = new AtomicReferenceArray<>(BicKey.COUNTRY_KEYS);
+    private final AtomicLong cachedBytes = new AtomicLong();
+    // one build per country at a time, concurrent requests for a stale entry wait for it
+    private final Object[] buildLocks = new Object[BicKey.COUNTRY_KEYS];
+
+    public CountryResponseCache(SwiftCodeService swiftCodeService,
+                                ObjectMapper objectMapper,
+                                @Value("${swift-codes.response-cache.enabled:false}") boolean enabled,
+                                @Value("${swift-codes.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.swiftCodeService = swiftCodeService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < buildLocks.length; i++) {
+            buildLocks[i] = new Object();
+        }
+    }
+
+    // the listing of the country as of the given country version, which the caller reads before
+    // calling, so that a change committed meanwhile leaves an entry that is already stale
+    public CachedResponse get(String countryISO2, long version) {
+        int countryKey = BicKey.ofCountry(countryISO2);
+        if (!enabled || countryKey < 0) {
+            // served once, not worth compressing up front
+            return build(countryISO2, version, false);
+        }
+        CachedResponse cached = entries.get(countryKey);
+        if (cached != null && cached.version() >= version) {
+            return cached;
+        }
+        synchronized (buildLocks[countryKey]) {
+            cached = entries.get(countryKey);
+            if (cached != null && cached.version() >= version) {
+                return cached;
+            }
+            CachedResponse built = build(countryISO2, version, true);
+            long released = cached == null ? 0 : cached.size();
+            if (cachedBytes.get() - released + built.size() <= maxBytes) {
+                entries.set(countryKey, built);
+                cachedBytes.addAndGet(built.size() - released);
+            } else {
+                logger.debug("Listing of {} ({} bytes) exceeds the response cache budget", countryISO2, built.size());
+            }
+            return built;
+        }
+    }
+
+    @EventListener
+    public void onSwiftCodesImported(SwiftCodesImportedEvent event) {
+        for (int i = 0; i < entries.length(); i++) {
+            synchronized (buildLocks[i]) {
+                CachedResponse removed = entries.getAndSet(i, null);
+                if (removed != null) {
+                    cachedBytes.addAndGet(-removed.size());
+                }
+            }
+        }
+    }
+
+    // whether get() returns a gzip encoding for a valid country
+    public boolean compresses() {
+        return enabled;
+    }
+
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    private CachedResponse build(String countryISO2, long version, boolean compress) {
+        CountrySwiftCodesResponse response = swiftCodeService.getSwiftCodesByCountry(countryISO2);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new CachedResponse(version, json, compress ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // gzip is null when the response was built without being cached
+    public record CachedResponse(long version, byte[] json, byte[] gzip) {
+        long size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.event.SwiftCodesImportedEvent;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Version of the dataset, the source of the ETag and Last-Modified headers of the GET endpoints. The
+// versions live in the dataset_versions table shared by all instances (see DatasetVersionStore): an
+// import stamps the whole dataset, a single-code write stamps its country and its code in the write
+// transaction. This instance keeps the highest version of the dataset, of every country and of every
+// bank slot (banks share a fixed number of slots by hash, two banks in one slot only cost each other a
+// full response after a change), raised once its own writes have committed and, with polling enabled,
+// once it has found the changes of other instances in the table. A change found there is applied to
+// the in-memory copies first, an import by rebuilding them and a write by re-reading its code, and
+// only then is the version raised, so a new ETag never goes out with the data it replaces.
+@Component
+public class DatasetVersion implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetVersion.class);
+
+    private static final int BANK_SLOTS = 1 << 16;
+    // codes re-read from the database per query when another instance changed them
+    private static final int REFRESH_BATCH = 1000;
+
+    private final DatasetVersionStore store;
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean pollEnabled;
+
+    // version of the last import, no country or bank is older than this
+    private volatile long importVersion;
+    private final AtomicLongArray countryVersions = new AtomicLongArray(BicKey.COUNTRY_KEYS);
+    private final AtomicLongArray bankVersions = new AtomicLongArray(BANK_SLOTS);
+
+    // versions stamped by this instance, skipped when poll() finds them in the table
+    private final Set<Long> ownVersions = ConcurrentHashMap.newKeySet();
+    // every change up to this version has been applied, guarded by this
+    private long polledVersion;
+
+    public DatasetVersion(DatasetVersionStore store,
+                          SwiftCodeRepository swiftCodeRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${swift-codes.dataset-version.poll-enabled:false}") boolean pollEnabled) {
+        this.store = store;
+        this.swiftCodeRepository = swiftCodeRepository;
+        this.eventPublisher = eventPublisher;
+        this.pollEnabled = pollEnabled;
+    }
+
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        store.initialize();
+        // the last import and the scopes changed since, the stamp of an import deletes the older ones
+        Map<String, Long> versions = store.changesAfter(0);
+        versions.forEach(this::raise);
+        polledVersion = versions.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    // version of everything listed for the country, NONE for input that is not a country code
+    public long countryVersion(String countryISO2) {
+        int countryKey = BicKey.ofCountry(countryISO2);
+        return countryKey < 0 ? BicKey.NONE : Math.max(importVersion, countryVersions.get(countryKey));
+    }
+
+    // version of a code and of every code of its bank, NONE for input that is not a SWIFT code
+    public long bankVersion(String swiftCode) {
+        long key = BicKey.of(swiftCode);
+        return key == BicKey.NONE ? BicKey.NONE : Math.max(importVersion, bankVersions.get(slot(BicKey.base(key))));
+    }
+
+    // called once an import has been committed: stamps the whole dataset, has the in-memory copies
+    // rebuilt by the listeners of SwiftCodesImportedEvent and then raises the version
+    public void importCommitted(String source) {
+        long version = store.stampInNewTransaction(List.of(DatasetVersionStore.ALL));
+        ownVersions.add(version);
+        importCommitted(source, version);
+    }
+
+    // stamps the whole dataset in the transaction of an import that runs on its own connection; once
+    // the caller has committed it, it hands the version to importCommitted(source, version)
+    public long stampImport(Connection connection) throws SQLException {
+        long version = DatasetVersionStore.stamp(connection, List.of(DatasetVersionStore.ALL));
+        // added before the commit, so that poll() never takes it for another instance's import
+        ownVersions.add(version);
+        return version;
+    }
+
+    public void importCommitted(String source, long version) {
+        eventPublisher.publishEvent(new SwiftCodesImportedEvent(source));
+        raise(DatasetVersionStore.ALL, version);
+    }
+
+    // Collects the country and code of every change of the write transaction. They are stamped with one
+    // version right before it commits, and the version is raised after completion, when the listeners
+    // of the committed change have updated the in-memory copies. Changes published outside a
+    // transaction come from poll() and are stamped already.
+    @EventListener
+    public void onSwiftCodeChanged(SwiftCodeChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionScopes scopes = (TransactionScopes) TransactionSynchronizationManager.getResource(this);
+        if (scopes == null) {
+            scopes = new TransactionScopes();
+            TransactionSynchronizationManager.bindResource(this, scopes);
+            TransactionSynchronizationManager.registerSynchronization(scopes);
+        }
+        scopes.add(event.swiftCode());
+    }
+
+    @Scheduled(fixedDelayString = "${swift-codes.dataset-version.poll-interval-ms:1000}")
+    public void scheduledPoll() {
+        if (pollEnabled) {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                logger.warn("Could not read the shared dataset version: {}", e.getMessage());
+            }
+        }
+    }
+
+    // applies the changes other instances have committed since the last poll
+    public synchronized void poll() {
+        Map<String, Long> changes = store.changesAfter(polledVersion);
+        if (changes.isEmpty()) {
+            return;
+        }
+        long imported = 0;
+        Set<String> changedCodes = new LinkedHashSet<>();
+        long latest = polledVersion;
+        for (Map.Entry<String, Long> change : changes.entrySet()) {
+            long version = change.getValue();
+            latest = Math.max(latest, version);
+            if (ownVersions.contains(version)) {
+                continue;
+            }
+            if (DatasetVersionStore.ALL.equals(change.getKey())) {
+                imported = version;
+            } else if (change.getKey().length() == Bic.BIC11_LENGTH) {
+                changedCodes.add(change.getKey());
+            }
+        }
+
+        if (imported != 0) {
+            // the rebuild reads every change committed so far
+            logger.info("Dataset changed by another instance (version {}), rebuilding", imported);
+            eventPublisher.publishEvent(new SwiftCodesImportedEvent("dataset version " + imported));
+        } else if (!changedCodes.isEmpty()) {
+            refresh(new ArrayList<>(changedCodes));
+        }
+        changes.forEach(this::raise);
+        long applied = latest;
+        ownVersions.removeIf(version -> version <= applied);
+        polledVersion = latest;
+    }
+
+    // re-reads codes changed by another instance and hands them to the listeners as committed changes
+    private void refresh(List<String> swiftCodes) {
+        for (int from = 0; from < swiftCodes.size(); from += REFRESH_BATCH) {
+            List<String> batch = swiftCodes.subList(from, Math.min(from + REFRESH_BATCH, swiftCodes.size()));
+            Set<String> deleted = new LinkedHashSet<>(batch);
+            for (SwiftCodeView view : swiftCodeRepository.findViewsBySwiftCodeIn(batch)) {
+                deleted.remove(view.swiftCode());
+                eventPublisher.publishEvent(SwiftCodeChangedEvent.added(view));
+            }
+            // the listeners only need the code and its country
+            for (String swiftCode : deleted) {
+                eventPublisher.publishEvent(SwiftCodeChangedEvent.deleted(new SwiftCodeView(swiftCode, null, null,
+                        swiftCode.substring(4, 6), null, swiftCode.endsWith(Bic.HEADQUARTER_BRANCH))));
+            }
+        }
+    }
+
+    private void raise(String scope, long version) {
+        if (DatasetVersionStore.ALL.equals(scope)) {
+            importVersion = Math.max(importVersion, version);
+        } else if (scope.length() == 2) {
+            int countryKey = BicKey.ofCountry(scope);
+            if (countryKey >= 0) {
+                countryVersions.accumulateAndGet(countryKey, version, Math::max);
+            }
+        } else {
+            long key = BicKey.of(scope);
+            if (key != BicKey.NONE) {
+                bankVersions.accumulateAndGet(slot(BicKey.base(key)), version, Math::max);
+            }
+        }
+    }
+
+    private static int slot(long baseKey) {
+        return (int) ((baseKey * 0x9E3779B97F4A7C15L) >>> 48) & (BANK_SLOTS - 1);
+    }
+
+    // countries and codes changed by one transaction
+    private final class TransactionScopes implements TransactionSynchronization {
+        private final Set<String> scopes = new LinkedHashSet<>();
+        private long version;
+
+        void add(SwiftCodeView swiftCode) {
+            if (swiftCode.countryISO2() != null) {
+                scopes.add(swiftCode.countryISO2());
+            }
+            scopes.add(swiftCode.swiftCode());
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            version = store.stamp(scopes);
+            ownVersions.add(version);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DatasetVersion.this);
+            if (version == 0) {
+                return;
+            }
+            if (status == STATUS_COMMITTED) {
+                scopes.forEach(scope -> raise(scope, version));
+            } else {
+                ownVersions.remove(version);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.tgasper.swiftcodes.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The dataset_versions table, shared by every instance on the database: one row per scope with the
+// version of its last committed change. A scope is ALL for the whole dataset (imports and blue/green
+// switches), an ISO2 country code or an 11-character SWIFT code. Versions are handed out under the
+// lock of the counter row, which is held until the transaction ends, so they are committed in
+// increasing order: whoever has read every version up to v has seen every change up to v. A sequence
+// would not give that order, so stamping transactions queue on the row instead: every writer stamps
+// right before its commit, which keeps the lock to the commit itself, and writes of all instances
+// commit one at a time. A stamp of the whole dataset supersedes every older scope, so it deletes them
+// and the table only holds the scopes changed since the last import.
+@Component
+public class DatasetVersionStore {
+    public static final String ALL = "*";
+    private static final String COUNTER = "#";
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS dataset_versions (
+                scope varchar(11) PRIMARY KEY,
+                version bigint NOT NULL
+            )""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private volatile boolean initialized;
+
+    public DatasetVersionStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // creates the table and the counter on first use, another instance may be doing the same; called by
+    // every bean that reads the table at startup, whichever comes first
+    public synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        newTransaction.executeWithoutResult(status -> jdbcTemplate.execute(CREATE_TABLE));
+        for (String scope : List.of(COUNTER, ALL)) {
+            try {
+                newTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                        "INSERT INTO dataset_versions (scope, version) " +
+                        "SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM dataset_versions WHERE scope = ?)",
+                        scope, System.currentTimeMillis(), scope));
+            } catch (DataIntegrityViolationException e) {
+                // inserted by an instance starting at the same time
+            }
+        }
+        initialized = true;
+    }
+
+    // stamps the scopes in the surrounding transaction, returns the version they get once it commits
+    public long stamp(Collection<String> scopes) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> stamp(connection, scopes));
+    }
+
+    // stamps the scopes in a transaction of their own
+    public long stampInNewTransaction(Collection<String> scopes) {
+        return newTransaction.execute(status -> stamp(scopes));
+    }
+
+    // stamps the scopes in the current transaction of the connection, which the caller commits
+    public static long stamp(Connection connection, Collection<String> scopes) throws SQLException {
+        long version;
+        try (PreparedStatement lock = connection.prepareStatement(
+                "SELECT version FROM dataset_versions WHERE scope = ? FOR UPDATE")) {
+            lock.setString(1, COUNTER);
+            try (ResultSet resultSet = lock.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("dataset_versions has no counter row");
+                }
+                // epoch milliseconds, so that a version doubles as the modification time
+                version = Math.max(resultSet.getLong(1) + 1, System.currentTimeMillis());
+            }
+        }
+
+        List<String> stamped = new ArrayList<>(scopes.size() + 1);
+        stamped.add(COUNTER);
+        stamped.addAll(scopes);
+        List<String> missing = new ArrayList<>();
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE dataset_versions SET version = ? WHERE scope = ?")) {
+            for (String scope : stamped) {
+                update.setLong(1, version);
+                update.setString(2, scope);
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    missing.add(stamped.get(i));
+                }
+            }
+        }
+        // no other transaction can insert a scope while the counter is locked
+        if (!missing.isEmpty()) {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO dataset_versions (scope, version) VALUES (?, ?)")) {
+                for (String scope : missing) {
+                    insert.setString(1, scope);
+                    insert.setLong(2, version);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        if (scopes.contains(ALL)) {
+            try (PreparedStatement prune = connection.prepareStatement(
+                    "DELETE FROM dataset_versions WHERE version < ? AND scope NOT IN (?, ?)")) {
+                prune.setLong(1, version);
+                prune.setString(2, COUNTER);
+                prune.setString(3, ALL);
+                prune.executeUpdate();
+            }
+        }
+        return version;
+    }
+
+    // the highest committed version of any scope
+    public long currentVersion() {
+        return jdbcTemplate.queryForObject("SELECT version FROM dataset_versions WHERE scope = ?", Long.class, COUNTER);
+    }
+
+    // committed scopes with a version above the given one, in version order
+    public Map<String, Long> changesAfter(long version) {
+        Map<String, Long> changes = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT scope, version FROM dataset_versions WHERE version > ? AND scope <> ? ORDER BY version",
+                resultSet -> {
+                    changes.put(resultSet.getString(1), resultSet.getLong(2));
+                }, version, COUNTER);
+        return changes;
+    }
+}
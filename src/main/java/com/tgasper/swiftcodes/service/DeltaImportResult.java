@@ -0,0 +1,16 @@
+package com.tgasper.swiftcodes.service;
+
+// outcome of a delta import: what happened to the stored swift codes
+public record DeltaImportResult(
+    long rows,
+    long inserted,
+    long updated,
+    long deleted,
+    long unchanged,
+    long renamedBanks,
+    long elapsedMillis
+) {
+    public ImportResult importResult() {
+        return new ImportResult(rows, 0, 0, elapsedMillis);
+    }
+}
@@ -0,0 +1,307 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Brings the database in line with a SWIFT directory CSV by writing only what differs. The stored
+// codes are loaded as sorted BicKeys with a 64-bit hash of their content (address and country),
+// every file row is hashed the same way and looked up by binary search, and only new, changed and
+// missing codes turn into batched INSERT, UPDATE and DELETE statements. Banks left without codes
+// are deleted like on a single DELETE; countries are kept. A stored code that is not an upper-case
+// BIC11, like an 8-character code written before writes were canonicalized, is replaced by the
+// file's row.
+// Rows follow SwiftCodeParserService: the first row of a country or bank wins its name and the last
+// row of a code wins its content. Unlike there, the name of an existing bank is updated when the
+// first row of the bank in the file has another one.
+@Service
+public class DeltaImportService {
+    private static final Logger logger = LoggerFactory.getLogger(DeltaImportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    // plain JDBC reads of the compared columns, without entities or joins
+    private static final String SELECT_SWIFT_CODES = """
+            SELECT swift_code, address, country_iso2_code FROM swift_codes ORDER BY swift_code""";
+    private static final String SELECT_BANKS = "SELECT id, swift_code, bank_name FROM banks";
+
+    private static final String INSERT_SWIFT_CODE = """
+            INSERT INTO swift_codes (swift_code, base_code, address, is_headquarter, bank_id, country_iso2_code)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+    private static final String UPDATE_SWIFT_CODE = """
+            UPDATE swift_codes SET address = ?, country_iso2_code = ? WHERE swift_code = ?""";
+    private static final String UPDATE_BANK_NAME = "UPDATE banks SET bank_name = ? WHERE id = ?";
+    private static final String DELETE_SWIFT_CODE = "DELETE FROM swift_codes WHERE swift_code = ?";
+    private static final String DELETE_UNUSED_BANKS = """
+            DELETE FROM banks b WHERE NOT EXISTS (SELECT 1 FROM swift_codes s WHERE s.bank_id = b.id)""";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final CountryRepository countryRepository;
+
+    public DeltaImportService(EntityManager entityManager,
+                              JdbcTemplate jdbcTemplate,
+                              CountryRepository countryRepository) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.countryRepository = countryRepository;
+    }
+
+    @Transactional
+    public DeltaImportResult parseAndSave(String filePath, int batchSize) throws IOException {
+        long start = System.nanoTime();
+        StoredCodes stored = loadStoredCodes();
+
+        boolean[] knownCountries = new boolean[BicKey.COUNTRY_KEYS];
+        countryRepository.findAll().forEach(country -> {
+            int key = BicKey.ofCountry(country.getIso2Code());
+            if (key >= 0) {
+                knownCountries[key] = true;
+            }
+        });
+        LongObjectMap<Long> bankIds = new LongObjectMap<>();
+        LongObjectMap<String> storedBankNames = new LongObjectMap<>();
+        query(SELECT_BANKS, resultSet -> {
+            long key = BicKey.ofBase(resultSet.getString(2));
+            if (key >= 0) {
+                bankIds.put(key, resultSet.getLong(1));
+                storedBankNames.put(key, resultSet.getString(3));
+            }
+        });
+        entityManager.clear();
+
+        Batches batches = new Batches(batchSize);
+        // codes that are not stored yet but already inserted from an earlier row of the file
+        LongObjectMap<Boolean> insertedKeys = new LongObjectMap<>();
+        BitSet seen = new BitSet(stored.count);
+        long rows = 0;
+        long skippedRows = 0;
+        long updated = 0;
+        long unchanged = 0;
+        long renamedBanks = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath));
+             CSVParser csvParser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+
+            for (CSVRecord record : csvParser) {
+                SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+                long key = BicKey.of(row.swiftCode());
+                int countryKey = BicKey.ofCountry(row.iso2Code());
+                if (key == BicKey.NONE || countryKey < 0) {
+                    skippedRows++;
+                    logger.warn("Skipping invalid row with SWIFT code '{}' and country '{}'",
+                            row.swiftCode(), row.iso2Code());
+                    continue;
+                }
+                rows++;
+
+                if (!knownCountries[countryKey]) {
+                    knownCountries[countryKey] = true;
+                    Country country = new Country();
+                    country.setIso2Code(row.iso2Code());
+                    country.setName(row.countryName());
+                    entityManager.persist(country);
+                }
+
+                long bankKey = BicKey.base(key);
+                Long bankId = bankIds.get(bankKey);
+                if (bankId == null) {
+                    Bank bank = new Bank();
+                    bank.setBankName(row.bankName());
+                    bank.setSwiftCode(row.baseSwiftCode());
+                    entityManager.persist(bank);
+                    bankId = bank.getId();
+                    bankIds.put(bankKey, bankId);
+                } else {
+                    // compared once, on the first row of the bank
+                    String storedName = storedBankNames.remove(bankKey);
+                    if (storedName != null && !storedName.equals(row.bankName())) {
+                        batches.bankNames.add(new Object[]{row.bankName(), bankId});
+                        renamedBanks++;
+                    }
+                }
+
+                long hash = hash(row.address(), row.iso2Code());
+                int index = stored.indexOf(key);
+                if (index >= 0) {
+                    seen.set(index);
+                    if (stored.hashes[index] == hash) {
+                        unchanged++;
+                    } else {
+                        stored.hashes[index] = hash;
+                        batches.updates.add(new Object[]{row.address(), row.iso2Code(), row.swiftCode()});
+                        updated++;
+                    }
+                } else if (insertedKeys.containsKey(key)) {
+                    // repeated in the file, the last row wins
+                    batches.updates.add(new Object[]{row.address(), row.iso2Code(), row.swiftCode()});
+                } else {
+                    insertedKeys.put(key, Boolean.TRUE);
+                    batches.inserts.add(new Object[]{
+                            row.swiftCode(), row.baseSwiftCode(), row.address(), row.isHeadquarter(), bankId,
+                            row.iso2Code()});
+                }
+                batches.flushIfFull();
+            }
+        }
+        if (rows == 0) {
+            // an empty or unreadable file would otherwise delete every stored code
+            throw new IOException("No valid rows in " + filePath + ", nothing imported");
+        }
+
+        long deleted = 0;
+        for (int i = seen.nextClearBit(0); i < stored.count; i = seen.nextClearBit(i + 1)) {
+            batches.deletes.add(new Object[]{BicKey.toString(stored.keys[i])});
+            deleted++;
+            batches.flushIfFull();
+        }
+        for (String swiftCode : stored.nonCanonical) {
+            batches.deletes.add(new Object[]{swiftCode});
+            deleted++;
+            batches.flushIfFull();
+        }
+        batches.flush();
+        if (deleted > 0) {
+            int deletedBanks = jdbcTemplate.update(DELETE_UNUSED_BANKS);
+            logger.info("Deleted {} banks without SWIFT codes", deletedBanks);
+        }
+
+        if (skippedRows > 0) {
+            logger.warn("Skipped {} invalid rows", skippedRows);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        DeltaImportResult result = new DeltaImportResult(
+                rows, insertedKeys.size(), updated, deleted, unchanged, renamedBanks, elapsedMillis);
+        logger.info("Delta import of {} rows: {} inserted, {} updated, {} deleted, {} unchanged, {} banks renamed",
+                rows, result.inserted(), updated, deleted, unchanged, renamedBanks);
+        return result;
+    }
+
+    // stored codes in key order with the hash of their content, read from a database cursor. Only a
+    // code stored as the upper-case BIC11 of its key is keyed: an 8-character ABCDEFGH shares the key
+    // of ABCDEFGHXXX, and an update by the key's code would miss its row. The file never holds such a
+    // code, since rows are canonicalized, so they are deleted and the file's row is inserted.
+    private StoredCodes loadStoredCodes() {
+        StoredCodes stored = new StoredCodes();
+        query(SELECT_SWIFT_CODES, resultSet -> {
+            String swiftCode = resultSet.getString(1);
+            long key = BicKey.of(swiftCode);
+            if (key != BicKey.NONE && swiftCode.length() == Bic.BIC11_LENGTH
+                    && Bic.toUpperCase(swiftCode).equals(swiftCode)) {
+                stored.add(key, hash(resultSet.getString(2), resultSet.getString(3)));
+            } else {
+                stored.nonCanonical.add(swiftCode);
+            }
+        });
+        return stored;
+    }
+
+    private void query(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    // 64-bit FNV-1a over the fields, a null address hashes differently from an empty one
+    static long hash(String address, String iso2Code) {
+        long hash = 0xCBF29CE484222325L;
+        for (String field : new String[]{address, iso2Code}) {
+            if (field == null) {
+                hash = (hash ^ 0xFFFF) * 0x100000001B3L;
+                continue;
+            }
+            for (int i = 0; i < field.length(); i++) {
+                hash = (hash ^ field.charAt(i)) * 0x100000001B3L;
+            }
+            // separator, so that moving characters between fields changes the hash
+            hash = (hash ^ 0x1F) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static final class StoredCodes {
+        private long[] keys = new long[1024];
+        private long[] hashes = new long[1024];
+        private int count;
+        // codes without a key of their own, see loadStoredCodes
+        private final List<String> nonCanonical = new ArrayList<>();
+
+        void add(long key, long hash) {
+            if (count > 0 && key <= keys[count - 1]) {
+                throw new IllegalStateException("SWIFT codes are not returned in code order, " +
+                        BicKey.toString(key) + " after " + BicKey.toString(keys[count - 1]));
+            }
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                hashes = Arrays.copyOf(hashes, count * 2);
+            }
+            keys[count] = key;
+            hashes[count] = hash;
+            count++;
+        }
+
+        int indexOf(long key) {
+            return Arrays.binarySearch(keys, 0, count, key);
+        }
+    }
+
+    // pending statements, executed as JDBC batches; countries and banks persisted through the
+    // entity manager are flushed first so the swift code rows can reference them
+    private final class Batches {
+        private final int batchSize;
+        private final List<Object[]> inserts = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+        private final List<Object[]> bankNames = new ArrayList<>();
+        private final List<Object[]> deletes = new ArrayList<>();
+
+        Batches(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        void flushIfFull() {
+            if (inserts.size() >= batchSize || updates.size() >= batchSize
+                    || bankNames.size() >= batchSize || deletes.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            entityManager.flush();
+            entityManager.clear();
+            // inserts before updates, a code repeated in the file may update a row inserted in this batch
+            execute(INSERT_SWIFT_CODE, inserts);
+            execute(UPDATE_SWIFT_CODE, updates);
+            execute(UPDATE_BANK_NAME, bankNames);
+            execute(DELETE_SWIFT_CODE, deletes);
+        }
+
+        private void execute(String sql, List<Object[]> arguments) {
+            if (!arguments.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, arguments);
+                arguments.clear();
+            }
+        }
+    }
+}
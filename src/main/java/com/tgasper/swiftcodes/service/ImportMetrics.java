@@ -0,0 +1,79 @@
+package com.tgasper.swiftcodes.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// progress of the standard CSV import (SwiftCodeParserService) as gauges, so that a scrape taken while a
+// long import runs shows how far it got: rows parsed and written so far and the write rate since the
+// import started. The gauges keep the values of the last import once it has finished. The save phases
+// are timed per phase including their inserts, which are flushed at the end of the phase; rows count as
+// written once flushed, at the end of the swift-code phase. The streaming, parallel, COPY, delta and
+// blue/green imports are not instrumented, they log their row counts and duration instead.
+@Component
+public class ImportMetrics {
+    public static final String COUNTRIES = "countries";
+    public static final String BANKS = "banks";
+    public static final String SWIFT_CODES = "swift-codes";
+
+    private final MeterRegistry registry;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    // 0 until the first import starts, the end stays 0 while an import runs
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public ImportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("swiftcodes.import.rows.parsed", rowsParsed, AtomicLong::get)
+                .description("CSV rows read by the current or last import")
+                .register(registry);
+        Gauge.builder("swiftcodes.import.rows.written", rowsWritten, AtomicLong::get)
+                .description("SWIFT codes written by the current or last import")
+                .register(registry);
+        Gauge.builder("swiftcodes.import.rows.per.second", this, ImportMetrics::rowsPerSecond)
+                .description("SWIFT codes written per second by the current or last import")
+                .register(registry);
+    }
+
+    public void started() {
+        rowsParsed.set(0);
+        rowsWritten.set(0);
+        endNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    public void rowsWritten(long rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    public void finished() {
+        endNanos = System.nanoTime();
+    }
+
+    public <T> T phase(String phase, Supplier<T> save) {
+        return Timer.builder("swiftcodes.import.phase")
+                .description("Duration of an import phase")
+                .tag("phase", phase)
+                .register(registry)
+                .record(save);
+    }
+
+    double rowsPerSecond() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return end == start ? 0 : rowsWritten.get() * 1e9 / (end - start);
+    }
+}
@@ -0,0 +1,18 @@
+package com.tgasper.swiftcodes.service;
+
+// outcome of a CSV import, used for throughput reporting: rows written, rows left out as invalid or
+// as repeats, and rows lost with a batch that could not be written (imports committing per batch)
+public record ImportResult(long rows, long skippedRows, long failedRows, long elapsedMillis) {
+
+    public static ImportResult since(long rows, long startNanos) {
+        return since(rows, 0, 0, startNanos);
+    }
+
+    public static ImportResult since(long rows, long skippedRows, long failedRows, long startNanos) {
+        return new ImportResult(rows, skippedRows, failedRows, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,204 @@
+package com.tgasper.swiftcodes.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+// Open-addressing hash map from non-negative long keys (BicKey) to non-null objects. Keys live in a long[] and
+// values in an Object[], so an entry costs two array slots instead of a node, a boxed or String key and
+// its backing array. Linear probing; removed entries leave a tombstone until the next rehash.
+//
+// Not thread-safe for writers, but safe for one writer with any number of concurrent readers: entries
+// never move within a table, slots are written value first with release semantics and read with
+// acquire semantics, and a rehash builds a new table that is published through a volatile field.
+public final class LongObjectMap<V> {
+    private static final long FREE = -1;
+    private static final long REMOVED = -2;
+    private static final int MIN_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.7;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private volatile Table table;
+    private int size;
+    // live entries plus tombstones, probing needs at least one free slot
+    private int occupied;
+
+    public LongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        table = new Table(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Table t = table;
+        for (int i = t.slot(key); ; i = (i + 1) & t.mask) {
+            long slotKey = (long) KEYS.getAcquire(t.keys, i);
+            if (slotKey == key) {
+                V value = (V) VALUES.getAcquire(t.values, i);
+                // the slot may have been removed and reused for another key while the value was read
+                return (long) KEYS.getAcquire(t.keys, i) == key ? value : null;
+            }
+            if (slotKey == FREE) {
+                return null;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkKey(key);
+        Objects.requireNonNull(value, "value");
+        Table t = table;
+        int insertAt = -1;
+        for (int i = t.slot(key); ; i = (i + 1) & t.mask) {
+            long slotKey = t.keys[i];
+            if (slotKey == key) {
+                V previous = (V) t.values[i];
+                VALUES.setRelease(t.values, i, value);
+                return previous;
+            }
+            if (slotKey == REMOVED && insertAt < 0) {
+                insertAt = i;
+            } else if (slotKey == FREE) {
+                if (insertAt < 0) {
+                    insertAt = i;
+                    occupied++;
+                }
+                break;
+            }
+        }
+        VALUES.setRelease(t.values, insertAt, value);
+        KEYS.setRelease(t.keys, insertAt, key);
+        size++;
+        if (occupied > t.threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        Table t = table;
+        for (int i = t.slot(key); ; i = (i + 1) & t.mask) {
+            long slotKey = t.keys[i];
+            if (slotKey == key) {
+                V previous = (V) t.values[i];
+                KEYS.setRelease(t.keys, i, REMOVED);
+                VALUES.setRelease(t.values, i, null);
+                size--;
+                return previous;
+            }
+            if (slotKey == FREE) {
+                return null;
+            }
+        }
+    }
+
+    public void clear() {
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+        occupied = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Entry<? super V> action) {
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++) {
+            long key = (long) KEYS.getAcquire(t.keys, i);
+            if (key >= 0) {
+                V value = (V) VALUES.getAcquire(t.values, i);
+                if (value != null && (long) KEYS.getAcquire(t.keys, i) == key) {
+                    action.accept(key, value);
+                }
+            }
+        }
+    }
+
+    // grows the table, or only drops the tombstones when they are what fills it
+    private void rehash() {
+        Table old = table;
+        Table rehashed = new Table(size > old.threshold / 2 ? old.keys.length * 2 : old.keys.length);
+        for (int i = 0; i < old.keys.length; i++) {
+            long key = old.keys[i];
+            if (key >= 0) {
+                int slot = rehashed.slot(key);
+                while (rehashed.keys[slot] != FREE) {
+                    slot = (slot + 1) & rehashed.mask;
+                }
+                rehashed.keys[slot] = key;
+                rehashed.values[slot] = old.values[i];
+            }
+        }
+        occupied = size;
+        table = rehashed;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static void checkKey(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Keys must not be negative: " + key);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Entry<V> {
+        void accept(long key, V value);
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+        private final int threshold;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, FREE);
+            values = new Object[capacity];
+            mask = capacity - 1;
+            threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+// Pipelined import: the calling thread splits the file into batches of raw CSV records, parser
+// workers turn them into validated rows and writer workers insert them, each writer in its own
+// transactions on its own pooled connection. Stages are joined by bounded queues, so a slow
+// database throttles the reader instead of filling the heap.
+// Rows are validated like in SwiftCodeParserService. Countries and banks are created exactly once
+// across all writers; which row of a bank wins its name is not deterministic when the file disagrees
+// with itself. A code repeated in the file is written by whichever of its rows a writer claims first;
+// once the writers are done, the last row of the file is written over it when that was another one,
+// so the last row wins as in the other imports. Codes stored before the import are updated.
+// The import is not atomic: every batch commits on its own, so readers see it arrive batch by
+// batch. A batch that cannot be written is rolled back and counted in failedRows of the result
+// while the others go on; the standard, COPY and blue/green imports are all or nothing.
+@Service
+public class ParallelImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelImportService.class);
+
+    private static final long POLL_MILLIS = 100;
+    private static final int QUEUE_BATCHES_PER_WORKER = 2;
+
+    // records handed to parser workers have no header line
+    private static final CSVFormat RECORD_FORMAT = SwiftCodeCsvRow.CSV_FORMAT.builder()
+            .setSkipHeaderRecord(false)
+            .build();
+
+    private final EntityManager entityManager;
+    private final BankRepository bankRepository;
+    private final CountryRepository countryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DataSource dataSource;
+
+    public ParallelImportService(EntityManager entityManager,
+                                 BankRepository bankRepository,
+                                 CountryRepository countryRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.bankRepository = bankRepository;
+        this.countryRepository = countryRepository;
+        this.transactionManager = transactionManager;
+        this.dataSource = dataSource;
+    }
+
+    public ImportResult parseAndSave(String filePath, int parserThreads, int writerThreads, int batchSize)
+            throws IOException {
+        long start = System.nanoTime();
+        int writers = limitWritersToPool(writerThreads);
+
+        Pipeline pipeline = new Pipeline(parserThreads, writers);
+        pipeline.preloadReferences();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parserThreads + writers, namedThreads());
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < parserThreads; i++) {
+                workers.add(executor.submit(pipeline::runParser));
+            }
+            for (int i = 0; i < writers; i++) {
+                workers.add(executor.submit(pipeline::runWriter));
+            }
+
+            try {
+                pipeline.runReader(Path.of(filePath), batchSize);
+            } catch (IOException e) {
+                pipeline.fail(e);
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    pipeline.fail(e.getCause());
+                }
+            }
+            if (!pipeline.isFailed()) {
+                pipeline.writeLastRepeats(batchSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pipeline.fail(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        pipeline.rethrowFailure();
+        if (pipeline.skippedRows.get() > 0) {
+            logger.warn("Skipped {} invalid rows and rows replaced by a later row of their code",
+                    pipeline.skippedRows.get());
+        }
+        if (pipeline.failedRows.get() > 0) {
+            logger.warn("Could not write {} rows, the other batches were committed", pipeline.failedRows.get());
+        }
+        return ImportResult.since(pipeline.writtenRows.get(), pipeline.skippedRows.get(),
+                pipeline.failedRows.get(), start);
+    }
+
+    // every writer holds one connection at a time, keep one connection free for the rest of the app
+    private int limitWritersToPool(int writerThreads) {
+        if (dataSource instanceof HikariDataSource hikari && writerThreads >= hikari.getMaximumPoolSize()) {
+            int limited = Math.max(1, hikari.getMaximumPoolSize() - 1);
+            logger.warn("Reducing import writers from {} to {} to fit the connection pool of {}",
+                    writerThreads, limited, hikari.getMaximumPoolSize());
+            return limited;
+        }
+        return writerThreads;
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "swift-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // raw CSV records, numbered in file order from the first one on
+    private record RecordBatch(long firstNumber, List<String> records) {
+        static final RecordBatch END = new RecordBatch(0, List.of());
+    }
+
+    // a CSV row with its number in the file, the highest number of a code wins
+    private record NumberedRow(long number, SwiftCodeCsvRow row) {
+    }
+
+    private final class Pipeline {
+        private final int parserThreads;
+        private final int writerThreads;
+
+        private final BlockingQueue<RecordBatch> recordQueue;
+        private final BlockingQueue<List<NumberedRow>> rowQueue;
+        private final AtomicInteger runningParsers;
+
+        // concurrent replacements of the countryCache/bankCache of SwiftCodeParserService, the
+        // future makes every other writer wait until the row creating the key has committed it
+        private final Map<String, CompletableFuture<String>> countries = new ConcurrentHashMap<>();
+        private final Map<String, CompletableFuture<Long>> bankIds = new ConcurrentHashMap<>();
+        // BicKeys of the codes stored before the import, sorted; the number of the row written for
+        // each code by the writers, and the highest numbered of its other rows
+        private long[] storedCodes;
+        private final Map<Long, Long> claimedCodes = new ConcurrentHashMap<>();
+        private final Map<Long, NumberedRow> repeats = new ConcurrentHashMap<>();
+        private final AtomicLong repeatedRows = new AtomicLong();
+
+        private final TransactionTemplate transactionTemplate;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong writtenRows = new AtomicLong();
+        private final AtomicLong skippedRows = new AtomicLong();
+        private final AtomicLong failedRows = new AtomicLong();
+
+        Pipeline(int parserThreads, int writerThreads) {
+            this.parserThreads = parserThreads;
+            this.writerThreads = writerThreads;
+            this.recordQueue = new ArrayBlockingQueue<>(parserThreads * QUEUE_BATCHES_PER_WORKER);
+            this.rowQueue = new ArrayBlockingQueue<>(writerThreads * QUEUE_BATCHES_PER_WORKER);
+            this.runningParsers = new AtomicInteger(parserThreads);
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        void preloadReferences() {
+            transactionTemplate.executeWithoutResult(status -> {
+                countryRepository.findAll().forEach(country ->
+                    countries.put(country.getIso2Code(), CompletableFuture.completedFuture(country.getIso2Code())));
+                bankRepository.findAll().forEach(bank ->
+                    bankIds.put(bank.getSwiftCode(), CompletableFuture.completedFuture(bank.getId())));
+                try (Stream<String> codes = entityManager.createQuery("SELECT s.swiftCode FROM SwiftCode s", String.class)
+                        .getResultStream()) {
+                    storedCodes = codes.mapToLong(BicKey::of).filter(key -> key != BicKey.NONE).sorted().toArray();
+                }
+            });
+        }
+
+        // reader stage: splits the file into batches of complete CSV records without parsing fields
+        void runReader(Path path, int batchSize) throws IOException {
+            try (BufferedReader reader = Files.newBufferedReader(path)) {
+                reader.readLine(); // header
+
+                List<String> batch = new ArrayList<>(batchSize);
+                long records = 0;
+                StringBuilder record = new StringBuilder();
+                int quotes = 0;
+                String line;
+                while ((line = reader.readLine()) != null && !isFailed()) {
+                    if (record.length() > 0) {
+                        record.append('\n');
+                    }
+                    record.append(line);
+                    quotes += countQuotes(line);
+
+                    // a record ends at a line break outside of quotes
+                    if (quotes % 2 == 0) {
+                        if (!record.toString().isBlank()) {
+                            batch.add(record.toString());
+                            records++;
+                        }
+                        record.setLength(0);
+                        quotes = 0;
+                        if (batch.size() == batchSize) {
+                            put(recordQueue, new RecordBatch(records - batch.size(), batch));
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                }
+                if (record.length() > 0) {
+                    batch.add(record.toString());
+                    records++;
+                }
+                if (!batch.isEmpty()) {
+                    put(recordQueue, new RecordBatch(records - batch.size(), batch));
+                }
+            } finally {
+                // one end-of-input marker per parser
+                for (int i = 0; i < parserThreads; i++) {
+                    put(recordQueue, RecordBatch.END);
+                }
+            }
+        }
+
+        // parser stage: turns raw records into normalized, validated rows
+        void runParser() {
+            try {
+                RecordBatch batch;
+                while ((batch = take(recordQueue)) != null && !batch.records().isEmpty()) {
+                    List<NumberedRow> rows = new ArrayList<>(batch.records().size());
+                    try (CSVParser parser = CSVParser.parse(String.join("\n", batch.records()), RECORD_FORMAT)) {
+                        for (CSVRecord record : parser) {
+                            SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+                            if (isValid(row)) {
+                                // record numbers start at 1
+                                rows.add(new NumberedRow(batch.firstNumber() + record.getRecordNumber() - 1, row));
+                            } else {
+                                skippedRows.incrementAndGet();
+                                logger.warn("Skipping invalid row with SWIFT code '{}' and country '{}'",
+                                        row.swiftCode(), row.iso2Code());
+                            }
+                        }
+                    }
+                    if (!rows.isEmpty()) {
+                        put(rowQueue, rows);
+                    }
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                // the last parser to finish tells the writers there is nothing more to come
+                if (runningParsers.decrementAndGet() == 0) {
+                    for (int i = 0; i < writerThreads; i++) {
+                        put(rowQueue, List.of());
+                    }
+                }
+            }
+        }
+
+        // writer stage: resolves references and writes one batch per transaction, inserting new codes
+        // and updating stored ones
+        void runWriter() {
+            try {
+                List<NumberedRow> rows;
+                while ((rows = take(rowQueue)) != null && !rows.isEmpty()) {
+                    List<NumberedRow> batch = claim(rows);
+                    if (!batch.isEmpty()) {
+                        (write(batch, false) ? writtenRows : failedRows).addAndGet(batch.size());
+                    }
+                }
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        // after the writers: the last row of each repeated code is written over the one a writer
+        // claimed when that was an earlier row. A code counts once in the written rows, its other
+        // rows as skipped, or as failed when its last row could not be written over the claimed one.
+        void writeLastRepeats(int batchSize) {
+            List<NumberedRow> lastRows = repeats.entrySet().stream()
+                    .filter(repeat -> repeat.getValue().number() > claimedCodes.get(repeat.getKey()))
+                    .map(Map.Entry::getValue)
+                    .sorted(Comparator.comparingLong(NumberedRow::number))
+                    .toList();
+            long failed = 0;
+            for (int i = 0; i < lastRows.size(); i += batchSize) {
+                List<NumberedRow> batch = lastRows.subList(i, Math.min(i + batchSize, lastRows.size()));
+                if (!write(batch, true)) {
+                    failed += batch.size();
+                }
+            }
+            failedRows.addAndGet(failed);
+            skippedRows.addAndGet(repeatedRows.get() - failed);
+        }
+
+        // one transaction, false when it was rolled back; a code is merged when it may be stored
+        // already, persisted otherwise
+        private boolean write(List<NumberedRow> batch, boolean stored) {
+            List<SwiftCodeCsvRow> rows = batch.stream().map(NumberedRow::row).toList();
+            Map<String, Long> resolvedBankIds = resolveReferences(rows);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (SwiftCodeCsvRow row : rows) {
+                        SwiftCode swiftCode = new SwiftCode();
+                        swiftCode.setSwiftCode(row.swiftCode());
+                        swiftCode.setBank(entityManager.getReference(Bank.class, resolvedBankIds.get(row.baseSwiftCode())));
+                        swiftCode.setAddress(row.address());
+                        swiftCode.setHeadquarter(row.isHeadquarter());
+                        swiftCode.setCountry(entityManager.getReference(Country.class, row.iso2Code()));
+                        if (stored || Arrays.binarySearch(storedCodes, BicKey.of(row.swiftCode())) >= 0) {
+                            entityManager.merge(swiftCode);
+                        } else {
+                            entityManager.persist(swiftCode);
+                        }
+                    }
+                });
+                return true;
+            } catch (DataAccessException | TransactionException | PersistenceException e) {
+                logger.warn("Could not write a batch of {} rows from {} to {}: {}", rows.size(),
+                        rows.get(0).swiftCode(), rows.get(rows.size() - 1).swiftCode(), e.getMessage());
+                return false;
+            }
+        }
+
+        // the rows of codes no other row of the file has been claimed for; the others are kept back,
+        // the highest numbered one of each code for writeLastRepeats
+        private List<NumberedRow> claim(List<NumberedRow> rows) {
+            List<NumberedRow> claimed = new ArrayList<>(rows.size());
+            for (NumberedRow row : rows) {
+                long key = BicKey.of(row.row().swiftCode());
+                if (claimedCodes.putIfAbsent(key, row.number()) == null) {
+                    claimed.add(row);
+                } else {
+                    repeatedRows.incrementAndGet();
+                    repeats.merge(key, row, (kept, other) -> kept.number() > other.number() ? kept : other);
+                }
+            }
+            return claimed;
+        }
+
+        // creates missing countries and banks of the batch in a committed transaction of their own
+        // before the batch transaction starts, so a writer never holds two connections
+        private Map<String, Long> resolveReferences(List<SwiftCodeCsvRow> rows) {
+            Map<String, SwiftCodeCsvRow> ownedCountries = new HashMap<>();
+            Map<String, SwiftCodeCsvRow> ownedBanks = new HashMap<>();
+            Map<String, CompletableFuture<String>> newCountryFutures = new HashMap<>();
+            Map<String, CompletableFuture<Long>> newBankFutures = new HashMap<>();
+
+            for (SwiftCodeCsvRow row : rows) {
+                if (!countries.containsKey(row.iso2Code()) && !newCountryFutures.containsKey(row.iso2Code())) {
+                    CompletableFuture<String> future = new CompletableFuture<>();
+                    if (countries.putIfAbsent(row.iso2Code(), future) == null) {
+                        ownedCountries.put(row.iso2Code(), row);
+                        newCountryFutures.put(row.iso2Code(), future);
+                    }
+                }
+                if (!bankIds.containsKey(row.baseSwiftCode()) && !newBankFutures.containsKey(row.baseSwiftCode())) {
+                    CompletableFuture<Long> future = new CompletableFuture<>();
+                    if (bankIds.putIfAbsent(row.baseSwiftCode(), future) == null) {
+                        ownedBanks.put(row.baseSwiftCode(), row);
+                        newBankFutures.put(row.baseSwiftCode(), future);
+                    }
+                }
+            }
+
+            if (!ownedCountries.isEmpty() || !ownedBanks.isEmpty()) {
+                try {
+                    Map<String, Long> createdBankIds = transactionTemplate.execute(status -> {
+                        ownedCountries.values().forEach(row -> {
+                            Country country = new Country();
+                            country.setIso2Code(row.iso2Code());
+                            country.setName(row.countryName());
+                            entityManager.persist(country);
+                        });
+                        Map<String, Bank> created = new HashMap<>();
+                        ownedBanks.values().forEach(row -> {
+                            Bank bank = new Bank();
+                            bank.setBankName(row.bankName());
+                            bank.setSwiftCode(row.baseSwiftCode());
+                            entityManager.persist(bank);
+                            created.put(row.baseSwiftCode(), bank);
+                        });
+                        entityManager.flush();
+                        Map<String, Long> ids = new HashMap<>();
+                        created.forEach((code, bank) -> ids.put(code, bank.getId()));
+                        return ids;
+                    });
+                    newCountryFutures.forEach((iso2Code, future) -> future.complete(iso2Code));
+                    newBankFutures.forEach((code, future) -> future.complete(createdBankIds.get(code)));
+                } catch (RuntimeException e) {
+                    newCountryFutures.values().forEach(future -> future.completeExceptionally(e));
+                    newBankFutures.values().forEach(future -> future.completeExceptionally(e));
+                    throw e;
+                }
+            }
+
+            // wait for keys created by other writers
+            Map<String, Long> resolved = new HashMap<>();
+            for (SwiftCodeCsvRow row : rows) {
+                countries.get(row.iso2Code()).join();
+                resolved.computeIfAbsent(row.baseSwiftCode(), code -> bankIds.get(code).join());
+            }
+            return resolved;
+        }
+
+        // the rule of SwiftCodeParserService.processRecord
+        private boolean isValid(SwiftCodeCsvRow row) {
+            return BicKey.of(row.swiftCode()) != BicKey.NONE && BicKey.ofCountry(row.iso2Code()) >= 0;
+        }
+
+        private int countQuotes(String line) {
+            int count = 0;
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // bounded hand-over that gives up once another stage has failed
+        private <T> void put(BlockingQueue<T> queue, T item) {
+            try {
+                while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (isFailed()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+
+        private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+            T item;
+            while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (isFailed()) {
+                    return null;
+                }
+            }
+            return item;
+        }
+
+        void fail(Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                logger.error("Parallel import failed: {}", e.getMessage());
+            }
+        }
+
+        boolean isFailed() {
+            return failure.get() != null;
+        }
+
+        void rethrowFailure() throws IOException {
+            Throwable e = failure.get();
+            if (e == null) {
+                return;
+            }
+            if (e instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Parallel import failed", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Imports a SWIFT directory CSV row by row. Rows are gathered into chunks of chunkSize codes; the
+// banks and codes of a chunk that are stored already, before the import or by an earlier chunk, are
+// found with one IN query each, and the chunk is then flushed and evicted from the persistence
+// context. Heap use is bounded by the chunk size and a flag per country, not by the size of the file.
+// As in SwiftCodeParserService, new codes are inserted and known ones, stored before the import or
+// repeated in the file, are merged: the last row of a code wins, existing countries and banks are kept.
+@Service
+public class StreamingImportService {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingImportService.class);
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+
+    private final EntityManager entityManager;
+    private final BankRepository bankRepository;
+    private final CountryRepository countryRepository;
+
+    public StreamingImportService(EntityManager entityManager,
+                                  BankRepository bankRepository,
+                                  CountryRepository countryRepository) {
+        this.entityManager = entityManager;
+        this.bankRepository = bankRepository;
+        this.countryRepository = countryRepository;
+    }
+
+    @Transactional
+    public ImportResult parseAndSave(String filePath, int chunkSize) throws IOException {
+        long start = System.nanoTime();
+
+        // pre-load keys of existing countries (as BicKey), entities themselves are not retained
+        boolean[] knownCountries = new boolean[BicKey.COUNTRY_KEYS];
+        countryRepository.findAll().forEach(country -> {
+            int key = BicKey.ofCountry(country.getIso2Code());
+            if (key >= 0) {
+                knownCountries[key] = true;
+            }
+        });
+        entityManager.clear();
+
+        long rows = 0;
+        long skippedRows = 0;
+        // the last row of each code of the chunk, and the first bank name of each of its base codes
+        Map<String, SwiftCodeCsvRow> chunk = new LinkedHashMap<>();
+        Map<String, String> bankNames = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath));
+             CSVParser csvParser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+
+            for (CSVRecord record : csvParser) {
+                SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+                long key = BicKey.of(row.swiftCode());
+                int countryKey = BicKey.ofCountry(row.iso2Code());
+                if (key == BicKey.NONE || countryKey < 0) {
+                    skippedRows++;
+                    logger.warn("Skipping invalid row with SWIFT code '{}' and country '{}'",
+                            row.swiftCode(), row.iso2Code());
+                    continue;
+                }
+
+                if (!knownCountries[countryKey]) {
+                    knownCountries[countryKey] = true;
+                    Country country = new Country();
+                    country.setIso2Code(row.iso2Code());
+                    country.setName(row.countryName());
+                    entityManager.persist(country);
+                }
+                bankNames.putIfAbsent(row.baseSwiftCode(), row.bankName());
+                chunk.put(row.swiftCode(), row);
+
+                rows++;
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk.values(), bankNames);
+                    chunk.clear();
+                    bankNames.clear();
+                }
+                if (rows % PROGRESS_LOG_INTERVAL == 0) {
+                    ImportResult progress = ImportResult.since(rows, start);
+                    logger.info("Imported {} rows ({} rows/s)", rows, Math.round(progress.rowsPerSecond()));
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk.values(), bankNames);
+            }
+        }
+        if (skippedRows > 0) {
+            logger.warn("Skipped {} invalid rows", skippedRows);
+        }
+        return ImportResult.since(rows, skippedRows, 0, start);
+    }
+
+    // writes the chunk and drops it from the persistence context; a bank the chunk brings is named by
+    // its first row in it
+    private void writeChunk(Collection<SwiftCodeCsvRow> rows, Map<String, String> bankNames) {
+        Map<String, Long> bankIds = new HashMap<>();
+        bankRepository.findBySwiftCodeIn(bankNames.keySet())
+                .forEach(bank -> bankIds.put(bank.getSwiftCode(), bank.getId()));
+        Set<String> storedCodes = new HashSet<>(entityManager
+                .createQuery("SELECT s.swiftCode FROM SwiftCode s WHERE s.swiftCode IN :swiftCodes", String.class)
+                .setParameter("swiftCodes", rows.stream().map(SwiftCodeCsvRow::swiftCode).toList())
+                .getResultList());
+
+        for (SwiftCodeCsvRow row : rows) {
+            Long bankId = bankIds.computeIfAbsent(row.baseSwiftCode(), baseCode -> {
+                Bank bank = new Bank();
+                bank.setBankName(bankNames.get(baseCode));
+                bank.setSwiftCode(baseCode);
+                entityManager.persist(bank);
+                return bank.getId();
+            });
+
+            SwiftCode swiftCode = new SwiftCode();
+            swiftCode.setSwiftCode(row.swiftCode());
+            swiftCode.setBank(entityManager.getReference(Bank.class, bankId));
+            swiftCode.setAddress(row.address());
+            swiftCode.setHeadquarter(row.isHeadquarter());
+            swiftCode.setCountry(entityManager.getReference(Country.class, row.iso2Code()));
+            if (storedCodes.contains(row.swiftCode())) {
+                entityManager.merge(swiftCode);
+            } else {
+                entityManager.persist(swiftCode);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,268 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.dto.BulkItemResult;
+import com.tgasper.swiftcodes.dto.BulkItemResult.Operation;
+import com.tgasper.swiftcodes.dto.BulkItemResult.Status;
+import com.tgasper.swiftcodes.dto.SwiftCodeBulkResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeBulkRequest;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.exception.SwiftCodeValidationException;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Applies many upserts and deletes in one transaction. Every item is validated first, with the same
+// rules as SwiftCodeService plus the bank name check against stored and requested banks; if any item
+// is invalid nothing is written. Countries, banks and existing codes are resolved with one IN query
+// each, and all writes go out as batched statements on flush.
+@Service
+@Timed(value = "swiftcodes.service", histogram = true)
+public class SwiftCodeBulkService {
+    private static final int MAX_BULK_ITEMS = 10_000;
+
+    private final EntityManager entityManager;
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final BankRepository bankRepository;
+    private final CountryRepository countryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SwiftCodeBulkService(EntityManager entityManager,
+                                SwiftCodeRepository swiftCodeRepository,
+                                BankRepository bankRepository,
+                                CountryRepository countryRepository,
+                                ApplicationEventPublisher eventPublisher) {
+        this.entityManager = entityManager;
+        this.swiftCodeRepository = swiftCodeRepository;
+        this.bankRepository = bankRepository;
+        this.countryRepository = countryRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public SwiftCodeBulkResponse applyBulk(SwiftCodeBulkRequest request) {
+        List<Item> items = toItems(request);
+
+        validate(items);
+        Resolved resolved = resolve(items);
+        validateBankNames(items, resolved);
+
+        if (items.stream().anyMatch(item -> item.status == Status.INVALID)) {
+            items.stream()
+                    .filter(item -> item.status == null)
+                    .forEach(item -> item.status = Status.SKIPPED);
+            return new SwiftCodeBulkResponse(false, results(items));
+        }
+
+        apply(items, resolved);
+        return new SwiftCodeBulkResponse(true, results(items));
+    }
+
+    private List<Item> toItems(SwiftCodeBulkRequest request) {
+        if (request == null) {
+            throw new SwiftCodeValidationException("Request body cannot be null");
+        }
+        List<SwiftCodeRequest> upserts = request.upserts() == null ? List.of() : request.upserts();
+        List<String> deletes = request.deletes() == null ? List.of() : request.deletes();
+        if (upserts.isEmpty() && deletes.isEmpty()) {
+            throw new SwiftCodeValidationException("At least one upsert or delete is required");
+        }
+        if (upserts.size() + deletes.size() > MAX_BULK_ITEMS) {
+            throw new SwiftCodeValidationException(
+                    String.format("At most %d items can be applied at once", MAX_BULK_ITEMS));
+        }
+
+        List<Item> items = new ArrayList<>();
+        upserts.forEach(upsert -> items.add(new Item(Operation.UPSERT, upsert, upsert == null ? null : upsert.swiftCode())));
+        deletes.forEach(code -> items.add(new Item(Operation.DELETE, null, code)));
+        return items;
+    }
+
+    private void validate(List<Item> items) {
+        Set<String> seen = new HashSet<>();
+        for (Item item : items) {
+            try {
+                if (item.operation == Operation.UPSERT) {
+                    SwiftCodeService.validateSwiftCodeRequest(item.request);
+                    item.swiftCode = Bic.toCanonical(item.request.swiftCode());
+                } else {
+                    if (item.inputCode == null || item.inputCode.isBlank()) {
+                        throw new SwiftCodeValidationException("SWIFT code cannot be null or empty");
+                    }
+                    item.swiftCode = SwiftCodeService.getDefaultSwiftCode(item.inputCode);
+                }
+            } catch (SwiftCodeValidationException e) {
+                item.invalid(e.getMessage());
+                continue;
+            }
+            if (!seen.add(item.swiftCode)) {
+                item.invalid("SWIFT code appears more than once in the request");
+            }
+        }
+    }
+
+    private Resolved resolve(List<Item> items) {
+        Set<String> swiftCodes = new HashSet<>();
+        Set<String> countryCodes = new HashSet<>();
+        Set<String> baseCodes = new HashSet<>();
+        for (Item item : items) {
+            if (item.status == Status.INVALID) {
+                continue;
+            }
+            swiftCodes.add(item.swiftCode);
+            baseCodes.add(item.swiftCode.substring(0, 8));
+            if (item.operation == Operation.UPSERT) {
+                countryCodes.add(Bic.toUpperCase(item.request.countryISO2()));
+            }
+        }
+
+        Resolved resolved = new Resolved();
+        if (!swiftCodes.isEmpty()) {
+            swiftCodeRepository.findWithBankAndCountryBySwiftCodeIn(swiftCodes)
+                    .forEach(swiftCode -> resolved.swiftCodes.put(swiftCode.getSwiftCode(), swiftCode));
+            bankRepository.findBySwiftCodeIn(baseCodes)
+                    .forEach(bank -> resolved.banks.put(bank.getSwiftCode(), bank));
+        }
+        if (!countryCodes.isEmpty()) {
+            countryRepository.findAllById(countryCodes)
+                    .forEach(country -> resolved.countries.put(country.getIso2Code(), country));
+        }
+        return resolved;
+    }
+
+    // same check as BankService.getOrCreateBank, against stored banks and banks created earlier in the request
+    private void validateBankNames(List<Item> items, Resolved resolved) {
+        Map<String, String> bankNames = new HashMap<>();
+        resolved.banks.forEach((baseCode, bank) -> bankNames.put(baseCode, bank.getBankName()));
+
+        for (Item item : items) {
+            if (item.operation != Operation.UPSERT || item.status == Status.INVALID) {
+                continue;
+            }
+            String baseCode = item.swiftCode.substring(0, 8);
+            String existingName = bankNames.putIfAbsent(baseCode, item.request.bankName());
+            if (existingName != null && !existingName.equals(item.request.bankName())) {
+                item.invalid(String.format("Bank name mismatch. Existing bank name: %s, Provided bank name: %s",
+                        existingName, item.request.bankName()));
+            }
+        }
+    }
+
+    private void apply(List<Item> items, Resolved resolved) {
+        Set<String> deletedBaseCodes = new HashSet<>();
+        List<SwiftCodeChangedEvent> events = new ArrayList<>();
+
+        for (Item item : items) {
+            SwiftCode existing = resolved.swiftCodes.get(item.swiftCode);
+            if (item.operation == Operation.DELETE) {
+                if (existing == null) {
+                    item.status = Status.NOT_FOUND;
+                    continue;
+                }
+                events.add(SwiftCodeChangedEvent.deleted(SwiftCodeView.from(existing)));
+                entityManager.remove(existing);
+                deletedBaseCodes.add(existing.getBank().getSwiftCode());
+                item.status = Status.DELETED;
+                continue;
+            }
+
+            SwiftCodeRequest request = item.request;
+            Country country = resolved.countries.computeIfAbsent(Bic.toUpperCase(request.countryISO2()), iso2Code -> {
+                Country newCountry = new Country();
+                newCountry.setIso2Code(iso2Code);
+                newCountry.setName(request.countryName());
+                entityManager.persist(newCountry);
+                return newCountry;
+            });
+            Bank bank = resolved.banks.computeIfAbsent(item.swiftCode.substring(0, 8), baseCode -> {
+                Bank newBank = new Bank();
+                newBank.setBankName(request.bankName());
+                newBank.setSwiftCode(baseCode);
+                entityManager.persist(newBank);
+                return newBank;
+            });
+
+            if (existing != null && !existing.getCountry().getIso2Code().equals(country.getIso2Code())) {
+                // moved to another country, listeners keyed by country see it leave the old one
+                events.add(SwiftCodeChangedEvent.deleted(SwiftCodeView.from(existing)));
+            }
+            SwiftCode swiftCode = existing == null ? new SwiftCode() : existing;
+            swiftCode.setSwiftCode(item.swiftCode);
+            swiftCode.setBank(bank);
+            swiftCode.setAddress(request.address());
+            swiftCode.setHeadquarter(request.isHeadquarter());
+            swiftCode.setCountry(country);
+            if (existing == null) {
+                // new codes are persisted rather than saved, saving an entity with an assigned id selects it first
+                entityManager.persist(swiftCode);
+                item.status = Status.CREATED;
+            } else {
+                item.status = Status.UPDATED;
+            }
+            events.add(SwiftCodeChangedEvent.added(SwiftCodeView.from(swiftCode)));
+        }
+
+        // like SwiftCodeService.deleteSwiftCode, a bank goes away with its last code
+        if (!deletedBaseCodes.isEmpty()) {
+            entityManager.flush();
+            List<Bank> unusedBanks = bankRepository.findUnusedBySwiftCodeIn(deletedBaseCodes);
+            if (!unusedBanks.isEmpty()) {
+                bankRepository.deleteAllInBatch(unusedBanks);
+            }
+        }
+
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    private List<BulkItemResult> results(List<Item> items) {
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        for (Item item : items) {
+            results.add(new BulkItemResult(item.operation,
+                    item.swiftCode != null ? item.swiftCode : item.inputCode, item.status, item.message));
+        }
+        return results;
+    }
+
+    private static final class Item {
+        private final Operation operation;
+        private final SwiftCodeRequest request;
+        private final String inputCode;
+        private String swiftCode;
+        private Status status;
+        private String message;
+
+        private Item(Operation operation, SwiftCodeRequest request, String inputCode) {
+            this.operation = operation;
+            this.request = request;
+            this.inputCode = inputCode;
+        }
+
+        private void invalid(String message) {
+            this.status = Status.INVALID;
+            this.message = message;
+        }
+    }
+
+    private static final class Resolved {
+        private final Map<String, SwiftCode> swiftCodes = new HashMap<>();
+        private final Map<String, Bank> banks = new HashMap<>();
+        private final Map<String, Country> countries = new HashMap<>();
+    }
+}
@@ -0,0 +1,63 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.model.Bic;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+// one normalized line of the SWIFT directory CSV, shared by all import modes
+public record SwiftCodeCsvRow(
+    String iso2Code,
+    String swiftCode,
+    String bankName,
+    String address,
+    String countryName,
+    boolean isHeadquarter
+) {
+    public static final String[] HEADERS = {
+            "COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME",
+            "ADDRESS", "TOWN NAME", "COUNTRY NAME", "TIME ZONE"
+    };
+
+    public static final CSVFormat CSV_FORMAT = CSVFormat.Builder.create()
+            .setHeader(HEADERS)
+            .setSkipHeaderRecord(true)
+            .setDelimiter(',')
+            .setQuote('"')
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    public static SwiftCodeCsvRow from(CSVRecord record) {
+        String iso2Code = Bic.toUpperCase(record.get("COUNTRY ISO2 CODE").trim());
+        // 8-character codes get the headquarters branch
+        String swiftCodeStr = Bic.toCanonical(record.get("SWIFT CODE").trim());
+        String bankName = record.get("NAME").trim();
+        String address = determineAddress(record);
+
+        boolean isHeadquarter = Bic.isHeadquarter(swiftCodeStr);
+
+        String countryName = record.get("COUNTRY NAME").trim().toUpperCase();
+        return new SwiftCodeCsvRow(iso2Code, swiftCodeStr, bankName, address, countryName, isHeadquarter);
+    }
+
+    // base SWIFT code (first 8 characters) identifying the bank
+    public String baseSwiftCode() {
+        return swiftCode.substring(0, Bic.BIC8_LENGTH);
+    }
+
+    private static String determineAddress(CSVRecord record) {
+        String address = record.get("ADDRESS").trim();
+        String townName = record.get("TOWN NAME").trim();
+        String countryName = record.get("COUNTRY NAME").trim();
+
+        if (address != null && !address.isEmpty()) {
+            return address;
+        }
+        
+        if (!townName.isEmpty()) {
+            return String.format("%s, %s", townName, countryName);
+        }
+        
+        return countryName;
+    }
+}
@@ -0,0 +1,257 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process copy of the swift_codes table: all codes sorted by their BicKey, which sorts like the
+// codes. A code is found by binary search, and the codes sharing a prefix are one range, so the
+// same arrays answer single lookups, the codes of a bank (an 8-character prefix) and the suggestions
+// of GET /v1/swift-codes/suggest.
+@Component
+public class SwiftCodeIndex extends AbstractSwiftCodeIndex<SwiftCodeIndex.Generation> {
+    // committed changes kept beside the sorted arrays before they are merged into them; each change
+    // copies them, each merge copies the sorted arrays
+    private static final int MAX_CHANGES = 1024;
+
+    private final SwiftCodeRepository swiftCodeRepository;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SwiftCodeIndex(SwiftCodeRepository swiftCodeRepository,
+                          @Value("${swift-codes.index.enabled:false}") boolean enabled) {
+        super(enabled);
+        this.swiftCodeRepository = swiftCodeRepository;
+    }
+
+    public Optional<SwiftCodeView> lookup(String swiftCode) {
+        Generation generation = current();
+        if (generation == null) {
+            return Optional.empty();
+        }
+
+        long key = BicKey.of(swiftCode);
+        SwiftCodeView view = key == BicKey.NONE ? null : generation.get(key);
+        if (view == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(view);
+    }
+
+    // all codes sharing the given base code, ordered by swift code
+    public List<SwiftCodeView> findByBaseCode(String baseCode) {
+        Generation generation = current();
+        long baseKey = BicKey.ofBase(baseCode);
+        if (generation == null || baseKey == BicKey.NONE) {
+            return List.of();
+        }
+        return generation.range(BicKey.firstOfBase(baseKey), BicKey.firstOfBase(baseKey + 1), Integer.MAX_VALUE);
+    }
+
+    // the first codes starting with the prefix (1 to 11 characters in any case), ordered by code
+    public List<SwiftCodeView> suggest(String prefix, int limit) {
+        Generation generation = current();
+        long first = BicKey.firstOfPrefix(prefix);
+        if (generation == null || first == BicKey.NONE) {
+            return List.of();
+        }
+        return generation.range(first, first + BicKey.prefixSpan(prefix.length()), limit);
+    }
+
+    public IndexStats getStats() {
+        Generation generation = current();
+        return new IndexStats(hits.sum(), misses.sum(), generation == null ? 0 : generation.size());
+    }
+
+    @Override
+    protected Generation build() {
+        return new Generation(swiftCodeRepository.findAllViews());
+    }
+
+    @Override
+    protected void apply(Generation generation, SwiftCodeChangedEvent event) {
+        generation.apply(event);
+    }
+
+    @Override
+    protected String describe(Generation generation) {
+        return "SWIFT code index with " + generation.size() + " codes";
+    }
+
+    public record IndexStats(long hits, long misses, int size) {
+    }
+
+    // Sorted keys with the view of each code at the same position, plus the changes committed since
+    // they were sorted, in sorted arrays of their own: the new view, or null when the code was deleted.
+    // Both are immutable and published together through a volatile field, so readers take no lock. A
+    // change copies the change arrays, and once there are MAX_CHANGES of them they are merged into new
+    // sorted arrays. Changes are applied by one thread at a time.
+    static final class Generation {
+        private static final long[] NO_KEYS = new long[0];
+        private static final SwiftCodeView[] NO_VIEWS = new SwiftCodeView[0];
+
+        private volatile State state;
+
+        // codes that cannot be packed are left out and read from the database instead, a repeated
+        // code keeps its last view
+        Generation(List<SwiftCodeView> all) {
+            List<Entry> entries = new ArrayList<>(all.size());
+            for (SwiftCodeView view : all) {
+                long key = BicKey.of(view.swiftCode());
+                if (key != BicKey.NONE) {
+                    entries.add(new Entry(key, view));
+                }
+            }
+            entries.sort(Comparator.comparingLong(Entry::key));
+
+            long[] keys = new long[entries.size()];
+            SwiftCodeView[] views = new SwiftCodeView[entries.size()];
+            int size = 0;
+            for (Entry entry : entries) {
+                if (size > 0 && keys[size - 1] == entry.key()) {
+                    size--;
+                }
+                keys[size] = entry.key();
+                views[size++] = entry.view();
+            }
+            state = new State(Arrays.copyOf(keys, size), Arrays.copyOf(views, size), NO_KEYS, NO_VIEWS, size);
+        }
+
+        int size() {
+            return state.size();
+        }
+
+        SwiftCodeView get(long key) {
+            return state.get(key);
+        }
+
+        void apply(SwiftCodeChangedEvent event) {
+            long key = BicKey.of(event.swiftCode().swiftCode());
+            if (key == BicKey.NONE) {
+                return;
+            }
+            SwiftCodeView view = switch (event.changeType()) {
+                case ADDED -> event.swiftCode();
+                case DELETED -> null;
+            };
+            State current = state;
+            int size = current.size() + (view != null ? 1 : 0) - (current.get(key) != null ? 1 : 0);
+
+            long[] changedKeys;
+            SwiftCodeView[] changedViews;
+            int index = Arrays.binarySearch(current.changedKeys(), key);
+            if (index >= 0) {
+                changedKeys = current.changedKeys();
+                changedViews = current.changedViews().clone();
+                changedViews[index] = view;
+            } else {
+                index = -index - 1;
+                int count = current.changedKeys().length;
+                changedKeys = new long[count + 1];
+                changedViews = new SwiftCodeView[count + 1];
+                System.arraycopy(current.changedKeys(), 0, changedKeys, 0, index);
+                System.arraycopy(current.changedViews(), 0, changedViews, 0, index);
+                changedKeys[index] = key;
+                changedViews[index] = view;
+                System.arraycopy(current.changedKeys(), index, changedKeys, index + 1, count - index);
+                System.arraycopy(current.changedViews(), index, changedViews, index + 1, count - index);
+            }
+
+            State changed = new State(current.keys(), current.views(), changedKeys, changedViews, size);
+            state = changedKeys.length >= MAX_CHANGES ? changed.merge() : changed;
+        }
+
+        // the views of keys first (inclusive) to end (exclusive), at most limit of them; the sorted
+        // arrays and the changes are walked side by side, a change replacing the sorted code it equals
+        List<SwiftCodeView> range(long first, long end, int limit) {
+            State current = state;
+            long[] keys = current.keys();
+            long[] changedKeys = current.changedKeys();
+            List<SwiftCodeView> range = new ArrayList<>(Math.min(limit, 64));
+            int index = insertionPoint(keys, first);
+            int changed = insertionPoint(changedKeys, first);
+            while (range.size() < limit) {
+                boolean sortedLeft = index < keys.length && keys[index] < end;
+                boolean changedLeft = changed < changedKeys.length && changedKeys[changed] < end;
+                if (changedLeft && (!sortedLeft || changedKeys[changed] <= keys[index])) {
+                    if (sortedLeft && changedKeys[changed] == keys[index]) {
+                        index++;
+                    }
+                    if (current.changedViews()[changed] != null) {
+                        range.add(current.changedViews()[changed]);
+                    }
+                    changed++;
+                } else if (sortedLeft) {
+                    range.add(current.views()[index++]);
+                } else {
+                    break;
+                }
+            }
+            return range;
+        }
+
+        private static int insertionPoint(long[] keys, long key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    // size counts the codes of both, a deleted code is in neither
+    private record State(long[] keys, SwiftCodeView[] views, long[] changedKeys, SwiftCodeView[] changedViews,
+                         int size) {
+        SwiftCodeView get(long key) {
+            if (changedKeys.length > 0) {
+                int changed = Arrays.binarySearch(changedKeys, key);
+                if (changed >= 0) {
+                    return changedViews[changed];
+                }
+            }
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? views[index] : null;
+        }
+
+        // the changes merged into new sorted arrays
+        State merge() {
+            long[] mergedKeys = new long[keys.length + changedKeys.length];
+            SwiftCodeView[] mergedViews = new SwiftCodeView[mergedKeys.length];
+            int size = 0;
+            int index = 0;
+            for (int changed = 0; changed < changedKeys.length; changed++) {
+                long key = changedKeys[changed];
+                while (index < keys.length && keys[index] < key) {
+                    mergedKeys[size] = keys[index];
+                    mergedViews[size++] = views[index++];
+                }
+                if (index < keys.length && keys[index] == key) {
+                    index++;
+                }
+                if (changedViews[changed] != null) {
+                    mergedKeys[size] = key;
+                    mergedViews[size++] = changedViews[changed];
+                }
+            }
+            int rest = keys.length - index;
+            System.arraycopy(keys, index, mergedKeys, size, rest);
+            System.arraycopy(views, index, mergedViews, size, rest);
+            size += rest;
+            return new State(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedViews, size),
+                    Generation.NO_KEYS, Generation.NO_VIEWS, size);
+        }
+    }
+
+    private record Entry(long key, SwiftCodeView view) {
+    }
+}
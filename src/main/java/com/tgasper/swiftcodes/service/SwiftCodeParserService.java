@@ -1,14 +1,16 @@
 package com.tgasper.swiftcodes.service;
 
 import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.BicKey;
 import com.tgasper.swiftcodes.model.Country;
 import com.tgasper.swiftcodes.model.SwiftCode;
 import com.tgasper.swiftcodes.repository.BankRepository;
 import com.tgasper.swiftcodes.repository.CountryRepository;
 import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
-import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,143 +18,162 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
 
 @Service
 public class SwiftCodeParserService {
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeParserService.class);
+
     private final SwiftCodeRepository swiftCodeRepository;
     private final BankRepository bankRepository;
     private final CountryRepository countryRepository;
+    private final ImportMetrics importMetrics;
     
-    // Cache for countries and banks to avoid repeated database queries
-    private final Map<String, Country> countryCache = new HashMap<>();
-    private final Map<String, Bank> bankCache = new HashMap<>();
-
-    private static final String[] HEADERS = {
-            "COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME",
-            "ADDRESS", "TOWN NAME", "COUNTRY NAME", "TIME ZONE"
-    };
+    // Cache for countries and banks to avoid repeated database queries, keyed by BicKey
+    private final Country[] countryCache = new Country[BicKey.COUNTRY_KEYS];
+    private final LongObjectMap<Bank> bankCache = new LongObjectMap<>();
 
     public SwiftCodeParserService(SwiftCodeRepository swiftCodeRepository,
                                  BankRepository bankRepository,
-                                 CountryRepository countryRepository) {
+                                 CountryRepository countryRepository,
+                                 ImportMetrics importMetrics) {
         this.swiftCodeRepository = swiftCodeRepository;
         this.bankRepository = bankRepository;
         this.countryRepository = countryRepository;
+        this.importMetrics = importMetrics;
     }
 
     @Transactional
-    public void parseAndSave(String filePath) throws IOException {
-        // Pre-load existing countries and banks
-        countryRepository.findAll().forEach(country -> 
-            countryCache.put(country.getIso2Code(), country));
-        bankRepository.findAll().forEach(bank -> 
-            bankCache.put(bank.getSwiftCode(), bank));
+    public ImportResult parseAndSave(String filePath) throws IOException {
+        long start = System.nanoTime();
+        importMetrics.started();
+        try {
+            return importFile(filePath, start);
+        } finally {
+            importMetrics.finished();
+        }
+    }
+
+    private ImportResult importFile(String filePath, long start) throws IOException {
+        // Pre-load existing countries and banks, entries of an earlier import may no longer exist
+        Arrays.fill(countryCache, null);
+        bankCache.clear();
+        countryRepository.findAll().forEach(country -> {
+            int key = BicKey.ofCountry(country.getIso2Code());
+            if (key >= 0) {
+                countryCache[key] = country;
+            }
+        });
+        bankRepository.findAll().forEach(bank -> {
+            long key = BicKey.ofBase(bank.getSwiftCode());
+            if (key >= 0) {
+                bankCache.put(key, bank);
+            }
+        });
 
         List<Country> newCountries = new ArrayList<>();
         List<Bank> newBanks = new ArrayList<>();
         List<SwiftCode> swiftCodes = new ArrayList<>();
-
-        CSVFormat csvFormat = CSVFormat.Builder.create()
-                .setHeader(HEADERS)
-                .setSkipHeaderRecord(true)
-                .setDelimiter(',')
-                .setQuote('"')
-                .setIgnoreEmptyLines(true)
-                .setTrim(true)
-                .build();
+        long skippedRows = 0;
 
         try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath));
-             CSVParser csvParser = new CSVParser(reader, csvFormat)) {
+             CSVParser csvParser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
 
             // first pass: collect all entities
             for (CSVRecord record : csvParser) {
-                processRecord(record, newCountries, newBanks, swiftCodes);
+                importMetrics.rowParsed();
+                if (!processRecord(record, newCountries, newBanks, swiftCodes)) {
+                    skippedRows++;
+                }
+            }
+            if (skippedRows > 0) {
+                logger.warn("Skipped {} invalid rows", skippedRows);
             }
             
+            // each phase ends with a flush, so that it includes its inserts; a flush dirty checks every
+            // entity saved so far, which the countries and banks add once more at the next phases, while
+            // a flush per batch of codes would check all codes saved before it again
+
             // save countries first
             if (!newCountries.isEmpty()) {
-                List<Country> savedCountries = countryRepository.saveAll(newCountries);
-                savedCountries.forEach(country -> countryCache.put(country.getIso2Code(), country));
+                List<Country> savedCountries = importMetrics.phase(ImportMetrics.COUNTRIES, () -> {
+                    List<Country> saved = countryRepository.saveAll(newCountries);
+                    countryRepository.flush();
+                    return saved;
+                });
+                savedCountries.forEach(country -> countryCache[BicKey.ofCountry(country.getIso2Code())] = country);
             }
 
             // then save banks
             if (!newBanks.isEmpty()) {
-                List<Bank> savedBanks = bankRepository.saveAll(newBanks);
-                savedBanks.forEach(bank -> bankCache.put(bank.getSwiftCode(), bank));
+                List<Bank> savedBanks = importMetrics.phase(ImportMetrics.BANKS, () -> {
+                    List<Bank> saved = bankRepository.saveAll(newBanks);
+                    bankRepository.flush();
+                    return saved;
+                });
+                savedBanks.forEach(bank -> bankCache.put(BicKey.ofBase(bank.getSwiftCode()), bank));
             }
 
             // finally save swift codes in batches
             if (!swiftCodes.isEmpty()) {
-                for (int i = 0; i < swiftCodes.size(); i += 1000) {
-                    int end = Math.min(i + 1000, swiftCodes.size());
-                    swiftCodeRepository.saveAll(swiftCodes.subList(i, end));
-                }
+                importMetrics.phase(ImportMetrics.SWIFT_CODES, () -> {
+                    for (int i = 0; i < swiftCodes.size(); i += 1000) {
+                        int end = Math.min(i + 1000, swiftCodes.size());
+                        swiftCodeRepository.saveAll(swiftCodes.subList(i, end));
+                    }
+                    swiftCodeRepository.flush();
+                    importMetrics.rowsWritten(swiftCodes.size());
+                    return null;
+                });
             }
         }
+        return ImportResult.since(swiftCodes.size(), skippedRows, 0, start);
     }
 
-    private void processRecord(CSVRecord record, List<Country> newCountries, List<Bank> newBanks, List<SwiftCode> swiftCodes) {
-        String iso2Code = record.get("COUNTRY ISO2 CODE").trim().toUpperCase();
-        String swiftCodeStr = record.get("SWIFT CODE").trim();
-        String bankName = record.get("NAME").trim();
-        String address = determineAddress(record);
-
-        if (swiftCodeStr.length() == 8) {
-            swiftCodeStr = swiftCodeStr + "XXX";
+    // false when the row has no valid SWIFT or country code and is skipped
+    private boolean processRecord(CSVRecord record, List<Country> newCountries, List<Bank> newBanks, List<SwiftCode> swiftCodes) {
+        SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+        long key = BicKey.of(row.swiftCode());
+        int countryKey = BicKey.ofCountry(row.iso2Code());
+        if (key == BicKey.NONE || countryKey < 0) {
+            logger.warn("Skipping invalid row with SWIFT code '{}' and country '{}'", row.swiftCode(), row.iso2Code());
+            return false;
         }
-        boolean isHeadquarter = swiftCodeStr.endsWith("XXX");
 
         // Get or create country
-        String countryName = record.get("COUNTRY NAME").trim().toUpperCase();
-        Country country = getOrCreateCountry(iso2Code, countryName, newCountries);
+        Country country = getOrCreateCountry(countryKey, row.iso2Code(), row.countryName(), newCountries);
 
         // Get or create bank with base SWIFT code (first 8 characters)
-        String baseSwiftCode = swiftCodeStr.substring(0, 8);
-        Bank bank = getOrCreateBank(baseSwiftCode, bankName, newBanks);
+        Bank bank = getOrCreateBank(BicKey.base(key), row.baseSwiftCode(), row.bankName(), newBanks);
 
         // Create SwiftCode entity
         SwiftCode swiftCode = new SwiftCode();
-        swiftCode.setSwiftCode(swiftCodeStr);
+        swiftCode.setSwiftCode(row.swiftCode());
         swiftCode.setBank(bank);
-        swiftCode.setAddress(address);
-        swiftCode.setHeadquarter(isHeadquarter);
+        swiftCode.setAddress(row.address());
+        swiftCode.setHeadquarter(row.isHeadquarter());
         swiftCode.setCountry(country);
 
         swiftCodes.add(swiftCode);
+        return true;
     }
 
-    private String determineAddress(CSVRecord record) {
-        String address = record.get("ADDRESS").trim();
-        String townName = record.get("TOWN NAME").trim();
-        String countryName = record.get("COUNTRY NAME").trim();
-
-        if (address != null && !address.isEmpty()) {
-            return address;
-        }
-        
-        if (!townName.isEmpty()) {
-            return String.format("%s, %s", townName, countryName);
-        }
-        
-        return countryName;
-    }
-
-    private Country getOrCreateCountry(String iso2Code, String countryName, List<Country> newCountries) {
-        return countryCache.computeIfAbsent(iso2Code, k -> {
-            Country country = new Country();
+    private Country getOrCreateCountry(int countryKey, String iso2Code, String countryName, List<Country> newCountries) {
+        Country country = countryCache[countryKey];
+        if (country == null) {
+            country = new Country();
             country.setIso2Code(iso2Code);
             country.setName(countryName);
             newCountries.add(country);
-            return country;
-        });
+            countryCache[countryKey] = country;
+        }
+        return country;
     }
 
-    private Bank getOrCreateBank(String baseSwiftCode, String bankName, List<Bank> newBanks) {
-        return bankCache.computeIfAbsent(baseSwiftCode, k -> {
+    private Bank getOrCreateBank(long bankKey, String baseSwiftCode, String bankName, List<Bank> newBanks) {
+        return bankCache.computeIfAbsent(bankKey, k -> {
             Bank bank = new Bank();
             bank.setBankName(bankName);
             bank.setSwiftCode(baseSwiftCode);
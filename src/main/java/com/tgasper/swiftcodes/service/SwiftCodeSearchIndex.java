@@ -0,0 +1,528 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Inverted index over the bank names and addresses of all SWIFT codes (the town is part of the stored
+// address), answering GET /v1/swift-codes/search without a database round trip. Every query token has
+// to match a word of the bank name or the address: the last one, still being typed, exactly or as a
+// prefix, the others exactly or, when no word is equal, as a prefix. When neither finds anything a
+// token may have one typo. The match with the highest weight counts, and bank name matches weigh more
+// than address matches. Kept up to date like SwiftCodeIndex, enabled with swift-codes.search.enabled.
+@Component
+public class SwiftCodeSearchIndex extends AbstractSwiftCodeIndex<SwiftCodeSearchIndex.Generation> {
+    public static final int MAX_QUERY_TOKENS = 8;
+
+    // weights of a match in the bank name; address matches weigh a quarter of these
+    private static final int EXACT = 12;
+    private static final int PREFIX = 8;
+    private static final int FUZZY = 4;
+    // tokens shorter than this are only matched exactly or as a prefix
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final int NAME = 0;
+    private static final int ADDRESS = 1;
+
+    // rank of a removed code; a code's rank is above any BicKey when it is a headquarters
+    private static final long REMOVED = -1;
+    private static final long HEADQUARTERS_RANK = 1L << 60;
+
+    private final SwiftCodeRepository swiftCodeRepository;
+
+    public SwiftCodeSearchIndex(SwiftCodeRepository swiftCodeRepository,
+                                @Value("${swift-codes.search.enabled:false}") boolean enabled) {
+        super(enabled);
+        this.swiftCodeRepository = swiftCodeRepository;
+    }
+
+    // words of the text in upper case without diacritics, the same for indexed text and queries
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        LinkedHashSet<String> tokens = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toUpperCase(c));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return List.copyOf(tokens);
+    }
+
+    // best matches first, ties broken by headquarters first and then by code; countryISO2 may be null
+    public List<SwiftCodeView> search(List<String> queryTokens, String countryISO2, int limit) {
+        Generation generation = current();
+        if (generation == null || queryTokens.isEmpty()) {
+            return List.of();
+        }
+        return generation.search(queryTokens, countryISO2, limit);
+    }
+
+    public int size() {
+        Generation generation = current();
+        return generation == null ? 0 : generation.byCode.size();
+    }
+
+    @Override
+    protected Generation build() {
+        Generation generation = new Generation();
+        List<SwiftCodeView> views = new ArrayList<>(swiftCodeRepository.findAllViews());
+        // the codes of a country get consecutive numbers
+        views.sort(Comparator.comparingInt((SwiftCodeView view) -> BicKey.ofCountry(view.countryISO2()))
+                .thenComparing(SwiftCodeView::swiftCode));
+        views.forEach(generation::put);
+        generation.seal();
+        return generation;
+    }
+
+    @Override
+    protected void apply(Generation generation, SwiftCodeChangedEvent event) {
+        generation.apply(event);
+    }
+
+    @Override
+    protected String describe(Generation generation) {
+        return "SWIFT code search index with " + generation.byCode.size() + " codes and "
+                + generation.terms.size() + " words";
+    }
+
+    // Codes are numbered in the order they are added and a word's postings are appended, so postings
+    // stay sorted by code number. The build adds the codes country by country, a country filter then
+    // is a range of code numbers plus the codes added since. A removed code leaves a tombstone behind
+    // that searches skip, the next rebuild compacts them.
+    //
+    // Searches take no lock. Codes are added by one thread at a time and only ever appended: a code's
+    // view, rank, country and postings are written before the code count is raised, a grown array is
+    // a copy published before the count, and a search reads the count once and leaves out the codes
+    // numbered above it. A tombstone is written with release semantics and read with acquire semantics;
+    // a search running while a code is replaced may still rank its old view.
+    static final class Generation {
+        private static final VarHandle DOCS = MethodHandles.arrayElementVarHandle(SwiftCodeView[].class);
+        private static final VarHandle RANKS = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private volatile SwiftCodeView[] docs = new SwiftCodeView[1024];
+        // codes numbered so far, those at or above it are not visible to searches yet
+        private volatile int docCount;
+        // BicKey of the code -> its number in docs
+        private final LongObjectMap<Integer> byCode = new LongObjectMap<>();
+        // word -> postings, each (code number << 1 | NAME or ADDRESS)
+        private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+        // per code number, so that ranking candidates never has to load their views
+        private volatile long[] ranks = new long[1024];
+        private volatile short[] countries = new short[1024];
+        // codes numbered by the build, those of country c are [countryFrom[c], countryFrom[c + 1]);
+        // written before the generation is published
+        private int built;
+        private final int[] countryFrom = new int[BicKey.COUNTRY_KEYS + 1];
+
+        void apply(SwiftCodeChangedEvent event) {
+            switch (event.changeType()) {
+                case ADDED -> put(event.swiftCode());
+                case DELETED -> remove(event.swiftCode());
+            }
+        }
+
+        // an added code replaces the one with the same BIC
+        void put(SwiftCodeView view) {
+            long key = BicKey.of(view.swiftCode());
+            if (key == BicKey.NONE) {
+                return;
+            }
+            Integer previous = byCode.get(key);
+            if (previous != null) {
+                bury(previous);
+            }
+            int doc = docCount;
+            if (doc == docs.length) {
+                docs = Arrays.copyOf(docs, doc * 2);
+                ranks = Arrays.copyOf(ranks, doc * 2);
+                countries = Arrays.copyOf(countries, doc * 2);
+            }
+            docs[doc] = view;
+            // headquarters first, then ascending codes, as keys sort like the codes
+            ranks[doc] = (view.isHeadquarter() ? HEADQUARTERS_RANK : 0) | (HEADQUARTERS_RANK - 1 - key);
+            countries[doc] = (short) BicKey.ofCountry(view.countryISO2());
+            for (String token : tokenize(view.bankName())) {
+                terms.computeIfAbsent(token, t -> new Postings()).add(doc << 1 | NAME);
+            }
+            for (String token : tokenize(view.address())) {
+                terms.computeIfAbsent(token, t -> new Postings()).add(doc << 1 | ADDRESS);
+            }
+            byCode.put(key, doc);
+            docCount = doc + 1;
+        }
+
+        // called once the build has added its codes sorted by country
+        void seal() {
+            built = docCount;
+            int doc = 0;
+            for (int country = 0; country <= BicKey.COUNTRY_KEYS; country++) {
+                while (doc < built && countries[doc] < country) {
+                    doc++;
+                }
+                countryFrom[country] = doc;
+            }
+        }
+
+        void remove(SwiftCodeView view) {
+            long key = BicKey.of(view.swiftCode());
+            if (key == BicKey.NONE) {
+                return;
+            }
+            Integer doc = byCode.remove(key);
+            if (doc != null) {
+                bury(doc);
+            }
+        }
+
+        // the rank first, searches skip a code by its rank before they load its view
+        private void bury(int doc) {
+            RANKS.setRelease(ranks, doc, REMOVED);
+            DOCS.setRelease(docs, doc, (SwiftCodeView) null);
+        }
+
+        // The rarest token gives the candidates. Every other token is intersected with them either by
+        // merging all of its postings, or by a galloping search for the candidates in each of its
+        // postings lists, whichever touches fewer entries. A word most codes share ("BANK") then costs
+        // a few lookups per candidate instead of a pass over its postings.
+        List<SwiftCodeView> search(List<String> queryTokens, String countryISO2, int limit) {
+            // the count first: every array read after it holds the codes below it
+            int visible = docCount;
+            int country = countryISO2 == null ? (int) BicKey.NONE : BicKey.ofCountry(countryISO2);
+            if (countryISO2 != null && country == BicKey.NONE) {
+                return List.of();
+            }
+            List<QueryToken> planned = new ArrayList<>(queryTokens.size());
+            for (int i = 0; i < queryTokens.size(); i++) {
+                QueryToken token = plan(queryTokens.get(i), i == queryTokens.size() - 1);
+                if (token.postings() == 0) {
+                    return List.of();
+                }
+                planned.add(token);
+            }
+            planned.sort(Comparator.comparingLong(QueryToken::postings));
+
+            // codes matching every token so far with their summed weights, sorted by code number
+            long[] matches = match(planned.get(0), country, visible);
+            int[] matchedDocs = new int[matches.length];
+            int[] scores = new int[matches.length];
+            for (int i = 0; i < matches.length; i++) {
+                matchedDocs[i] = (int) (matches[i] >>> 8);
+                scores[i] = (int) (matches[i] & 0xFF);
+            }
+            int count = matchedDocs.length;
+            for (QueryToken token : planned.subList(1, planned.size())) {
+                int kept = 0;
+                if ((long) count * token.lists() >= token.postings()) {
+                    matches = match(token, (int) BicKey.NONE, visible);
+                    for (int i = 0, j = 0; i < count && j < matches.length; ) {
+                        int doc = (int) (matches[j] >>> 8);
+                        if (matchedDocs[i] < doc) {
+                            i++;
+                        } else if (matchedDocs[i] > doc) {
+                            j++;
+                        } else {
+                            matchedDocs[kept] = doc;
+                            scores[kept++] = scores[i++] + (int) (matches[j++] & 0xFF);
+                        }
+                    }
+                } else {
+                    int[] weights = new int[count];
+                    for (Postings postings : token.exact()) {
+                        postings.weigh(matchedDocs, count, EXACT, weights);
+                    }
+                    for (Postings postings : token.others()) {
+                        postings.weigh(matchedDocs, count, token.fuzzy() ? FUZZY : PREFIX, weights);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        if (weights[i] > 0) {
+                            matchedDocs[kept] = matchedDocs[i];
+                            scores[kept++] = scores[i] + weights[i];
+                        }
+                    }
+                }
+                count = kept;
+                if (count == 0) {
+                    return List.of();
+                }
+            }
+            return top(matchedDocs, scores, count, limit);
+        }
+
+        // the words the token matches, exactly or as a prefix, or with one typo when there are none;
+        // only the last token of a query is a prefix even when a word equals it
+        private QueryToken plan(String queryToken, boolean last) {
+            List<Postings> exact = new ArrayList<>(1);
+            List<Postings> prefixed = new ArrayList<>();
+            Postings exactPostings = terms.get(queryToken);
+            if (exactPostings != null) {
+                exact.add(exactPostings);
+            }
+            if (last || exact.isEmpty()) {
+                prefixed.addAll(terms.subMap(queryToken, false, queryToken + Character.MAX_VALUE, false).values());
+            }
+            boolean fuzzy = exact.isEmpty() && prefixed.isEmpty() && queryToken.length() >= MIN_FUZZY_LENGTH;
+            if (fuzzy) {
+                // a typo is looked for among the words that share the first letter
+                String first = queryToken.substring(0, 1);
+                for (Map.Entry<String, Postings> term : terms.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                    if (withinOneEdit(queryToken, term.getKey())) {
+                        prefixed.add(term.getValue());
+                    }
+                }
+            }
+            long postings = 0;
+            for (Postings list : exact) {
+                postings += list.size;
+            }
+            for (Postings list : prefixed) {
+                postings += list.size;
+            }
+            return new QueryToken(queryToken, fuzzy, exact, prefixed, postings);
+        }
+
+        // codes below visible matching the query token, each (code number << 8 | weight of its best
+        // match), sorted; only codes of the country when it is not NONE
+        private long[] match(QueryToken token, int country, int visible) {
+            LongList matches = new LongList(country == BicKey.NONE ? (int) token.postings() : 16);
+            for (Postings postings : token.exact()) {
+                addTo(matches, postings, EXACT, country, visible);
+            }
+            for (Postings postings : token.others()) {
+                addTo(matches, postings, token.fuzzy() ? FUZZY : PREFIX, country, visible);
+            }
+
+            long[] sorted = matches.toSortedArray();
+            // the best match of a code sorts last among its entries
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i + 1 < sorted.length && sorted[i] >>> 8 == sorted[i + 1] >>> 8) {
+                    continue;
+                }
+                sorted[count++] = sorted[i];
+            }
+            return Arrays.copyOf(sorted, count);
+        }
+
+        private void addTo(LongList matches, Postings postings, int nameWeight, int country, int visible) {
+            if (country == BicKey.NONE) {
+                postings.addTo(matches, nameWeight, 0, visible);
+                return;
+            }
+            postings.addTo(matches, nameWeight, countryFrom[country], countryFrom[country + 1]);
+            if (built == visible) {
+                return;
+            }
+            int from = matches.size;
+            postings.addTo(matches, nameWeight, built, visible);
+            // codes added since the build, in any country
+            short[] countries = this.countries;
+            int kept = from;
+            for (int i = from; i < matches.size; i++) {
+                if (countries[(int) (matches.values[i] >>> 8)] == country) {
+                    matches.values[kept++] = matches.values[i];
+                }
+            }
+            matches.size = kept;
+        }
+
+        private List<SwiftCodeView> top(int[] matchedDocs, int[] scores, int count, int limit) {
+            long[] ranks = this.ranks;
+            // the worst of the best hits so far at the head
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+            for (int i = 0; i < count; i++) {
+                // most candidates of a broad query lose on the score alone
+                Hit worst = best.size() == limit ? best.peek() : null;
+                if (worst != null && scores[i] < worst.score()) {
+                    continue;
+                }
+                int doc = matchedDocs[i];
+                long rank = (long) RANKS.getAcquire(ranks, doc);
+                if (rank == REMOVED) {
+                    continue;
+                }
+                if (worst != null && scores[i] == worst.score() && rank < worst.rank()) {
+                    continue;
+                }
+                best.add(new Hit(doc, scores[i], rank));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            // worst first; a code removed since its rank was read is left out
+            SwiftCodeView[] docs = this.docs;
+            List<SwiftCodeView> ranked = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                SwiftCodeView view = (SwiftCodeView) DOCS.getAcquire(docs, best.poll().doc());
+                if (view != null) {
+                    ranked.add(view);
+                }
+            }
+            return List.copyOf(ranked.reversed());
+        }
+    }
+
+    private record Hit(int doc, int score, long rank) {
+    }
+
+    // ascending from the worst hit: lower score, then lower rank
+    private static final Comparator<Hit> RANKING = (a, b) -> {
+        int order = Integer.compare(a.score(), b.score());
+        return order != 0 ? order : Long.compare(a.rank(), b.rank());
+    };
+
+    // others are the prefix matches, or the words one typo away when the token is fuzzy
+    private record QueryToken(String token, boolean fuzzy, List<Postings> exact, List<Postings> others, long postings) {
+        int lists() {
+            return exact.size() + others.size();
+        }
+    }
+
+    // optimal string alignment distance of at most 1: one character inserted, deleted, replaced,
+    // or two adjacent characters swapped
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (lengthDifference > 0) {
+            return a.regionMatches(i + 1, b, i, b.length() - i);
+        }
+        if (lengthDifference < 0) {
+            return b.regionMatches(i + 1, a, i, a.length() - i);
+        }
+        if (i == a.length() || a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+            return true;
+        }
+        return i + 1 < a.length()
+                && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+    }
+
+    // appended by one thread at a time; the entries are written before the size is raised, and readers
+    // read the size before the array
+    private static final class Postings {
+        private volatile int[] entries = new int[2];
+        private volatile int size;
+
+        void add(int entry) {
+            int count = size;
+            if (count == entries.length) {
+                entries = Arrays.copyOf(entries, count * 2);
+            }
+            entries[count] = entry;
+            size = count + 1;
+        }
+
+        // raises weights[i] to nameWeight when code docs[i] has the word in its bank name, or to a
+        // quarter of it when only in its address; both sides ascending, so the shorter one is walked
+        // and searched for in the longer one galloping forward
+        void weigh(int[] docs, int count, int nameWeight, int[] weights) {
+            int size = this.size;
+            int[] entries = this.entries;
+            if (size < count) {
+                int from = 0;
+                for (int j = 0; j < size && from < count; j++) {
+                    int index = gallop(docs, from, count, entries[j] >>> 1);
+                    from = index >= 0 ? index : -index - 1;
+                    if (index >= 0) {
+                        int weight = (entries[j] & 1) == NAME ? nameWeight : nameWeight / 4;
+                        weights[index] = Math.max(weights[index], weight);
+                    }
+                }
+                return;
+            }
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int key = docs[i] << 1 | NAME;
+                int index = gallop(entries, from, size, key);
+                from = index >= 0 ? index : -index - 1;
+                int weight = 0;
+                if (index >= 0) {
+                    weight = nameWeight;
+                } else if (from < size && entries[from] == (key | ADDRESS)) {
+                    weight = nameWeight / 4;
+                }
+                weights[i] = Math.max(weights[i], weight);
+            }
+        }
+
+        // Arrays.binarySearch of values[from, to) after doubling steps from the start of the range
+        private static int gallop(int[] values, int from, int to, int key) {
+            int low = from;
+            int high = from;
+            for (int step = 1; high < to && values[high] < key; step <<= 1) {
+                low = high + 1;
+                high = from + step;
+            }
+            return Arrays.binarySearch(values, low, Math.min(high + 1, to), key);
+        }
+
+        // the entries of codes fromDoc (inclusive) to toDoc (exclusive)
+        void addTo(LongList matches, int nameWeight, int fromDoc, int toDoc) {
+            int size = this.size;
+            int[] entries = this.entries;
+            int from = Arrays.binarySearch(entries, 0, size, fromDoc << 1);
+            from = from >= 0 ? from : -from - 1;
+            for (int i = from; i < size && entries[i] >>> 1 < toDoc; i++) {
+                int entry = entries[i];
+                int weight = (entry & 1) == NAME ? nameWeight : nameWeight / 4;
+                matches.add((long) (entry >>> 1) << 8 | weight);
+            }
+        }
+    }
+
+    private static final class LongList {
+        private long[] values;
+        private int size;
+
+        LongList(int expectedSize) {
+            values = new long[Math.max(expectedSize, 16)];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
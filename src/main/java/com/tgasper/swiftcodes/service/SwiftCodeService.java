@@ -1,100 +1,343 @@
 package com.tgasper.swiftcodes.service;
 
 import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeLookupResponse;
 import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeSearchResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeSuggestResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeLookupRequest;
 import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
 import com.tgasper.swiftcodes.exception.ConflictException;
 import com.tgasper.swiftcodes.exception.ResourceNotFoundException;
 import com.tgasper.swiftcodes.exception.SwiftCodeValidationException;
 import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.model.BicKey;
 import com.tgasper.swiftcodes.model.Country;
 import com.tgasper.swiftcodes.model.SwiftCode;
 import com.tgasper.swiftcodes.repository.BankRepository;
 import com.tgasper.swiftcodes.repository.CountryRepository;
 import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "swiftcodes.service", histogram = true)
 public class SwiftCodeService {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_LOOKUP_CODES = 1000;
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final SwiftCodeRepository swiftCodeRepository;
     private final CountryRepository countryRepository;
     private final BankService bankService;
+    private final SwiftCodeIndex swiftCodeIndex;
+    private final SwiftCodeSnapshot swiftCodeSnapshot;
+    private final SwiftCodeSearchIndex swiftCodeSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SwiftCodeService(SwiftCodeRepository swiftCodeRepository,
                           CountryRepository countryRepository,
                           BankRepository bankRepository,
-                          BankService bankService) {
+                          BankService bankService,
+                          SwiftCodeIndex swiftCodeIndex,
+                          SwiftCodeSnapshot swiftCodeSnapshot,
+                          SwiftCodeSearchIndex swiftCodeSearchIndex,
+                          ApplicationEventPublisher eventPublisher) {
         this.swiftCodeRepository = swiftCodeRepository;
         this.countryRepository = countryRepository;
         this.bankService = bankService;
+        this.swiftCodeIndex = swiftCodeIndex;
+        this.swiftCodeSnapshot = swiftCodeSnapshot;
+        this.swiftCodeSearchIndex = swiftCodeSearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public SwiftCodeResponse getSwiftCodeDetails(String inputCode) {
         // swift code cannot be null or empty
-        if (inputCode == null || inputCode.trim().isEmpty()) {
+        if (inputCode == null || inputCode.isBlank()) {
             throw new SwiftCodeValidationException("SWIFT code cannot be null or empty");
         }
 
         String swiftCode = getDefaultSwiftCode(inputCode);
 
-        SwiftCode mainCode = swiftCodeRepository.findById(swiftCode)
+        // serve from the in-memory index or the mapped snapshot when they hold the code,
+        // otherwise read through to the database
+        Optional<SwiftCodeView> indexed = swiftCodeIndex.lookup(swiftCode);
+        if (indexed.isPresent()) {
+            SwiftCodeView mainView = indexed.get();
+            return toResponse(mainView, mainView.isHeadquarter()
+                    ? swiftCodeIndex.findByBaseCode(mainView.baseCode())
+                    : List.of());
+        }
+        Optional<SwiftCodeView> snapshotted = swiftCodeSnapshot.lookup(swiftCode);
+        if (snapshotted.isPresent()) {
+            SwiftCodeView mainView = snapshotted.get();
+            return toResponse(mainView, mainView.isHeadquarter()
+                    ? swiftCodeSnapshot.findByBaseCode(mainView.baseCode())
+                    : List.of());
+        }
+
+        // a headquarters comes back with all codes sharing its base code from a single query,
+        // a branch is a single row read by its primary key
+        if (!Bic.isHeadquarter(swiftCode)) {
+            return swiftCodeRepository.findViewBySwiftCode(swiftCode)
+                    .map(SwiftCodeResponse::new)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            String.format("SWIFT code %s not found", swiftCode)));
+        }
+        List<SwiftCodeView> bankCodes = swiftCodeRepository.findViewsByBaseCode(swiftCode.substring(0, 8));
+        SwiftCodeView mainView = bankCodes.stream()
+                .filter(code -> code.swiftCode().equals(swiftCode))
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("SWIFT code %s not found", swiftCode)));
+        return toResponse(mainView, bankCodes);
+    }
 
-        if (mainCode.isHeadquarter()) {
-            String baseCode = swiftCode.substring(0, 8);
-            List<SwiftCode> branches = swiftCodeRepository.findBySwiftCodeStartingWith(baseCode).stream()
-                    .filter(code -> !code.getSwiftCode().equals(swiftCode))
-                    .collect(Collectors.toList());
-            return new SwiftCodeResponse(mainCode, branches);
+    // shared with ReactiveSwiftCodeService
+    static SwiftCodeResponse toResponse(SwiftCodeView mainView, List<SwiftCodeView> bankCodes) {
+        if (!mainView.isHeadquarter()) {
+            return new SwiftCodeResponse(mainView);
         }
-
-        return new SwiftCodeResponse(mainCode);
+        List<SwiftCodeView> branches = bankCodes.stream()
+                .filter(code -> !code.swiftCode().equals(mainView.swiftCode()))
+                .collect(Collectors.toList());
+        return new SwiftCodeResponse(mainView, branches);
     }
 
-    public CountrySwiftCodesResponse getSwiftCodesByCountry(String countryISO2) {
-        if (countryISO2 == null || countryISO2.trim().isEmpty()) {
-            throw new SwiftCodeValidationException("Country ISO2 code cannot be null or empty");
+    // resolves many codes at once: index and snapshot probes first, the rest with a single IN query;
+    // headquarters are returned without their branches
+    @Transactional(readOnly = true)
+    public SwiftCodeLookupResponse lookupSwiftCodes(SwiftCodeLookupRequest request) {
+        if (request == null || request.swiftCodes() == null || request.swiftCodes().isEmpty()) {
+            throw new SwiftCodeValidationException("At least one SWIFT code is required");
+        }
+        if (request.swiftCodes().size() > MAX_LOOKUP_CODES) {
+            throw new SwiftCodeValidationException(
+                    String.format("At most %d SWIFT codes can be looked up at once", MAX_LOOKUP_CODES));
         }
 
-        if (!countryISO2.matches("^[A-Za-z]{2}$")) {
-            throw new SwiftCodeValidationException("Invalid country code format. Must be exactly 2 letters.");
+        // normalized codes in request order, duplicates resolved once
+        Set<String> swiftCodes = new LinkedHashSet<>();
+        List<String> invalid = new ArrayList<>();
+        for (String inputCode : request.swiftCodes()) {
+            if (Bic.isValid(inputCode)) {
+                swiftCodes.add(Bic.toCanonical(inputCode));
+            } else {
+                invalid.add(inputCode);
+            }
         }
 
-        String upperCountryISO2 = countryISO2.toUpperCase();
-        Country country = countryRepository.findById(upperCountryISO2)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Country with ISO2 code %s not found", countryISO2)));
+        Map<String, SwiftCodeView> resolved = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String swiftCode : swiftCodes) {
+            swiftCodeIndex.lookup(swiftCode)
+                    .or(() -> swiftCodeSnapshot.lookup(swiftCode))
+                    .ifPresentOrElse(
+                            view -> resolved.put(swiftCode, view),
+                            () -> missing.add(swiftCode));
+        }
+        if (!missing.isEmpty()) {
+            swiftCodeRepository.findViewsBySwiftCodeIn(missing)
+                    .forEach(view -> resolved.put(view.swiftCode(), view));
+        }
 
-        List<SwiftCode> swiftCodes = swiftCodeRepository.findByCountryIso2Code(
-                upperCountryISO2);
+        List<SwiftCodeResponse> found = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String swiftCode : swiftCodes) {
+            SwiftCodeView view = resolved.get(swiftCode);
+            if (view == null) {
+                notFound.add(swiftCode);
+            } else {
+                found.add(new SwiftCodeResponse(view));
+            }
+        }
+        return new SwiftCodeLookupResponse(found, notFound, invalid);
+    }
+
+    @Transactional(readOnly = true)
+    public CountrySwiftCodesResponse getSwiftCodesByCountry(String countryISO2) {
+        String upperCountryISO2 = normalizeCountryCode(countryISO2);
+        List<SwiftCodeView> swiftCodes = swiftCodeRepository.findByCountryIso2Code(upperCountryISO2);
 
         if (swiftCodes.isEmpty()) {
+            // only an empty result needs the country itself, to tell an unknown country from one without codes
+            if (!countryRepository.existsById(upperCountryISO2)) {
+                throw new ResourceNotFoundException(
+                        String.format("Country with ISO2 code %s not found", countryISO2));
+            }
             throw new ResourceNotFoundException(
                     String.format("No SWIFT codes found for country %s", countryISO2));
         }
 
+        SwiftCodeView first = swiftCodes.get(0);
         return new CountrySwiftCodesResponse(
-                country.getIso2Code(),
-                country.getName(),
+                first.countryISO2(),
+                first.countryName(),
                 swiftCodes
         );
     }
 
+    // keyset pagination on swift_code, without limit and after the whole country is returned
+    @Transactional(readOnly = true)
+    public CountrySwiftCodesResponse getSwiftCodesByCountry(String countryISO2, Integer limit, String after) {
+        if (limit == null && after == null) {
+            return getSwiftCodesByCountry(countryISO2);
+        }
+
+        String upperCountryISO2 = normalizeCountryCode(countryISO2);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new SwiftCodeValidationException(
+                    String.format("Limit must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+
+        // one row past the page tells whether another page follows
+        List<SwiftCodeView> rows = swiftCodeRepository.findPageByCountryIso2Code(
+                upperCountryISO2, after == null ? "" : Bic.toUpperCase(after), PageRequest.of(0, pageSize + 1));
+
+        if (rows.isEmpty()) {
+            Country country = countryRepository.findById(upperCountryISO2)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            String.format("Country with ISO2 code %s not found", countryISO2)));
+            if (after == null) {
+                throw new ResourceNotFoundException(
+                        String.format("No SWIFT codes found for country %s", countryISO2));
+            }
+            // cursor past the last code
+            return new CountrySwiftCodesResponse(country.getIso2Code(), country.getName(), List.of(), null);
+        }
+
+        boolean hasNextPage = rows.size() > pageSize;
+        List<SwiftCodeView> page = hasNextPage ? rows.subList(0, pageSize) : rows;
+        SwiftCodeView first = page.get(0);
+        return new CountrySwiftCodesResponse(
+                first.countryISO2(),
+                first.countryName(),
+                page,
+                hasNextPage ? page.get(page.size() - 1).swiftCode() : null
+        );
+    }
+
+    // words of bank names and addresses, answered by the in-memory search index; the country is optional
+    public SwiftCodeSearchResponse searchSwiftCodes(String query, String countryISO2, Integer limit) {
+        if (!swiftCodeSearchIndex.isEnabled()) {
+            throw new ResourceNotFoundException("Search is not enabled on this instance");
+        }
+        List<String> tokens = SwiftCodeSearchIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            throw new SwiftCodeValidationException("Search query must contain at least one letter or digit");
+        }
+        if (tokens.size() > SwiftCodeSearchIndex.MAX_QUERY_TOKENS) {
+            throw new SwiftCodeValidationException(
+                    String.format("Search query can contain at most %d words", SwiftCodeSearchIndex.MAX_QUERY_TOKENS));
+        }
+        int maxResults = limit == null ? DEFAULT_SEARCH_RESULTS : limit;
+        if (maxResults < 1 || maxResults > MAX_SEARCH_RESULTS) {
+            throw new SwiftCodeValidationException(
+                    String.format("Limit must be between 1 and %d", MAX_SEARCH_RESULTS));
+        }
+        String upperCountryISO2 = countryISO2 == null ? null : normalizeCountryCode(countryISO2);
+
+        return new SwiftCodeSearchResponse(query.trim(), upperCountryISO2,
+                swiftCodeSearchIndex.search(tokens, upperCountryISO2, maxResults));
+    }
+
+    // the first codes, in code order, starting with 1 to 11 characters typed so far; a range of the
+    // in-memory index, or of the primary key when the index is not built
+    public SwiftCodeSuggestResponse suggestSwiftCodes(String prefix, Integer limit) {
+        String upperPrefix = prefix == null ? "" : Bic.toUpperCase(prefix.trim());
+        if (upperPrefix.isEmpty() || upperPrefix.length() > Bic.BIC11_LENGTH) {
+            throw new SwiftCodeValidationException(
+                    String.format("Prefix must have between 1 and %d characters", Bic.BIC11_LENGTH));
+        }
+        if (BicKey.firstOfPrefix(upperPrefix) == BicKey.NONE) {
+            throw new SwiftCodeValidationException("Invalid SWIFT code prefix format");
+        }
+        int maxSuggestions = limit == null ? DEFAULT_SUGGESTIONS : limit;
+        if (maxSuggestions < 1 || maxSuggestions > MAX_SUGGESTIONS) {
+            throw new SwiftCodeValidationException(
+                    String.format("Limit must be between 1 and %d", MAX_SUGGESTIONS));
+        }
+
+        List<SwiftCodeView> suggestions = swiftCodeIndex.isReady()
+                ? swiftCodeIndex.suggest(upperPrefix, maxSuggestions)
+                : swiftCodeRepository.findViewsInRange(upperPrefix, prefixEnd(upperPrefix),
+                        PageRequest.of(0, maxSuggestions));
+        return new SwiftCodeSuggestResponse(upperPrefix, suggestions);
+    }
+
+    // the lowest string above every code starting with the upper-case prefix: the prefix with its last
+    // character that is not a Z raised by one (9 becomes A) and the rest cut off. A comparison with it
+    // only involves letters and digits, which sort the same under any collation.
+    static String prefixEnd(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char c = prefix.charAt(i);
+            if (c != 'Z') {
+                return prefix.substring(0, i) + (c == '9' ? 'A' : (char) (c + 1));
+            }
+        }
+        // only Zs: longer than any code starting with them
+        return "Z".repeat(Bic.BIC11_LENGTH + 1);
+    }
+
+    // the country of a streamed listing, with the errors of getSwiftCodesByCountry: the status has to be
+    // known before the first byte of the body is written
+    public Country getCountryWithSwiftCodes(String countryISO2) {
+        String upperCountryISO2 = normalizeCountryCode(countryISO2);
+        Country country = countryRepository.findById(upperCountryISO2)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Country with ISO2 code %s not found", countryISO2)));
+        if (!swiftCodeRepository.existsByCountryIso2Code(upperCountryISO2)) {
+            throw new ResourceNotFoundException(
+                    String.format("No SWIFT codes found for country %s", countryISO2));
+        }
+        return country;
+    }
+
+    // hands the codes of a country to the consumer one by one as they are read from a database cursor,
+    // so memory use does not depend on the size of the country
+    @Transactional(readOnly = true)
+    public void streamSwiftCodesByCountry(String countryISO2, Consumer<SwiftCodeView> consumer) {
+        try (Stream<SwiftCodeView> swiftCodes = swiftCodeRepository.streamByCountryIso2Code(
+                normalizeCountryCode(countryISO2))) {
+            swiftCodes.forEach(consumer);
+        }
+    }
+
     @Transactional
     public String addSwiftCode(SwiftCodeRequest request) {
         validateSwiftCodeRequest(request);
+        // stored as the BIC11 that reads resolve it to, so ABCDEFGH and ABCDEFGHXXX are one code
+        String upperSwiftCode = Bic.toCanonical(request.swiftCode());
 
         // check if SWIFT code already exists
-        if (swiftCodeRepository.findById(request.swiftCode().toUpperCase()).isPresent()) {
-            throw new ConflictException("SWIFT code " + request.swiftCode() + " already exists");
+        if (swiftCodeRepository.findById(upperSwiftCode).isPresent()) {
+            throw new ConflictException("SWIFT code " + upperSwiftCode + " already exists");
         }
 
-        Country country = countryRepository.findById(request.countryISO2().toUpperCase())
+        Country country = countryRepository.findById(Bic.toUpperCase(request.countryISO2()))
                 .orElseGet(() -> {
                     Country newCountry = new Country();
                     newCountry.setIso2Code(request.countryISO2());
@@ -102,23 +345,24 @@ public class SwiftCodeService {
                     return countryRepository.save(newCountry);
                 });
 
-        String baseSwiftCode = request.swiftCode().substring(0, 8).toUpperCase();
+        String baseSwiftCode = upperSwiftCode.substring(0, Bic.BIC8_LENGTH);
         Bank bank = bankService.getOrCreateBank(baseSwiftCode, request.bankName());
 
         SwiftCode swiftCode = new SwiftCode();
-        swiftCode.setSwiftCode(request.swiftCode().toUpperCase());
+        swiftCode.setSwiftCode(upperSwiftCode);
         swiftCode.setBank(bank);
         swiftCode.setAddress(request.address());
         swiftCode.setHeadquarter(request.isHeadquarter());
         swiftCode.setCountry(country);
 
         swiftCodeRepository.save(swiftCode);
+        eventPublisher.publishEvent(SwiftCodeChangedEvent.added(SwiftCodeView.from(swiftCode)));
         return "SWIFT code added successfully";
     }
 
     @Transactional
     public String deleteSwiftCode(String inputCode) {
-        if (inputCode == null || inputCode.trim().isEmpty()) {
+        if (inputCode == null || inputCode.isBlank()) {
             throw new SwiftCodeValidationException("SWIFT code cannot be null or empty");
         }
 
@@ -128,57 +372,68 @@ public class SwiftCodeService {
         String baseSwiftCode = swiftCode.substring(0, 8);
 
         // nothing to delete if the swift code does not exist
-        if (!swiftCodeRepository.existsById(swiftCode)) {
-            throw new ResourceNotFoundException(
-                    String.format("SWIFT code %s not found", swiftCode));
-        }
+        SwiftCode existingCode = swiftCodeRepository.findById(swiftCode)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("SWIFT code %s not found", swiftCode)));
+        SwiftCodeView deletedView = SwiftCodeView.from(existingCode);
 
         // count the number of swift codes
-        long count = swiftCodeRepository.countBySwiftCodeStartingWith(baseSwiftCode);
+        long count = swiftCodeRepository.countByBaseCode(baseSwiftCode);
 
         // at least one swift code must exist
         if (count == 1) {
             // delete the entry from bank table as well
             swiftCodeRepository.deleteById(swiftCode);
             bankService.deleteBank(baseSwiftCode);
-            return "SWIFT code deleted successfully";
         } else {
             // just delete the entry from swift codes table
             swiftCodeRepository.deleteById(swiftCode);
-            return "SWIFT code deleted successfully";
         }
+
+        eventPublisher.publishEvent(SwiftCodeChangedEvent.deleted(deletedView));
+        return "SWIFT code deleted successfully";
     }
 
-    private String getDefaultSwiftCode(String inputSwiftCode) {
-        // swift code length must be 8 or 11
-        if (inputSwiftCode.length() != 8 && inputSwiftCode.length() != 11) {
-            throw new SwiftCodeValidationException("Invalid SWIFT code length");
+    // shared with ReactiveSwiftCodeService
+    static String normalizeCountryCode(String countryISO2) {
+        if (countryISO2 == null || countryISO2.isBlank()) {
+            throw new SwiftCodeValidationException("Country ISO2 code cannot be null or empty");
+        }
+
+        if (!Bic.isValidCountryCode(countryISO2)) {
+            throw new SwiftCodeValidationException("Invalid country code format. Must be exactly 2 letters.");
         }
 
-        // assume headquarter if length is 8 and format to uppercase
-        return (inputSwiftCode.length() == 8 ? (inputSwiftCode + "XXX") : inputSwiftCode).toUpperCase();
+        return Bic.toUpperCase(countryISO2);
+    }
+
+    // shared with SwiftCodeBulkService so single and bulk writes follow the same rules
+    static String getDefaultSwiftCode(String inputSwiftCode) {
+        // length 8 or 11, assume headquarter if length is 8 and format to uppercase
+        return Bic.normalize(inputSwiftCode);
     }
 
-    private void validateSwiftCodeRequest(SwiftCodeRequest request) {
+    static void validateSwiftCodeRequest(SwiftCodeRequest request) {
         if (request == null) {
             throw new SwiftCodeValidationException("Request body cannot be null");
         }
-        if (request.swiftCode() == null || !request.swiftCode().matches("^[A-Za-z]{6}[A-Za-z0-9]{2}([A-Za-z0-9]{3})?$")) {
+        if (!Bic.isValid(request.swiftCode())) {
             throw new SwiftCodeValidationException("Invalid SWIFT code format");
         }
         if (request.bankName() == null || request.bankName().trim().isEmpty()) {
             throw new SwiftCodeValidationException("Bank name is required");
         }
-        if (request.countryISO2() == null || !request.countryISO2().matches("^[A-Za-z]{2}$")) {
+        if (!Bic.isValidCountryCode(request.countryISO2())) {
             throw new SwiftCodeValidationException("Invalid country ISO2 code format");
         }
         if (request.countryName() == null || request.countryName().trim().isEmpty()) {
             throw new SwiftCodeValidationException("Country name is required");
         }
-        
-        boolean hasXXXSuffix = request.swiftCode().endsWith("XXX");
+
+        // an 8-character code is the headquarters, like ABCDEFGHXXX
+        boolean hasXXXSuffix = Bic.isHeadquarter(Bic.toCanonical(request.swiftCode()));
         if (hasXXXSuffix != request.isHeadquarter()) {
-            throw new SwiftCodeValidationException("Inconsistent headquarters flag: SWIFT codes ending with 'XXX' must be marked as headquarters and vice versa");
+            throw new SwiftCodeValidationException("Inconsistent headquarters flag: SWIFT codes ending with 'XXX' or of 8 characters must be marked as headquarters and vice versa");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,491 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.event.SwiftCodesImportedEvent;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Binary snapshot of the swift_codes table in a file that is memory-mapped to answer lookups by binary
+// search, without the database and with next to no heap. Layout:
+//   header   magic, version, record count, rows left out, string pool offset, dataset version
+//   records  fixed-width, sorted by BicKey: key, bank name, address and country name as 48-bit string
+//            pool offsets, ISO2 country code, headquarters flag
+//   pool     length-prefixed UTF-8 strings, bank and country names stored once
+// The snapshot is written after every import and on shutdown when the data changed since, and mapped
+// at startup when it was written at the current dataset version (see DatasetVersionStore). Banks
+// changed after the snapshot was written are read from the database, and the file is deleted on the
+// first change so that a crash never leaves a stale snapshot behind. Codes that are not stored as an
+// upper-case BIC11 are left out and read from the database. The file is mapped as one MemorySegment
+// of a shared Arena, so its size is not limited to 2 GB, and a replaced mapping is unmapped by closing
+// the arena rather than whenever the garbage collector gets to it.
+@Component
+public class SwiftCodeSnapshot implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeSnapshot.class);
+
+    private static final long MAGIC = 0x5357494654534E50L; // "SWIFTSNP"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 40;
+    private static final int RECORD_SIZE = 32;
+    // string pool offsets take 6 bytes, the highest one marks a missing string
+    private static final long NO_STRING = (1L << 48) - 1;
+    private static final byte HEADQUARTER = 1;
+    private static final byte[] RECORD_PADDING = new byte[3];
+    // the file is written with a DataOutputStream, big-endian and without alignment
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final DatasetVersionStore datasetVersionStore;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path path;
+
+    private volatile Mapped current;
+    // true while the file on disk holds the same data as the database
+    private volatile boolean fileCurrent;
+
+    // base keys of banks changed since the mapped snapshot was written, served from the database;
+    // changes committed while a snapshot is being written are collected for the new one
+    private final Object writeLock = new Object();
+    private volatile Set<Long> changedBanks = ConcurrentHashMap.newKeySet();
+    private Set<Long> changesDuringWrite;
+
+    public SwiftCodeSnapshot(SwiftCodeRepository swiftCodeRepository,
+                             DatasetVersionStore datasetVersionStore,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${swift-codes.snapshot.path:}") String path) {
+        this.swiftCodeRepository = swiftCodeRepository;
+        this.datasetVersionStore = datasetVersionStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.path = path.isBlank() ? null : Path.of(path);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public boolean isLoaded() {
+        return current != null;
+    }
+
+    public Optional<SwiftCodeView> lookup(String swiftCode) {
+        Mapped mapped = current;
+        long key = BicKey.of(swiftCode);
+        if (mapped == null || key == BicKey.NONE || changedBanks.contains(BicKey.base(key))) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(mapped.find(key));
+    }
+
+    // all codes sharing the given base code, ordered by swift code
+    public List<SwiftCodeView> findByBaseCode(String baseCode) {
+        Mapped mapped = current;
+        long baseKey = BicKey.ofBase(baseCode);
+        if (mapped == null || baseKey == BicKey.NONE || changedBanks.contains(baseKey)) {
+            return List.of();
+        }
+        return mapped.findByBaseKey(baseKey);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isEnabled() || !Files.exists(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Mapped mapped = Mapped.open(path);
+            datasetVersionStore.initialize();
+            long datasetVersion = datasetVersionStore.currentVersion();
+            if (mapped.datasetVersion != datasetVersion) {
+                logger.warn("Ignoring SWIFT code snapshot {}: it was written at dataset version {}, the database is at {}",
+                        path, mapped.datasetVersion, datasetVersion);
+                mapped.close();
+                return;
+            }
+            current = mapped;
+            fileCurrent = true;
+            logger.info("Mapped SWIFT code snapshot {} with {} codes in {} ms",
+                    path, mapped.count, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.warn("Could not map SWIFT code snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    // writes the current content of the database to the snapshot file and maps it
+    public synchronized void write() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            changesDuringWrite = ConcurrentHashMap.newKeySet();
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path records = Files.createTempFile(directory, "swift-codes", ".records");
+            Path pool = Files.createTempFile(directory, "swift-codes", ".pool");
+            Path snapshot = Files.createTempFile(directory, "swift-codes", ".snapshot");
+            try {
+                long[] counts = readOnlyTransaction.execute(status -> writeSections(records, pool));
+                assemble(snapshot, records, pool, counts[0], counts[1], counts[2]);
+                Files.move(snapshot, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                Files.deleteIfExists(records);
+                Files.deleteIfExists(pool);
+                Files.deleteIfExists(snapshot);
+            }
+
+            Mapped mapped = Mapped.open(path);
+            Mapped replaced;
+            synchronized (writeLock) {
+                replaced = current;
+                current = mapped;
+                changedBanks = changesDuringWrite;
+                fileCurrent = changedBanks.isEmpty();
+            }
+            if (replaced != null) {
+                replaced.close();
+            }
+            logger.info("SWIFT code snapshot {} written with {} codes in {} ms",
+                    path, mapped.count, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            synchronized (writeLock) {
+                changesDuringWrite = null;
+            }
+        }
+    }
+
+    @EventListener
+    public void onSwiftCodesImported(SwiftCodesImportedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        // the mapped snapshot no longer matches the database
+        Mapped replaced = current;
+        current = null;
+        fileCurrent = false;
+        if (replaced != null) {
+            replaced.close();
+        }
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write SWIFT code snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    // applied only once the write has been committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodeChanged(SwiftCodeChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        long baseKey = BicKey.ofBase(event.swiftCode().swiftCode());
+        synchronized (writeLock) {
+            changedBanks.add(baseKey);
+            if (changesDuringWrite != null) {
+                changesDuringWrite.add(baseKey);
+            }
+            if (fileCurrent) {
+                fileCurrent = false;
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Could not delete stale SWIFT code snapshot {}: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        if (isEnabled() && !fileCurrent) {
+            try {
+                write();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not write SWIFT code snapshot {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    // records and string pool go to separate files while the rows are read, returns {records, rows left
+    // out, dataset version}; the version is read first, so the rows hold every change up to it
+    private long[] writeSections(Path recordsFile, Path poolFile) {
+        long datasetVersion = datasetVersionStore.currentVersion();
+        try (Stream<SwiftCodeView> views = swiftCodeRepository.streamAllViews();
+             DataOutputStream records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+             DataOutputStream pool = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(poolFile), 1 << 16))) {
+            StringPool strings = new StringPool(pool);
+            long count = 0;
+            long skipped = 0;
+            long previousKey = -1;
+            for (SwiftCodeView view : (Iterable<SwiftCodeView>) views::iterator) {
+                long key = BicKey.of(view.swiftCode());
+                int countryKey = BicKey.ofCountry(view.countryISO2());
+                // an 8-character ABCDEFGH would take the key of ABCDEFGHXXX, out of code order
+                if (key == BicKey.NONE || countryKey < 0 || !isCanonical(view.swiftCode())) {
+                    skipped++;
+                    continue;
+                }
+                if (key <= previousKey) {
+                    throw new IllegalStateException("SWIFT codes are not returned in code order, " +
+                            view.swiftCode() + " after " + BicKey.toString(previousKey));
+                }
+                previousKey = key;
+
+                records.writeLong(key);
+                writeOffset(records, strings.shared(view.bankName()));
+                writeOffset(records, strings.unique(view.address()));
+                writeOffset(records, strings.shared(view.countryName()));
+                records.writeByte(view.countryISO2().charAt(0));
+                records.writeByte(view.countryISO2().charAt(1));
+                records.writeByte(view.isHeadquarter() ? HEADQUARTER : 0);
+                records.write(RECORD_PADDING);
+                count++;
+            }
+            return new long[]{count, skipped, datasetVersion};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isCanonical(String swiftCode) {
+        return swiftCode.length() == Bic.BIC11_LENGTH && Bic.toUpperCase(swiftCode).equals(swiftCode);
+    }
+
+    private static void writeOffset(DataOutputStream out, long offset) throws IOException {
+        out.writeInt((int) (offset >>> 16));
+        out.writeShort((int) offset);
+    }
+
+    private static void assemble(Path snapshot, Path records, Path pool,
+                                 long count, long skipped, long datasetVersion) throws IOException {
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot would hold more than " + Integer.MAX_VALUE + " codes");
+        }
+        long poolOffset = HEADER_SIZE + count * RECORD_SIZE;
+        try (FileChannel out = FileChannel.open(snapshot, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(MAGIC).putInt(VERSION).putInt((int) count).putLong(skipped).putLong(poolOffset)
+                    .putLong(datasetVersion).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            for (Path section : List.of(records, pool)) {
+                try (FileChannel in = FileChannel.open(section, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            out.force(true);
+        }
+    }
+
+    // strings are appended to the pool once per distinct value when shared, always when unique
+    private static final class StringPool {
+        private final DataOutputStream out;
+        private final Map<String, Long> offsets = new HashMap<>();
+        // DataOutputStream.size() stops counting at 2 GB
+        private long size;
+
+        StringPool(DataOutputStream out) {
+            this.out = out;
+        }
+
+        long shared(String value) throws IOException {
+            Long offset = offsets.get(value);
+            if (offset == null) {
+                offset = unique(value);
+                offsets.put(value, offset);
+            }
+            return offset;
+        }
+
+        long unique(String value) throws IOException {
+            if (value == null) {
+                return NO_STRING;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            long offset = size;
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            size += Integer.BYTES + bytes.length;
+            return offset;
+        }
+    }
+
+    // A mapped snapshot file, read without locks by any thread. close() closes the shared arena, which
+    // unmaps the segment; a read that runs into the closed segment fails with an IllegalStateException,
+    // taken as a miss that goes to the database.
+    private static final class Mapped {
+        private final Arena arena;
+        private final MemorySegment segment;
+        private int count;
+        private long poolOffset;
+        private long datasetVersion;
+
+        private Mapped(Arena arena, MemorySegment segment) {
+            this.arena = arena;
+            this.segment = segment;
+        }
+
+        static Mapped open(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE) {
+                    throw new IOException("Invalid snapshot size " + size);
+                }
+                Arena arena = Arena.ofShared();
+                try {
+                    Mapped mapped = new Mapped(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena));
+                    mapped.readHeader(size);
+                    return mapped;
+                } catch (IOException | RuntimeException e) {
+                    arena.close();
+                    throw e;
+                }
+            }
+        }
+
+        private void readHeader(long size) throws IOException {
+            if (segment.get(LONG, 0) != MAGIC || segment.get(INT, 8) != VERSION) {
+                throw new IOException("Not a SWIFT code snapshot of version " + VERSION);
+            }
+            count = segment.get(INT, 12);
+            poolOffset = segment.get(LONG, 24);
+            datasetVersion = segment.get(LONG, 32);
+            if (count < 0 || poolOffset != HEADER_SIZE + (long) count * RECORD_SIZE || poolOffset > size) {
+                throw new IOException("Corrupt snapshot header");
+            }
+        }
+
+        // the view of the code with the key, null when the snapshot does not hold it or is closed
+        SwiftCodeView find(long key) {
+            try {
+                int index = indexOf(key);
+                return index < 0 ? null : view(index);
+            } catch (IllegalStateException e) {
+                return null;
+            }
+        }
+
+        // keys of a bank are contiguous
+        List<SwiftCodeView> findByBaseKey(long baseKey) {
+            try {
+                int from = indexOf(BicKey.firstOfBase(baseKey));
+                from = from < 0 ? -from - 1 : from;
+                List<SwiftCodeView> views = new ArrayList<>();
+                for (int i = from; i < count && BicKey.base(key(i)) == baseKey; i++) {
+                    views.add(view(i));
+                }
+                return views;
+            } catch (IllegalStateException e) {
+                return List.of();
+            }
+        }
+
+        synchronized void close() {
+            while (arena.scope().isAlive()) {
+                try {
+                    arena.close();
+                } catch (IllegalStateException e) {
+                    // a read was inside an access of the segment, which takes nanoseconds; try again
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private long key(int index) {
+            return segment.get(LONG, HEADER_SIZE + (long) index * RECORD_SIZE);
+        }
+
+        // as in Arrays.binarySearch
+        private int indexOf(long key) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midKey = key(mid);
+                if (midKey < key) {
+                    low = mid + 1;
+                } else if (midKey > key) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private SwiftCodeView view(int index) {
+            long record = HEADER_SIZE + (long) index * RECORD_SIZE;
+            String countryISO2 = new String(new char[]{
+                    (char) segment.get(ValueLayout.JAVA_BYTE, record + 26),
+                    (char) segment.get(ValueLayout.JAVA_BYTE, record + 27)});
+            return new SwiftCodeView(
+                    BicKey.toString(segment.get(LONG, record)),
+                    string(offset(record + 14)),
+                    string(offset(record + 8)),
+                    countryISO2,
+                    string(offset(record + 20)),
+                    segment.get(ValueLayout.JAVA_BYTE, record + 28) == HEADQUARTER);
+        }
+
+        private long offset(long position) {
+            return (segment.get(INT, position) & 0xFFFFFFFFL) << 16 | (segment.get(SHORT, position + 4) & 0xFFFF);
+        }
+
+        private String string(long offset) {
+            if (offset == NO_STRING) {
+                return null;
+            }
+            long position = poolOffset + offset;
+            byte[] bytes = new byte[segment.get(INT, position)];
+            MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, position + Integer.BYTES, bytes, 0, bytes.length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
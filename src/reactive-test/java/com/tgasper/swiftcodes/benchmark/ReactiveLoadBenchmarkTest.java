@@ -0,0 +1,97 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.SwiftCodesApplication;
+import com.tgasper.swiftcodes.benchmark.LoadDriver.LoadResult;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.service.DeltaImportService;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Throughput and tail latency of the read endpoints with 1000 concurrent clients, on the servlet stack
+// (Tomcat, JDBC) and on the reactive profile (Netty, R2DBC): GET /v1/swift-codes/{swiftCode} and the
+// full country listing GET /v1/swift-codes/country/{countryISO2code}. The in-memory index and the
+// response cache are disabled so that both stacks read every response from the database. Each client
+// sends its next request as soon as the previous one is answered.
+// Run with: ./mvnw test -Pbenchmark,reactive -Dtest=ReactiveLoadBenchmarkTest; -Dbenchmark.clients,
+// -Dbenchmark.seconds and -Dbenchmark.rows change the load, and the spring.datasource.* and
+// spring.r2dbc.* system properties point both stacks at the same PostgreSQL instead of H2.
+@Tag("benchmark")
+class ReactiveLoadBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveLoadBenchmarkTest.class);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int WARMUP_SECONDS = 10;
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    // the database of src/test/resources/application.properties, seen through R2DBC
+    private static final String H2_R2DBC_URL = "r2dbc:h2:mem:///testdb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Test
+    void compareServletAndReactiveStacks() throws Exception {
+        Path directory = Files.createTempFile("swift-codes-load", ".csv");
+        try {
+            new SwiftDirectoryGenerator(42).write(directory, ROWS);
+            List<String> codePaths = LoadDriver.readColumn(directory, 1).stream()
+                    .map(Bic::toCanonical)
+                    .distinct()
+                    .toList();
+            List<String> countryPaths = LoadDriver.readColumn(directory, 0).stream()
+                    .distinct()
+                    .map(country -> "country/" + country)
+                    .toList();
+
+            LoadResult[] servlet = run(false, directory, codePaths, countryPaths);
+            LoadResult[] reactive = run(true, directory, codePaths, countryPaths);
+
+            logger.info("{} clients, {} s, code lookups:      servlet  {}", CLIENTS, SECONDS, servlet[0]);
+            logger.info("{} clients, {} s, code lookups:      reactive {}", CLIENTS, SECONDS, reactive[0]);
+            logger.info("{} clients, {} s, country listings:  servlet  {}", CLIENTS, SECONDS, servlet[1]);
+            logger.info("{} clients, {} s, country listings:  reactive {}", CLIENTS, SECONDS, reactive[1]);
+            // failed requests are part of the comparison (pool timeouts under overload), not a test failure
+            for (LoadResult result : List.of(servlet[0], servlet[1], reactive[0], reactive[1])) {
+                assertTrue(result.requestsPerSecond() > 0);
+            }
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private LoadResult[] run(boolean reactive, Path directory, List<String> codePaths, List<String> countryPaths)
+            throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SwiftCodesApplication.class)
+                .profiles(reactive ? new String[]{"test", "reactive"} : new String[]{"test"});
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server",
+                "--server.port=0",
+                "--swift-codes.index.enabled=false",
+                "--swift-codes.response-cache.enabled=false",
+                "--spring.r2dbc.url=" + System.getProperty("spring.r2dbc.url", H2_R2DBC_URL),
+                "--spring.r2dbc.username=" + System.getProperty("spring.r2dbc.username", "sa"),
+                "--spring.r2dbc.password=" + System.getProperty("spring.r2dbc.password", ""),
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.tgasper.swiftcodes.benchmark=INFO")) {
+            // the same file each time, so a database shared between runs is left unchanged
+            context.getBean(DeltaImportService.class).parseAndSave(directory.toString(), 1000);
+
+            String baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/v1/swift-codes/";
+            LoadDriver driver = new LoadDriver(CLIENTS);
+            driver.drive(baseUri, codePaths, WARMUP_SECONDS);
+            LoadResult codes = driver.drive(baseUri, codePaths, SECONDS);
+            driver.drive(baseUri, countryPaths, WARMUP_SECONDS);
+            LoadResult countries = driver.drive(baseUri, countryPaths, SECONDS);
+            return new LoadResult[]{codes, countries};
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.tgasper.swiftcodes.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.Matchers.*;
+
+// the reactive profile on H2: R2DBC reads over its own connections, so the test data has to be committed
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///testdb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.username=sa"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveSwiftCodeControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        clearDatabase();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO countries (iso2_code, name) VALUES ('PL', 'POLAND'), ('DE', 'GERMANY')");
+            jdbcTemplate.update("INSERT INTO banks (id, bank_name, swift_code) VALUES (1, 'PKO BANK POLSKI', 'BPKOPLPW')");
+            jdbcTemplate.update("INSERT INTO swift_codes (swift_code, base_code, address, is_headquarter, bank_id, country_iso2_code) VALUES " +
+                    "('BPKOPLPWXXX', 'BPKOPLPW', 'WARSZAWA, PULAWSKA 15', TRUE, 1, 'PL'), " +
+                    "('BPKOPLPWKRA', 'BPKOPLPW', 'KRAKOW, RYNEK 1', FALSE, 1, 'PL')");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearDatabase();
+    }
+
+    @Test
+    void shouldReturnHeadquarterWithBranches() {
+        webTestClient.get().uri("/v1/swift-codes/bpkoplpw")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.swiftCode").isEqualTo("BPKOPLPWXXX")
+                .jsonPath("$.bankName").isEqualTo("PKO BANK POLSKI")
+                .jsonPath("$.address").isEqualTo("WARSZAWA, PULAWSKA 15")
+                .jsonPath("$.countryISO2").isEqualTo("PL")
+                .jsonPath("$.countryName").isEqualTo("POLAND")
+                .jsonPath("$.isHeadquarter").isEqualTo(true)
+                .jsonPath("$.branches[*].swiftCode").value(contains("BPKOPLPWKRA"))
+                .jsonPath("$.branches[0].isHeadquarter").isEqualTo(false);
+    }
+
+    @Test
+    void shouldReturnBranchWithoutBranchesField() {
+        webTestClient.get().uri("/v1/swift-codes/BPKOPLPWKRA")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.swiftCode").isEqualTo("BPKOPLPWKRA")
+                .jsonPath("$.isHeadquarter").isEqualTo(false)
+                .jsonPath("$.branches").doesNotExist();
+    }
+
+    @Test
+    void shouldReturnErrorsOfTheServletEndpoint() {
+        webTestClient.get().uri("/v1/swift-codes/BPKOPLPWGDA")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Not Found")
+                .jsonPath("$.message").isEqualTo("SWIFT code BPKOPLPWGDA not found")
+                .jsonPath("$.path").isEqualTo("/v1/swift-codes/BPKOPLPWGDA");
+
+        webTestClient.get().uri("/v1/swift-codes/BPKO")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Error");
+    }
+
+    @Test
+    void shouldStreamAllCodesOfCountry() {
+        webTestClient.get().uri("/v1/swift-codes/country/pl")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.countryISO2").isEqualTo("PL")
+                .jsonPath("$.countryName").isEqualTo("POLAND")
+                .jsonPath("$.swiftCodes[*].swiftCode").value(contains("BPKOPLPWKRA", "BPKOPLPWXXX"))
+                .jsonPath("$.swiftCodes[1].isHeadquarter").isEqualTo(true)
+                .jsonPath("$.swiftCodes[1].bankName").isEqualTo("PKO BANK POLSKI")
+                .jsonPath("$.swiftCodes[1].branches").doesNotExist()
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void shouldStreamCountriesLargerThanOneBuffer() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 600; i++) {
+                jdbcTemplate.update("INSERT INTO swift_codes (swift_code, base_code, address, is_headquarter, bank_id, country_iso2_code) " +
+                        "VALUES (?, 'BPKOPLPW', 'WARSZAWA', FALSE, 1, 'PL')", String.format("BPKOPLPW%03d", i));
+            }
+        });
+
+        webTestClient.get().uri("/v1/swift-codes/country/PL")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.swiftCodes.length()").isEqualTo(602)
+                .jsonPath("$.swiftCodes[0].swiftCode").isEqualTo("BPKOPLPW000")
+                .jsonPath("$.swiftCodes[601].swiftCode").isEqualTo("BPKOPLPWXXX");
+    }
+
+    @Test
+    void shouldReturnNotFoundBeforeStreaming() {
+        webTestClient.get().uri("/v1/swift-codes/country/XY")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Country with ISO2 code XY not found");
+
+        webTestClient.get().uri("/v1/swift-codes/country/DE")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("No SWIFT codes found for country DE");
+
+        webTestClient.get().uri("/v1/swift-codes/country/P1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid country code format. Must be exactly 2 letters.");
+    }
+
+    private void clearDatabase() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            jdbcTemplate.execute("TRUNCATE TABLE swift_codes");
+            jdbcTemplate.execute("TRUNCATE TABLE banks");
+            jdbcTemplate.execute("TRUNCATE TABLE countries");
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.tgasper.swiftcodes.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.service.ReactiveSwiftCodeService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// read-only variant of SwiftCodeController for the reactive profile, same paths and JSON documents
+@RestController
+@RequestMapping("/v1/swift-codes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSwiftCodeController {
+    // rows serialized into one buffer, so a large country is not written one small chunk per row
+    private static final int ROWS_PER_BUFFER = 256;
+    private static final byte[] END_OF_DOCUMENT = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final ReactiveSwiftCodeService reactiveSwiftCodeService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveSwiftCodeController(ReactiveSwiftCodeService reactiveSwiftCodeService,
+                                       ObjectMapper objectMapper) {
+        this.reactiveSwiftCodeService = reactiveSwiftCodeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/{swiftCode}")
+    public Mono<SwiftCodeResponse> getSwiftCodeDetails(@PathVariable String swiftCode) {
+        return reactiveSwiftCodeService.getSwiftCodeDetails(swiftCode);
+    }
+
+    // same document as the country listing, written batch by batch while the rows arrive; errors come
+    // before the first row, so an unknown country is still a 404 and not a truncated document
+    @GetMapping(value = "/country/{countryISO2code}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> getSwiftCodesByCountry(@PathVariable String countryISO2code, ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return reactiveSwiftCodeService.getSwiftCodesByCountry(countryISO2code)
+                .buffer(ROWS_PER_BUFFER)
+                .index()
+                .map(batch -> bufferFactory.wrap(write(batch.getT2(), batch.getT1() == 0)))
+                .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(END_OF_DOCUMENT)));
+    }
+
+    private byte[] write(List<SwiftCodeView> views, boolean first) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(views.size() * 256);
+            if (first) {
+                SwiftCodeView country = views.get(0);
+                out.write("{\"countryISO2\":".getBytes(StandardCharsets.UTF_8));
+                out.write(objectMapper.writeValueAsBytes(country.countryISO2()));
+                out.write(",\"countryName\":".getBytes(StandardCharsets.UTF_8));
+                out.write(objectMapper.writeValueAsBytes(country.countryName()));
+                out.write(",\"swiftCodes\":[".getBytes(StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < views.size(); i++) {
+                if (!first || i > 0) {
+                    out.write(',');
+                }
+                out.write(objectMapper.writeValueAsBytes(new SwiftCodeResponse(views.get(i))));
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
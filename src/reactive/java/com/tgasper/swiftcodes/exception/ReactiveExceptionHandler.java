@@ -0,0 +1,45 @@
+package com.tgasper.swiftcodes.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// the error documents of GlobalExceptionHandler for the reactive read endpoints
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
+            ResourceNotFoundException ex, ServerHttpRequest request) {
+        return error(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(SwiftCodeValidationException.class)
+    public ResponseEntity<ErrorResponse> handleSwiftCodeValidationException(
+            SwiftCodeValidationException ex, ServerHttpRequest request) {
+        return error(HttpStatus.BAD_REQUEST, "Validation Error", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(
+            Exception ex, ServerHttpRequest request) {
+        // log the exception for debugging
+        logger.error("Unexpected error occurred:", ex);
+
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred", request);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message,
+                                                       ServerHttpRequest request) {
+        return new ResponseEntity<>(
+                new ErrorResponse(status.value(), error, message, request.getPath().value()),
+                status);
+    }
+}
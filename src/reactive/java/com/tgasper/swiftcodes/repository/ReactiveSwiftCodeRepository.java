@@ -0,0 +1,88 @@
+package com.tgasper.swiftcodes.repository;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads for the reactive profile, over a pool of R2DBC connections. The queries are those
+// of the SwiftCodeView projections in SwiftCodeRepository. The pool is kept here rather than exposed as
+// a ConnectionFactory bean, which would switch off the JDBC DataSource the rest of the application uses.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSwiftCodeRepository implements DisposableBean {
+    private static final String SELECT_VIEWS =
+            "SELECT s.swift_code, s.address, b.bank_name, c.iso2_code, c.name, s.is_headquarter " +
+            "FROM swift_codes s JOIN banks b ON b.id = s.bank_id JOIN countries c ON c.iso2_code = s.country_iso2_code ";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveSwiftCodeRepository(@Value("${spring.r2dbc.url}") String url,
+                                       @Value("${spring.r2dbc.username:}") String username,
+                                       @Value("${spring.r2dbc.password:}") String password,
+                                       @Value("${spring.r2dbc.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    public Mono<SwiftCodeView> findViewBySwiftCode(String swiftCode) {
+        return databaseClient.sql(SELECT_VIEWS + "WHERE s.swift_code = :swiftCode")
+                .bind("swiftCode", swiftCode)
+                .map(ReactiveSwiftCodeRepository::toView)
+                .one();
+    }
+
+    public Flux<SwiftCodeView> findViewsByBaseCode(String baseCode) {
+        return databaseClient.sql(SELECT_VIEWS + "WHERE s.base_code = :baseCode ORDER BY s.swift_code")
+                .bind("baseCode", baseCode)
+                .map(ReactiveSwiftCodeRepository::toView)
+                .all();
+    }
+
+    // rows are emitted as they arrive from the database, as fast as the subscriber requests them
+    public Flux<SwiftCodeView> findByCountryIso2Code(String countryIso2Code) {
+        return databaseClient.sql(SELECT_VIEWS + "WHERE s.country_iso2_code = :countryIso2Code ORDER BY s.swift_code")
+                .bind("countryIso2Code", countryIso2Code)
+                .map(ReactiveSwiftCodeRepository::toView)
+                .all();
+    }
+
+    public Mono<Boolean> existsCountry(String iso2Code) {
+        return databaseClient.sql("SELECT 1 FROM countries WHERE iso2_code = :iso2Code")
+                .bind("iso2Code", iso2Code)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static SwiftCodeView toView(Readable row) {
+        return new SwiftCodeView(
+                row.get("swift_code", String.class),
+                row.get("address", String.class),
+                row.get("bank_name", String.class),
+                row.get("iso2_code", String.class),
+                row.get("name", String.class),
+                Boolean.TRUE.equals(row.get("is_headquarter", Boolean.class)));
+    }
+}
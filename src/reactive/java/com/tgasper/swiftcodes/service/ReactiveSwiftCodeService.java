@@ -0,0 +1,68 @@
+package com.tgasper.swiftcodes.service;
+
+import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.exception.ResourceNotFoundException;
+import com.tgasper.swiftcodes.exception.SwiftCodeValidationException;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.repository.ReactiveSwiftCodeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// The read endpoints of SwiftCodeService for the reactive profile, with the same validation and errors,
+// answered from the database over R2DBC. The in-memory index and snapshot are not consulted: they
+// are kept current by writes through this instance, which the reactive profile does not serve.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSwiftCodeService {
+    private final ReactiveSwiftCodeRepository reactiveSwiftCodeRepository;
+
+    public ReactiveSwiftCodeService(ReactiveSwiftCodeRepository reactiveSwiftCodeRepository) {
+        this.reactiveSwiftCodeRepository = reactiveSwiftCodeRepository;
+    }
+
+    public Mono<SwiftCodeResponse> getSwiftCodeDetails(String inputCode) {
+        return Mono.defer(() -> {
+            // swift code cannot be null or empty
+            if (inputCode == null || inputCode.isBlank()) {
+                throw new SwiftCodeValidationException("SWIFT code cannot be null or empty");
+            }
+
+            String swiftCode = SwiftCodeService.getDefaultSwiftCode(inputCode);
+
+            // a headquarters comes back with all codes sharing its base code from a single query,
+            // a branch is a single row read by its primary key
+            if (!Bic.isHeadquarter(swiftCode)) {
+                return reactiveSwiftCodeRepository.findViewBySwiftCode(swiftCode)
+                        .map(SwiftCodeResponse::new)
+                        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(
+                                String.format("SWIFT code %s not found", swiftCode))));
+            }
+            return reactiveSwiftCodeRepository.findViewsByBaseCode(swiftCode.substring(0, 8))
+                    .collectList()
+                    .map(bankCodes -> {
+                        SwiftCodeView mainView = bankCodes.stream()
+                                .filter(code -> code.swiftCode().equals(swiftCode))
+                                .findFirst()
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                        String.format("SWIFT code %s not found", swiftCode)));
+                        return SwiftCodeService.toResponse(mainView, bankCodes);
+                    });
+        });
+    }
+
+    // the codes of a country in code order, emitted as the rows are read; an empty country ends in
+    // the same errors as SwiftCodeService.getSwiftCodesByCountry
+    public Flux<SwiftCodeView> getSwiftCodesByCountry(String countryISO2) {
+        return Flux.defer(() -> {
+            String upperCountryISO2 = SwiftCodeService.normalizeCountryCode(countryISO2);
+            return reactiveSwiftCodeRepository.findByCountryIso2Code(upperCountryISO2)
+                    .switchIfEmpty(reactiveSwiftCodeRepository.existsCountry(upperCountryISO2)
+                            .flatMapMany(exists -> Flux.error(new ResourceNotFoundException(exists
+                                    ? String.format("No SWIFT codes found for country %s", countryISO2)
+                                    : String.format("Country with ISO2 code %s not found", countryISO2)))));
+        });
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 @ActiveProfiles("test")
 public abstract class BaseTest {
-    
+    // for @SpringBootTest(properties = ...) of the tests that count statements
+    public static final String HIBERNATE_STATISTICS = "spring.jpa.properties.hibernate.generate_statistics=true";
+
     @Autowired
     protected EntityManager entityManager;
     
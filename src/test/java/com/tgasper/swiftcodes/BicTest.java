@@ -0,0 +1,113 @@
+package com.tgasper.swiftcodes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.tgasper.swiftcodes.exception.SwiftCodeValidationException;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.model.BicKey;
+
+class BicTest {
+
+    @Test
+    void shouldAcceptBic8AndBic11InAnyCase() {
+        assertTrue(Bic.isValid("BPKOPLPW"));
+        assertTrue(Bic.isValid("BPKOPLPWXXX"));
+        assertTrue(Bic.isValid("bpkoPLp1krA"));
+
+        assertFalse(Bic.isValid(null));
+        assertFalse(Bic.isValid("BPKOPLP"));
+        assertFalse(Bic.isValid("BPKOPLPWXX"));
+        assertFalse(Bic.isValid("BPK0PLPWXXX"));
+        assertFalse(Bic.isValid("BPKOPLPW-XX"));
+        assertFalse(Bic.isValid("BPKOPLPWÄXX"));
+    }
+
+    @Test
+    void shouldValidateCountryCodes() {
+        assertTrue(Bic.isValidCountryCode("PL"));
+        assertTrue(Bic.isValidCountryCode("pl"));
+
+        assertFalse(Bic.isValidCountryCode(null));
+        assertFalse(Bic.isValidCountryCode("P"));
+        assertFalse(Bic.isValidCountryCode("POL"));
+        assertFalse(Bic.isValidCountryCode("P1"));
+    }
+
+    @Test
+    void shouldNormalizeToUpperCaseBic11() {
+        assertEquals("BPKOPLPWXXX", Bic.normalize("bpkoplpw"));
+        assertEquals("BPKOPLPWKRA", Bic.normalize("BPKOplpwkra"));
+
+        // canonical codes are returned as they are
+        String canonical = "BPKOPLPWKRA";
+        assertSame(canonical, Bic.normalize(canonical));
+        assertSame(canonical, Bic.toUpperCase(canonical));
+    }
+
+    @Test
+    void shouldRejectInvalidCodesWhenNormalizing() {
+        SwiftCodeValidationException length = assertThrows(SwiftCodeValidationException.class, () ->
+                Bic.normalize("INVALID"));
+        assertEquals("Invalid SWIFT code length", length.getMessage());
+
+        SwiftCodeValidationException format = assertThrows(SwiftCodeValidationException.class, () ->
+                Bic.normalize("BPKO PLPW"));
+        assertEquals("Invalid SWIFT code length", format.getMessage());
+
+        format = assertThrows(SwiftCodeValidationException.class, () -> Bic.normalize("BPKO-LPW"));
+        assertEquals("Invalid SWIFT code format", format.getMessage());
+    }
+
+    @Test
+    void shouldCompleteBic8WithoutValidation() {
+        assertEquals("BPKOPLPWXXX", Bic.toCanonical("bpkoplpw"));
+        assertEquals("NOT A BIC", Bic.toCanonical("not a bic"));
+        assertTrue(Bic.isHeadquarter(Bic.toCanonical("BPKOPLPW")));
+    }
+
+    @Test
+    void shouldPackBicsIntoOrderedKeys() {
+        long key = BicKey.of("BPKOPLPWKRA");
+
+        assertEquals("BPKOPLPWKRA", BicKey.toString(key));
+        assertEquals(key, BicKey.of("bpkoplpwkra"));
+        assertEquals(BicKey.of("BPKOPLPWXXX"), BicKey.of("BPKOPLPW"));
+        assertEquals(BicKey.ofBase("BPKOPLPW"), BicKey.base(key));
+        assertEquals(BicKey.ofBase("BPKOPLPWKRA"), BicKey.base(key));
+        assertTrue(BicKey.of("BPKOPLPW0AA") < BicKey.of("BPKOPLPWAAA"));
+        assertTrue(BicKey.of("AAAAPLPWZZZ") < BicKey.of("AAABPLPW000"));
+
+        assertEquals(BicKey.NONE, BicKey.of("BPKOPLPW-RA"));
+        assertEquals(BicKey.NONE, BicKey.of("BPKOPLP"));
+        assertEquals(BicKey.NONE, BicKey.ofBase("BPK0PLPW"));
+    }
+
+    @Test
+    void shouldPackPrefixesIntoKeyRanges() {
+        long first = BicKey.firstOfPrefix("bpkoPL");
+        long end = first + BicKey.prefixSpan(6);
+
+        assertTrue(first <= BicKey.of("BPKOPL0000A") && BicKey.of("BPKOPLZZZZZ") < end);
+        assertTrue(BicKey.of("BPKOPK9ZZZZ") < first);
+        assertTrue(BicKey.of("BPKOPM00000") >= end);
+        assertEquals(BicKey.of("BPKOPLPWKRA"), BicKey.firstOfPrefix("BPKOPLPWKRA"));
+        assertEquals(1, BicKey.prefixSpan(11));
+        assertEquals(0, BicKey.firstOfPrefix("A"));
+
+        assertEquals(BicKey.NONE, BicKey.firstOfPrefix(""));
+        assertEquals(BicKey.NONE, BicKey.firstOfPrefix("BPK0"));
+        assertEquals(BicKey.NONE, BicKey.firstOfPrefix("BPKOPLPW-"));
+        assertEquals(BicKey.NONE, BicKey.firstOfPrefix("BPKOPLPWKRAA"));
+    }
+
+    @Test
+    void shouldPackCountryCodes() {
+        assertEquals(0, BicKey.ofCountry("AA"));
+        assertEquals(BicKey.COUNTRY_KEYS - 1, BicKey.ofCountry("zz"));
+        assertEquals(BicKey.ofCountry("PL"), BicKey.ofCountry("pl"));
+        assertEquals(-1, BicKey.ofCountry("P1"));
+        assertEquals(-1, BicKey.ofCountry("POL"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.tgasper.swiftcodes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tgasper.swiftcodes.service.LongObjectMap;
+
+class LongObjectMapTest {
+
+    @Test
+    void shouldPutGetAndRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertNull(map.put(1, "one"));
+        assertEquals("one", map.put(1, "uno"));
+        assertEquals("uno", map.get(1));
+        assertNull(map.get(2));
+        assertEquals("uno", map.computeIfAbsent(1, key -> "ignored"));
+        assertEquals("two", map.computeIfAbsent(2, key -> "two"));
+        assertEquals(2, map.size());
+
+        assertEquals("uno", map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(1, map.size());
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, "negative"));
+    }
+
+    @Test
+    void shouldMatchHashMapUnderRandomChurn() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // a small key range keeps removing and reinserting keys, filling the table with tombstones
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+}
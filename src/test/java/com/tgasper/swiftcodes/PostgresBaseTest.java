@@ -0,0 +1,55 @@
+package com.tgasper.swiftcodes;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// For the code that only runs on PostgreSQL (COPY, blue/green): one embedded server per test JVM,
+// shared by the test classes extending this one through a single application context. Nothing runs
+// in a test transaction, the imports commit on connections of their own.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        // no drop at shutdown, when the server may be stopping already
+        "spring.jpa.hibernate.ddl-auto=create",
+        "swift-codes.index.enabled=true"
+})
+public abstract class PostgresBaseTest {
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void setUp() {
+        // clear the database before each test, including the generations a blue/green import leaves
+        jdbcTemplate.execute("DROP TABLE IF EXISTS swift_codes_next, banks_next, countries_next, "
+                + "swift_codes_previous, banks_previous, countries_previous");
+        jdbcTemplate.execute("TRUNCATE TABLE swift_codes, banks, countries");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            // stopped by embedded-postgres itself when the JVM exits
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the embedded PostgreSQL server", e);
+        }
+    }
+}
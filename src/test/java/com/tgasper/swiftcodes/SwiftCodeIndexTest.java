@@ -0,0 +1,164 @@
+package com.tgasper.swiftcodes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+
+@ExtendWith(MockitoExtension.class)
+class SwiftCodeIndexTest {
+    @Mock
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Test
+    void shouldServeLookupsAfterRebuild() {
+        // arrange
+        SwiftCodeIndex index = new SwiftCodeIndex(swiftCodeRepository, true);
+        when(swiftCodeRepository.findAllViews()).thenReturn(List.of(
+            view("BPKOPLPWXXX", true),
+            view("BPKOPLPWKRA", false),
+            view("PKOPPLPWXXX", true)
+        ));
+
+        // act
+        index.rebuild();
+
+        // assert
+        assertTrue(index.isReady());
+        assertTrue(index.lookup("BPKOPLPWKRA").isPresent());
+        assertTrue(index.lookup("BPKOPLPWZZZ").isEmpty());
+        assertEquals(List.of("BPKOPLPWKRA", "BPKOPLPWXXX"),
+            index.findByBaseCode("BPKOPLPW").stream().map(SwiftCodeView::swiftCode).toList());
+
+        SwiftCodeIndex.IndexStats stats = index.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(3, stats.size());
+    }
+
+    @Test
+    void shouldApplyCommittedChanges() {
+        // arrange
+        SwiftCodeIndex index = new SwiftCodeIndex(swiftCodeRepository, true);
+        when(swiftCodeRepository.findAllViews()).thenReturn(List.of(view("BPKOPLPWXXX", true)));
+        index.rebuild();
+
+        // act
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(view("BPKOPLPWGDA", false)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.deleted(view("BPKOPLPWXXX", true)));
+
+        // assert
+        assertTrue(index.lookup("BPKOPLPWGDA").isPresent());
+        assertTrue(index.lookup("BPKOPLPWXXX").isEmpty());
+        assertEquals(1, index.findByBaseCode("BPKOPLPW").size());
+    }
+
+    @Test
+    void shouldSuggestCodesStartingWithThePrefixInCodeOrder() {
+        // arrange
+        SwiftCodeIndex index = new SwiftCodeIndex(swiftCodeRepository, true);
+        when(swiftCodeRepository.findAllViews()).thenReturn(List.of(
+            view("PKOPPLPWXXX", true),
+            view("BPKOPLPWXXX", true),
+            view("BPKOPLPWKRA", false),
+            view("BPKOPLPW1GD", false),
+            view("BREXPLPWXXX", true),
+            view("INVALID", false)
+        ));
+
+        // act
+        index.rebuild();
+
+        // assert
+        assertEquals(List.of("BPKOPLPW1GD", "BPKOPLPWKRA", "BPKOPLPWXXX", "BREXPLPWXXX"), suggest(index, "B", 10));
+        assertEquals(List.of("BPKOPLPW1GD", "BPKOPLPWKRA"), suggest(index, "bpko", 2));
+        assertEquals(List.of("BPKOPLPWKRA"), suggest(index, "BPKOPLPWK", 10));
+        assertEquals(List.of("BPKOPLPWXXX"), suggest(index, "BPKOPLPWXXX", 10));
+        assertEquals(List.of(), suggest(index, "BPKOPLPWXXY", 10));
+        assertEquals(List.of(), suggest(index, "C", 10));
+        assertEquals(List.of(), suggest(index, "1", 10));
+        assertEquals(5, index.getStats().size());
+    }
+
+    @Test
+    void shouldSuggestCommittedChanges() {
+        // arrange
+        SwiftCodeIndex index = new SwiftCodeIndex(swiftCodeRepository, true);
+        when(swiftCodeRepository.findAllViews()).thenReturn(List.of(
+            view("BPKOPLPWXXX", true),
+            view("BPKOPLPWKRA", false),
+            view("BREXPLPWXXX", true)
+        ));
+        index.rebuild();
+
+        // act
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(view("BPKOPLPWGDA", false)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.deleted(view("BPKOPLPWKRA", false)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(
+            new SwiftCodeView("BREXPLPWXXX", "WARSZAWA", "MBANK", "PL", "POLAND", true)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(view("AAAAPLPWXXX", true)));
+
+        // assert
+        assertEquals(List.of("BPKOPLPWGDA", "BPKOPLPWXXX", "BREXPLPWXXX"), suggest(index, "B", 10));
+        assertEquals("MBANK", index.suggest("BREX", 1).get(0).bankName());
+        assertEquals(List.of("AAAAPLPWXXX"), suggest(index, "A", 10));
+        assertEquals(4, index.getStats().size());
+    }
+
+    @Test
+    void shouldMergeManyChangesIntoTheSortedCodes() {
+        // arrange
+        SwiftCodeIndex index = new SwiftCodeIndex(swiftCodeRepository, true);
+        when(swiftCodeRepository.findAllViews()).thenReturn(List.of(view("BPKOPLPW1GD", false)));
+        index.rebuild();
+
+        // act: more changes than are kept beside the sorted codes
+        for (int i = 0; i < 5000; i++) {
+            String branch = String.format("%03d", i % 1000);
+            String code = "CITI" + (char) ('A' + i / 1000) + "A" + "33" + branch;
+            index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(view(code, false)));
+        }
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.deleted(view("CITIAA33000", false)));
+
+        // assert
+        assertEquals(List.of("CITIAA33001", "CITIAA33002"), suggest(index, "CITIAA", 2));
+        assertEquals(List.of("CITIEA33999"), suggest(index, "CITIEA33999", 10));
+        assertEquals(List.of("BPKOPLPW1GD"), suggest(index, "BPKOPLPW1", 10));
+        assertTrue(index.lookup("CITIBA33500").isPresent());
+        assertTrue(index.lookup("CITIAA33000").isEmpty());
+        assertEquals(1000, index.findByBaseCode("CITICA33").size());
+        assertEquals(1 + 4999, index.getStats().size());
+    }
+
+    @Test
+    void shouldStayEmptyWhenDisabled() {
+        SwiftCodeIndex index = new SwiftCodeIndex(swiftCodeRepository, false);
+
+        index.rebuild();
+
+        assertFalse(index.isReady());
+        assertTrue(index.lookup("BPKOPLPWXXX").isEmpty());
+        verifyNoInteractions(swiftCodeRepository);
+    }
+
+    private static List<String> suggest(SwiftCodeIndex index, String prefix, int limit) {
+        return index.suggest(prefix, limit).stream()
+            .map(SwiftCodeView::swiftCode)
+            .toList();
+    }
+
+    private SwiftCodeView view(String code, boolean isHq) {
+        return new SwiftCodeView(code, "WARSZAWA", "PKO BANK POLSKI", "PL", "POLAND", isHq);
+    }
+}
@@ -6,11 +6,14 @@ import com.tgasper.swiftcodes.model.SwiftCode;
 import com.tgasper.swiftcodes.repository.BankRepository;
 import com.tgasper.swiftcodes.repository.CountryRepository;
 import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.ImportMetrics;
 import com.tgasper.swiftcodes.service.SwiftCodeParserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
@@ -30,6 +33,8 @@ class SwiftCodeParserServiceTest {
     private BankRepository bankRepository;
     @Mock
     private CountryRepository countryRepository;
+    @Spy
+    private ImportMetrics importMetrics = new ImportMetrics(new SimpleMeterRegistry());
     @InjectMocks
     private SwiftCodeParserService swiftCodeParserService;
 
@@ -62,6 +67,8 @@ class SwiftCodeParserServiceTest {
                    list.stream().anyMatch(sc -> sc.getSwiftCode().equals("CITIUS33XXX")) &&
                    list.stream().anyMatch(sc -> sc.getSwiftCode().equals("CITIUS33LAX"));
         }));
+        // the swift-code phase ends with its inserts
+        verify(swiftCodeRepository).flush();
 
         Files.deleteIfExists(tempFile);
     }
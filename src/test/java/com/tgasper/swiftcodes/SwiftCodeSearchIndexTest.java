@@ -0,0 +1,126 @@
+package com.tgasper.swiftcodes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.SwiftCodeSearchIndex;
+
+@ExtendWith(MockitoExtension.class)
+class SwiftCodeSearchIndexTest {
+    @Mock
+    private SwiftCodeRepository swiftCodeRepository;
+
+    private SwiftCodeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SwiftCodeSearchIndex(swiftCodeRepository, true);
+        when(swiftCodeRepository.findAllViews()).thenReturn(List.of(
+            view("BPKOPLPWXXX", "PKO BANK POLSKI", "UL. PULAWSKA 15 WARSZAWA", "PL", true),
+            view("BPKOPLPWKRA", "PKO BANK POLSKI", "UL. WIELOPOLE 19 KRAKOW", "PL", false),
+            view("PKOPPLPWXXX", "BANK POLSKA KASA OPIEKI S.A.", "UL. GRZYBOWSKA 53/57 WARSZAWA", "PL", true),
+            view("WARSDEFFXXX", "WARSAW TRADE BANK AG", "KAISERSTRASSE 1 FRANKFURT", "DE", true),
+            view("DEUTDEFFXXX", "DEUTSCHE BANK AG", "TAUNUSANLAGE 12 FRANKFURT", "DE", true)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void shouldRankBankNameMatchesAboveAddressMatches() {
+        // act
+        List<String> codes = search("wars", null, 10);
+
+        // assert: the prefix of "WARSAW" in a bank name first, then the prefix of "WARSZAWA" in addresses
+        assertEquals(List.of("WARSDEFFXXX", "BPKOPLPWXXX", "PKOPPLPWXXX"), codes);
+    }
+
+    @Test
+    void shouldMatchEveryTokenAsWordOrPrefix() {
+        assertEquals(List.of("BPKOPLPWXXX", "BPKOPLPWKRA"), search("pko pol", null, 10));
+        assertEquals(List.of("BPKOPLPWKRA"), search("PKO krak", null, 10));
+        assertEquals(List.of(), search("pko frankfurt", null, 10));
+    }
+
+    @Test
+    void shouldMatchWordsBeforeTheLastOneExactlyWhenAWordIsEqual() {
+        // act
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(
+            view("PKOBPLPWXXX", "PKOB BANK", "UL. MARSZALKOWSKA 1 WARSZAWA", "PL", true)));
+
+        // assert: "PKO" is a prefix of "PKOB" only while it is being typed
+        assertEquals(List.of("BPKOPLPWXXX", "BPKOPLPWKRA"), search("pko bank", null, 10));
+        assertEquals(List.of("BPKOPLPWXXX", "BPKOPLPWKRA", "PKOBPLPWXXX"), search("bank pko", null, 10));
+        assertEquals(List.of("PKOBPLPWXXX"), search("pkob bank", null, 10));
+    }
+
+    @Test
+    void shouldTolerateOneTypoWhenNothingElseMatches() {
+        assertEquals(List.of("DEUTDEFFXXX"), search("deustche", null, 10));
+        assertEquals(List.of("DEUTDEFFXXX"), search("deutshe", null, 10));
+        assertEquals(List.of(), search("dxxtsche", null, 10));
+    }
+
+    @Test
+    void shouldFilterByCountryAndLimit() {
+        assertEquals(List.of("DEUTDEFFXXX", "WARSDEFFXXX"), search("bank", "DE", 10));
+        assertEquals(1, search("bank", null, 1).size());
+    }
+
+    @Test
+    void shouldFilterCodesAddedAfterTheBuildByCountry() {
+        // act
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(
+            view("COBADEFFXXX", "COMMERZBANK AG", "KAISERPLATZ FRANKFURT", "DE", true)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(
+            view("MBANPLPWXXX", "MBANK S.A.", "UL. PROSTA 18 WARSZAWA", "PL", true)));
+
+        // assert
+        assertEquals(List.of("COBADEFFXXX", "DEUTDEFFXXX", "WARSDEFFXXX"), search("frankfurt", "DE", 10));
+        assertEquals(List.of("BPKOPLPWXXX", "MBANPLPWXXX", "PKOPPLPWXXX"), search("warszawa", "PL", 10));
+    }
+
+    @Test
+    void shouldApplyCommittedChanges() {
+        // act
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(
+            view("INGBPLPWXXX", "ING BANK SLASKI", "UL. SOKOLSKA 34 KATOWICE", "PL", true)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.deleted(
+            view("DEUTDEFFXXX", "DEUTSCHE BANK AG", "TAUNUSANLAGE 12 FRANKFURT", "DE", true)));
+        index.onSwiftCodeChanged(SwiftCodeChangedEvent.added(
+            view("BPKOPLPWKRA", "PKO BANK POLSKI", "RYNEK GLOWNY 31 KRAKOW", "PL", false)));
+
+        // assert
+        assertEquals(List.of("INGBPLPWXXX"), search("slaski", null, 10));
+        assertEquals(List.of(), search("deutsche", null, 10));
+        assertEquals(List.of(), search("wielopole", null, 10));
+        assertEquals(List.of("BPKOPLPWKRA"), search("rynek", null, 10));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void shouldFoldCaseAndDiacritics() {
+        assertEquals(List.of("ZURICH", "BANK"), SwiftCodeSearchIndex.tokenize(" Zürich-Bank, bank "));
+        assertEquals(List.of(), SwiftCodeSearchIndex.tokenize("  ,.- "));
+    }
+
+    private List<String> search(String query, String country, int limit) {
+        return index.search(SwiftCodeSearchIndex.tokenize(query), country, limit).stream()
+            .map(SwiftCodeView::swiftCode)
+            .toList();
+    }
+
+    private static SwiftCodeView view(String code, String bankName, String address, String country, boolean isHeadquarter) {
+        return new SwiftCodeView(code, address, bankName, country, country, isHeadquarter);
+    }
+}
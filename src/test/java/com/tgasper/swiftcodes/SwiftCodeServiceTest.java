@@ -3,10 +3,13 @@ package com.tgasper.swiftcodes;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -14,9 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import com.tgasper.swiftcodes.dto.SwiftCodeLookupResponse;
 import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeSearchResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeSuggestResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeLookupRequest;
 import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
 import com.tgasper.swiftcodes.exception.ResourceNotFoundException;
 import com.tgasper.swiftcodes.exception.SwiftCodeValidationException;
 import com.tgasper.swiftcodes.model.Bank;
@@ -26,7 +37,10 @@ import com.tgasper.swiftcodes.repository.BankRepository;
 import com.tgasper.swiftcodes.repository.CountryRepository;
 import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
 import com.tgasper.swiftcodes.service.BankService;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import com.tgasper.swiftcodes.service.SwiftCodeSearchIndex;
 import com.tgasper.swiftcodes.service.SwiftCodeService;
+import com.tgasper.swiftcodes.service.SwiftCodeSnapshot;
 
 @ExtendWith(MockitoExtension.class)
 class SwiftCodeServiceTest {
@@ -38,6 +52,14 @@ class SwiftCodeServiceTest {
     private CountryRepository countryRepository;
     @Mock
     private BankService bankService;
+    @Mock
+    private SwiftCodeIndex swiftCodeIndex;
+    @Mock
+    private SwiftCodeSnapshot swiftCodeSnapshot;
+    @Mock
+    private SwiftCodeSearchIndex swiftCodeSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private SwiftCodeService swiftCodeService;
 
@@ -45,8 +67,8 @@ class SwiftCodeServiceTest {
     void shouldGetSwiftCodeDetails() {
         // arrange
         SwiftCode mainCode = createTestSwiftCode("CITIUS12XXX", true);
-        when(swiftCodeRepository.findById("CITIUS12XXX"))
-            .thenReturn(Optional.of(mainCode));
+        when(swiftCodeRepository.findViewsByBaseCode("CITIUS12"))
+            .thenReturn(List.of(SwiftCodeView.from(mainCode)));
 
         // act
         SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("CITIUS12XXX");
@@ -63,10 +85,8 @@ class SwiftCodeServiceTest {
         SwiftCode hq = createTestSwiftCode("CITIUS12XXX", true);
         SwiftCode branch = createTestSwiftCode("CITIUS12LAX", false);
         
-        when(swiftCodeRepository.findById("CITIUS12XXX"))
-            .thenReturn(Optional.of(hq));
-        when(swiftCodeRepository.findBySwiftCodeStartingWith("CITIUS12"))
-            .thenReturn(Arrays.asList(hq, branch));
+        when(swiftCodeRepository.findViewsByBaseCode("CITIUS12"))
+            .thenReturn(Arrays.asList(SwiftCodeView.from(branch), SwiftCodeView.from(hq)));
 
         // act
         SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("CITIUS12XXX");
@@ -79,8 +99,8 @@ class SwiftCodeServiceTest {
 
     @Test
     void shouldThrowExceptionForNonExistentSwiftCode() {
-        when(swiftCodeRepository.findById(anyString()))
-            .thenReturn(Optional.empty());
+        when(swiftCodeRepository.findViewsByBaseCode(anyString()))
+            .thenReturn(List.of());
 
         assertThrows(ResourceNotFoundException.class, () ->
             swiftCodeService.getSwiftCodeDetails("ABCDEF12XXX"));
@@ -92,6 +112,8 @@ class SwiftCodeServiceTest {
         SwiftCodeRequest request = createTestSwiftCodeRequest();
         when(countryRepository.findById("US"))
             .thenReturn(Optional.empty());
+        when(countryRepository.save(any(Country.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
         
         Bank mockBank = new Bank();
         mockBank.setBankName("CITIBANK NA");
@@ -105,6 +127,48 @@ class SwiftCodeServiceTest {
         // assert
         assertEquals("SWIFT code added successfully", result);
         verify(swiftCodeRepository).save(any(SwiftCode.class));
+        verify(eventPublisher).publishEvent(any(SwiftCodeChangedEvent.class));
+    }
+
+    @Test
+    void shouldServeHeadquarterFromIndexWithoutDatabase() {
+        // arrange
+        SwiftCodeView hq = new SwiftCodeView("CITIUS12XXX", "NEW YORK", "TEST BANK", "US", "UNITED STATES", true);
+        SwiftCodeView branch = new SwiftCodeView("CITIUS12LAX", "LOS ANGELES", "TEST BANK", "US", "UNITED STATES", false);
+        when(swiftCodeIndex.lookup("CITIUS12XXX")).thenReturn(Optional.of(hq));
+        when(swiftCodeIndex.findByBaseCode("CITIUS12")).thenReturn(List.of(branch, hq));
+
+        // act
+        SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("CITIUS12XXX");
+
+        // assert
+        assertEquals("CITIUS12XXX", response.getSwiftCode());
+        assertEquals(1, response.getBranches().size());
+        assertEquals("CITIUS12LAX", response.getBranches().get(0).getSwiftCode());
+        verifyNoInteractions(swiftCodeRepository);
+    }
+
+    @Test
+    void shouldLookUpOnlyIndexMissesInDatabase() {
+        // arrange
+        SwiftCodeView indexed = new SwiftCodeView("CITIUS12XXX", "NEW YORK", "TEST BANK", "US", "UNITED STATES", true);
+        SwiftCodeView stored = new SwiftCodeView("CITIUS12LAX", "LOS ANGELES", "TEST BANK", "US", "UNITED STATES", false);
+        when(swiftCodeIndex.lookup("CITIUS12XXX")).thenReturn(Optional.of(indexed));
+        when(swiftCodeIndex.lookup("CITIUS12LAX")).thenReturn(Optional.empty());
+        when(swiftCodeIndex.lookup("DEUTDEFFXXX")).thenReturn(Optional.empty());
+        when(swiftCodeRepository.findViewsBySwiftCodeIn(List.of("CITIUS12LAX", "DEUTDEFFXXX")))
+            .thenReturn(List.of(stored));
+
+        // act
+        SwiftCodeLookupResponse response = swiftCodeService.lookupSwiftCodes(
+            new SwiftCodeLookupRequest(List.of("CITIUS12", "CITIUS12LAX", "DEUTDEFFXXX")));
+
+        // assert
+        assertEquals(2, response.getFound().size());
+        assertEquals("CITIUS12XXX", response.getFound().get(0).getSwiftCode());
+        assertEquals("CITIUS12LAX", response.getFound().get(1).getSwiftCode());
+        assertEquals(List.of("DEUTDEFFXXX"), response.getNotFound());
+        assertTrue(response.getInvalid().isEmpty());
     }
 
     @Test
@@ -125,14 +189,103 @@ class SwiftCodeServiceTest {
     void shouldNotReturnBranchesPropertyForBranch() {
         // arrange
         SwiftCode mainCode = createTestSwiftCode("CITIUS12ABC", false);
-        when(swiftCodeRepository.findById("CITIUS12ABC"))
-                .thenReturn(Optional.of(mainCode));
+        when(swiftCodeRepository.findViewBySwiftCode("CITIUS12ABC"))
+                .thenReturn(Optional.of(SwiftCodeView.from(mainCode)));
 
         // act
         SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("CITIUS12ABC");
 
         // assert
         assertNull(response.getBranches());
+        // a branch does not load the other codes of its bank
+        verify(swiftCodeRepository, never()).findViewsByBaseCode(anyString());
+    }
+
+    @Test
+    void shouldSearchWithNormalizedTokensAndCountry() {
+        // arrange
+        SwiftCodeView view = SwiftCodeView.from(createTestSwiftCode("CITIUS12XXX", true));
+        when(swiftCodeSearchIndex.isEnabled()).thenReturn(true);
+        when(swiftCodeSearchIndex.search(List.of("CITI", "NEW"), "US", 20)).thenReturn(List.of(view));
+
+        // act
+        SwiftCodeSearchResponse response = swiftCodeService.searchSwiftCodes(" citi, new ", "us", null);
+
+        // assert
+        assertEquals("citi, new", response.getQuery());
+        assertEquals("US", response.getCountryISO2());
+        assertEquals(List.of("CITIUS12XXX"),
+            response.getSwiftCodes().stream().map(SwiftCodeResponse::getSwiftCode).toList());
+    }
+
+    @Test
+    void shouldNotSearchWhenSearchIsDisabled() {
+        assertThrows(ResourceNotFoundException.class, () ->
+            swiftCodeService.searchSwiftCodes("citi", null, null));
+    }
+
+    @Test
+    void shouldRejectInvalidSearch() {
+        when(swiftCodeSearchIndex.isEnabled()).thenReturn(true);
+
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.searchSwiftCodes(" -- ", null, null));
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.searchSwiftCodes("a b c d e f g h i", null, null));
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.searchSwiftCodes("citi", null, 101));
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.searchSwiftCodes("citi", "USA", null));
+    }
+
+    @Test
+    void shouldSuggestByUpperCasePrefix() {
+        // arrange
+        SwiftCodeView view = SwiftCodeView.from(createTestSwiftCode("CITIUS33XXX", true));
+        when(swiftCodeIndex.isReady()).thenReturn(true);
+        when(swiftCodeIndex.suggest("CITIUS", 10)).thenReturn(List.of(view));
+
+        // act
+        SwiftCodeSuggestResponse response = swiftCodeService.suggestSwiftCodes(" citius ", null);
+
+        // assert
+        assertEquals("CITIUS", response.getPrefix());
+        assertEquals("CITIUS33XXX", response.getSuggestions().get(0).getSwiftCode());
+        assertEquals("TEST BANK", response.getSuggestions().get(0).getBankName());
+        assertEquals("US", response.getSuggestions().get(0).getCountryISO2());
+    }
+
+    @Test
+    void shouldSuggestFromTheDatabaseWhenTheIndexIsNotBuilt() {
+        // arrange
+        SwiftCodeView view = SwiftCodeView.from(createTestSwiftCode("CITIUS33XXX", true));
+        when(swiftCodeRepository.findViewsInRange("CITIUS", "CITIUT", PageRequest.of(0, 10)))
+            .thenReturn(List.of(view));
+
+        // act
+        SwiftCodeSuggestResponse response = swiftCodeService.suggestSwiftCodes("citius", null);
+
+        // assert
+        assertEquals("CITIUS33XXX", response.getSuggestions().get(0).getSwiftCode());
+        swiftCodeService.suggestSwiftCodes("CITIUS39", 5);
+        verify(swiftCodeRepository).findViewsInRange("CITIUS39", "CITIUS3A", PageRequest.of(0, 5));
+        swiftCodeService.suggestSwiftCodes("CITZ", 5);
+        verify(swiftCodeRepository).findViewsInRange("CITZ", "CIU", PageRequest.of(0, 5));
+        swiftCodeService.suggestSwiftCodes("ZZ", 5);
+        verify(swiftCodeRepository).findViewsInRange("ZZ", "ZZZZZZZZZZZZ", PageRequest.of(0, 5));
+    }
+
+    @Test
+    void shouldRejectInvalidPrefix() {
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.suggestSwiftCodes(" ", null));
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.suggestSwiftCodes("CITIUS33XXXX", null));
+        SwiftCodeValidationException format = assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.suggestSwiftCodes("CIT1", null));
+        assertEquals("Invalid SWIFT code prefix format", format.getMessage());
+        assertThrows(SwiftCodeValidationException.class, () ->
+            swiftCodeService.suggestSwiftCodes("CITI", 51));
     }
 
     private SwiftCode createTestSwiftCode(String code, boolean isHq) {
@@ -0,0 +1,105 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.DeltaImportService;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Query plans of the branch queries on a generated directory of 1M codes: the equality on base_code
+// must be answered from idx_swift_code_base_code, not by scanning swift_codes. The plans and the time
+// per query are logged next to those of the LIKE 'BASECODE%' prefix match they replace. Run with:
+// ./mvnw test -Pbenchmark -Dtest=BaseCodeIndexBenchmarkTest, and the spring.datasource.* system
+// properties to run it against PostgreSQL
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BaseCodeIndexBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(BaseCodeIndexBenchmarkTest.class);
+    private static final long ROWS = Long.getLong("benchmark.rows", 1_000_000);
+    private static final int RUNS = 200;
+
+    private static final String BRANCHES = """
+            SELECT s.swift_code, s.address, b.bank_name, c.iso2_code, c.name, s.is_headquarter
+            FROM swift_codes s JOIN banks b ON b.id = s.bank_id JOIN countries c ON c.iso2_code = s.country_iso2_code
+            WHERE s.base_code = '%s' ORDER BY s.swift_code""";
+    private static final String COUNT = "SELECT count(*) FROM swift_codes WHERE base_code = '%s'";
+    private static final String PREFIX_BRANCHES = """
+            SELECT s.swift_code, s.address, b.bank_name, c.iso2_code, c.name, s.is_headquarter
+            FROM swift_codes s JOIN banks b ON b.id = s.bank_id JOIN countries c ON c.iso2_code = s.country_iso2_code
+            WHERE s.swift_code LIKE '%s%%' ORDER BY s.swift_code""";
+
+    @Autowired
+    private DeltaImportService deltaImportService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Path csvFile;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (csvFile != null) {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+
+    @Test
+    void branchQueriesShouldUseTheBaseCodeIndex() throws IOException {
+        csvFile = Files.createTempFile("swift-codes-base-code", ".csv");
+        new SwiftDirectoryGenerator(42).write(csvFile, ROWS);
+        deltaImportService.parseAndSave(csvFile.toString(), 1000);
+        boolean postgreSQL = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        if (postgreSQL) {
+            jdbcTemplate.execute("ANALYZE");
+        }
+
+        // the bank with the most branches, the worst case for a lookup
+        String baseCode = jdbcTemplate.queryForObject(
+                "SELECT base_code FROM swift_codes GROUP BY base_code ORDER BY count(*) DESC, base_code LIMIT 1",
+                String.class);
+        long branches = swiftCodeRepository.countByBaseCode(baseCode);
+
+        for (String query : new String[]{BRANCHES, COUNT, PREFIX_BRANCHES}) {
+            String sql = String.format(query, baseCode);
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+            logger.info("{} codes, {} in {}: {} us per query\n{}\n{}", swiftCodeRepository.count(), branches,
+                    baseCode, microsPerQuery(sql), sql, plan);
+            if (query != PREFIX_BRANCHES) {
+                String normalized = plan.toLowerCase(Locale.ROOT);
+                assertTrue(normalized.contains("idx_swift_code_base_code"), plan);
+                assertFalse(normalized.contains("seq scan on swift_codes"), plan);
+            }
+        }
+    }
+
+    private long microsPerQuery(String sql) {
+        for (int i = 0; i < RUNS; i++) {
+            jdbcTemplate.queryForList(sql);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            jdbcTemplate.queryForList(sql);
+        }
+        return (System.nanoTime() - start) / RUNS / 1000;
+    }
+}
@@ -0,0 +1,102 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.model.BicKey;
+import com.tgasper.swiftcodes.service.LongObjectMap;
+import com.tgasper.swiftcodes.service.SwiftCodeCsvRow;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Retained heap (JOL) of the String keyed structures against their BicKey/LongObjectMap replacements,
+// for a generated directory of 1M codes. All entries share one value, so the numbers are the cost of
+// the keys and the structures themselves. Run with: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+class BicKeyFootprintBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(BicKeyFootprintBenchmarkTest.class);
+    private static final long ROWS = Long.getLong("benchmark.rows", 1_000_000);
+
+    @Test
+    void packedKeysShouldTakeAFractionOfTheHeap() throws IOException {
+        List<String> swiftCodes = readSwiftCodes();
+        Object value = new Object();
+
+        // import cache: base code to bank, the String keys are created per row by SwiftCodeCsvRow
+        Map<String, Object> stringBankCache = new HashMap<>();
+        LongObjectMap<Object> packedBankCache = new LongObjectMap<>();
+        for (String swiftCode : swiftCodes) {
+            stringBankCache.put(swiftCode.substring(0, 8), value);
+            packedBankCache.put(BicKey.ofBase(swiftCode), value);
+        }
+        long stringCache = GraphLayout.parseInstance(stringBankCache).totalSize();
+        long packedCache = GraphLayout.parseInstance(packedBankCache).totalSize();
+
+        // index: the previous layout grouped codes in skip lists and was keyed by the swift code of the
+        // view, so the key strings belong to the views and are not counted
+        Map<String, Object> stringByCode = new ConcurrentHashMap<>();
+        Map<String, NavigableMap<String, Object>> stringByBaseCode = new ConcurrentHashMap<>();
+        LongObjectMap<Object> packedByCode = new LongObjectMap<>();
+        LongObjectMap<Object[]> packedByBaseCode = new LongObjectMap<>();
+        for (String swiftCode : swiftCodes) {
+            stringByCode.put(swiftCode, value);
+            stringByBaseCode.computeIfAbsent(swiftCode.substring(0, 8), k -> new ConcurrentSkipListMap<>())
+                    .put(swiftCode, value);
+            long key = BicKey.of(swiftCode);
+            Object[] group = packedByBaseCode.get(BicKey.base(key));
+            group = group == null ? new Object[1] : Arrays.copyOf(group, group.length + 1);
+            group[group.length - 1] = value;
+            packedByBaseCode.put(BicKey.base(key), group);
+            packedByCode.put(key, value);
+        }
+        String[] keyStrings = swiftCodes.toArray(String[]::new);
+        long stringIndex = GraphLayout.parseInstance(stringByCode, stringByBaseCode).totalSize()
+                - (GraphLayout.parseInstance((Object) keyStrings).totalSize() - GraphLayout.parseInstance((Object) new String[0]).totalSize()
+                - (long) keyStrings.length * 4);
+        long packedIndex = GraphLayout.parseInstance(packedByCode, packedByBaseCode).totalSize();
+
+        logger.info("{} codes, {} banks: import cache {} KB with String keys, {} KB packed ({}x); " +
+                        "index {} KB with String keys, {} KB packed ({}x)",
+                swiftCodes.size(), packedBankCache.size(),
+                stringCache / 1024, packedCache / 1024, String.format("%.1f", (double) stringCache / packedCache),
+                stringIndex / 1024, packedIndex / 1024, String.format("%.1f", (double) stringIndex / packedIndex));
+
+        assertTrue(stringCache > 3 * packedCache);
+        assertTrue(stringIndex > 3 * packedIndex);
+    }
+
+    private List<String> readSwiftCodes() throws IOException {
+        Path csvFile = Files.createTempFile("swift-codes-footprint", ".csv");
+        try {
+            new SwiftDirectoryGenerator(42).write(csvFile, ROWS);
+            List<String> swiftCodes = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(csvFile);
+                 CSVParser csvParser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+                for (CSVRecord record : csvParser) {
+                    swiftCodes.add(SwiftCodeCsvRow.from(record).swiftCode());
+                }
+            }
+            return swiftCodes;
+        } finally {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.service.SwiftCodeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Heap allocated per GET /v1/swift-codes/country/{countryISO2code} service call for a country with
+// 20000 codes, measured with the per-thread allocation counter of the JVM. Run with: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class CountryListingAllocationBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(CountryListingAllocationBenchmarkTest.class);
+    private static final String COUNTRY = "QQ";
+    private static final int CODES = 20_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Country country = new Country();
+            country.setIso2Code(COUNTRY);
+            country.setName("BENCHMARK COUNTRY");
+            countryRepository.save(country);
+
+            // 100 banks with 200 codes each
+            List<Object[]> rows = new ArrayList<>();
+            for (int b = 0; b < CODES / 200; b++) {
+                Bank bank = new Bank();
+                bank.setSwiftCode(bankCode(b));
+                bank.setBankName("BENCHMARK BANK " + b);
+                bankRepository.save(bank);
+                for (int c = 0; c < 200; c++) {
+                    rows.add(new Object[]{bank.getSwiftCode() + (c == 0 ? "XXX" : String.format("%03d", c)),
+                            "BENCHMARK STREET " + c + ", BENCHMARK CITY", c == 0, bank.getId(), COUNTRY});
+                }
+            }
+            bankRepository.flush();
+            jdbcTemplate.batchUpdate("INSERT INTO swift_codes (swift_code, address, is_headquarter, bank_id, country_iso2_code) " +
+                    "VALUES (?, ?, ?, ?, ?)", rows);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM swift_codes WHERE country_iso2_code = ?", COUNTRY);
+            jdbcTemplate.update("DELETE FROM banks WHERE swift_code LIKE 'QQ%'");
+            jdbcTemplate.update("DELETE FROM countries WHERE iso2_code = ?", COUNTRY);
+        });
+    }
+
+    @Test
+    void measureCountryListingAllocation() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            swiftCodeService.getSwiftCodesByCountry(COUNTRY);
+        }
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        CountrySwiftCodesResponse response = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            response = swiftCodeService.getSwiftCodesByCountry(COUNTRY);
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1_000 / ITERATIONS;
+        long allocatedPerCall = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+
+        logger.info("Country listing of {} codes: {} KB allocated and {} us per call",
+                response.getSwiftCodes().size(), allocatedPerCall / 1024, elapsedMicros);
+        assertEquals(CODES, response.getSwiftCodes().size());
+    }
+
+    // four letter bank code QQ followed by two letters, so the base code is QQxxQQ + location AA
+    private static String bankCode(int bank) {
+        return "QQ" + (char) ('A' + bank / 26) + (char) ('A' + bank % 26) + COUNTRY + "AA";
+    }
+}
@@ -0,0 +1,82 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.SwiftCodeParserService;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Times the standard import of a generated directory of 100k rows. Excluded from the default build,
+// run with: ./mvnw test -Pbenchmark (add -Dbenchmark.rows=... for another size and
+// -Dspring.datasource.url=... to run against PostgreSQL)
+@Tag("benchmark")
+// the test application.properties shadows the main one, so the batching settings are repeated here
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class ImportBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ImportBenchmarkTest.class);
+    private static final long ROWS = Long.getLong("benchmark.rows", 100_000);
+
+    @Autowired
+    private SwiftCodeParserService swiftCodeParserService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Path csvFile;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (csvFile != null) {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+
+    @Test
+    void importScaledCsv() throws IOException {
+        long codesBefore = swiftCodeRepository.count();
+        long banksBefore = bankRepository.count();
+        csvFile = Files.createTempFile("swift-codes-benchmark", ".csv");
+        long rows = new SwiftDirectoryGenerator(42).write(csvFile, ROWS).rows();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ImportResult result = swiftCodeParserService.parseAndSave(csvFile.toString());
+
+        logger.info("Imported {} rows in {} ms ({} rows/s): {} entity inserts, {} JDBC statements prepared",
+                result.rows(), result.elapsedMillis(), Math.round(result.rowsPerSecond()),
+                statistics.getEntityInsertCount(), statistics.getPrepareStatementCount());
+
+        assertEquals(rows, result.rows());
+        assertEquals(codesBefore + rows, swiftCodeRepository.count());
+        assertTrue(bankRepository.count() > banksBefore);
+    }
+}
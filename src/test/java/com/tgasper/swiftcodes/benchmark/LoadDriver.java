@@ -0,0 +1,110 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Closed-loop HTTP load of the load benchmarks: every client has one request in flight at a time and
+// sends the next as soon as the previous one is answered. Clients walk the paths from their own offset,
+// answers other than 200 and failed requests are counted as errors.
+final class LoadDriver {
+    private final int clients;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    LoadDriver(int clients) {
+        this.clients = clients;
+    }
+
+    LoadResult drive(String baseUri, List<String> paths, int seconds) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            running.add(next(baseUri, paths, i, deadline, recorder, errors));
+        }
+        long start = System.nanoTime();
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] latencies = recorders.stream()
+                .flatMapToLong(recorder -> Arrays.stream(recorder.latencies, 0, recorder.count))
+                .sorted()
+                .toArray();
+        return new LoadResult(latencies.length * 1_000_000_000.0 / elapsedNanos,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000, errors.get());
+    }
+
+    // one column of a file written by SwiftDirectoryGenerator, in file order
+    static List<String> readColumn(Path directory, int column) throws IOException {
+        try (Stream<String> lines = Files.lines(directory)) {
+            // the generator writes no quoted fields before the code column
+            return lines.skip(1)
+                    .map(line -> line.split(",", 3)[column])
+                    .toList();
+        }
+    }
+
+    private CompletableFuture<Void> next(String baseUri, List<String> paths, int index,
+                                         long deadline, LatencyRecorder recorder, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + paths.get(index % paths.size())))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    recorder.record(System.nanoTime() - sent);
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> next(baseUri, paths, index + clients, deadline, recorder, errors));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)] / 1000;
+    }
+
+    // written by the callbacks of one client only, which never run concurrently
+    private static final class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int count;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    record LoadResult(double requestsPerSecond, long p50Micros, long p99Micros, long p999Micros,
+                      long maxMicros, long errors) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %d us, p99 %d us, p99.9 %d us, max %d us, %d errors",
+                    requestsPerSecond, p50Micros, p99Micros, p999Micros, maxMicros, errors);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.SwiftCodeCsvRow;
+import com.tgasper.swiftcodes.service.SwiftCodeSearchIndex;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Latency of SwiftCodeSearchIndex on a generated directory of 1M codes: a bank name, a bank name in a
+// town, the start of a bank name or a town within a country and a misspelled bank name have to be
+// answered in under a millisecond (median). The generator builds names from 16 syllables, so the bank
+// is one with a four syllable name, as rare as a real one. Only logged: a word shared by most codes
+// ("BANK") or thousands of them (a two syllable name), and a four letter prefix, which the syllables
+// extend to hundreds of different words.
+// Run with: ./mvnw test -Pbenchmark -Dtest=SearchIndexBenchmarkTest
+@Tag("benchmark")
+class SearchIndexBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexBenchmarkTest.class);
+    private static final long ROWS = Long.getLong("benchmark.rows", 1_000_000);
+    private static final int RUNS = 2_000;
+    private static final int LIMIT = 20;
+
+    @Test
+    void selectiveSearchesShouldTakeUnderAMillisecond() throws IOException {
+        List<SwiftCodeView> views = readViews();
+        SwiftCodeRepository repository = mock(SwiftCodeRepository.class);
+        when(repository.findAllViews()).thenReturn(views);
+        SwiftCodeSearchIndex index = new SwiftCodeSearchIndex(repository, true);
+        long start = System.nanoTime();
+        index.rebuild();
+        logger.info("Indexed {} codes in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        // a bank with branches, its name and the town of one of its branches
+        SwiftCodeView branch = views.stream()
+                .filter(view -> !view.isHeadquarter() && view.address().contains(", "))
+                .filter(view -> SwiftCodeSearchIndex.tokenize(view.bankName()).get(0).length() >= 8)
+                .findFirst().orElseThrow();
+        List<String> nameTokens = SwiftCodeSearchIndex.tokenize(branch.bankName());
+        String bankWord = nameTokens.get(0);
+        String town = branch.address().substring(0, branch.address().indexOf(", "));
+        String townWord = SwiftCodeSearchIndex.tokenize(town).get(SwiftCodeSearchIndex.tokenize(town).size() - 1);
+        String typo = bankWord.substring(0, 1) + bankWord.charAt(2) + bankWord.charAt(1) + bankWord.substring(3);
+
+        String[][] selective = {
+                {String.join(" ", nameTokens), null},
+                {bankWord + " " + townWord, null},
+                {bankWord.substring(0, 5), branch.countryISO2()},
+                {townWord, branch.countryISO2()},
+                {typo, null}
+        };
+        for (String[] query : selective) {
+            long median = medianMicros(index, query[0], query[1]);
+            assertTrue(median < 1000, query[0] + " took " + median + " us");
+        }
+        medianMicros(index, "BANK", null);
+        medianMicros(index, townWord.substring(0, 4), branch.countryISO2());
+        views.stream()
+                .map(view -> SwiftCodeSearchIndex.tokenize(view.bankName()).get(0))
+                .filter(word -> word.length() == 4)
+                .findFirst()
+                .ifPresent(word -> medianMicros(index, word + " BANK", null));
+    }
+
+    private long medianMicros(SwiftCodeSearchIndex index, String query, String country) {
+        List<String> tokens = SwiftCodeSearchIndex.tokenize(query);
+        int results = index.search(tokens, country, LIMIT).size();
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            index.search(tokens, country, LIMIT);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long median = nanos[RUNS / 2] / 1000;
+        logger.info("'{}' (country {}): {} results, median {} us, p99 {} us",
+                query, country, results, median, nanos[RUNS * 99 / 100] / 1000);
+        return median;
+    }
+
+    private static List<SwiftCodeView> readViews() throws IOException {
+        Path csvFile = Files.createTempFile("swift-codes-search", ".csv");
+        try {
+            new SwiftDirectoryGenerator(42).write(csvFile, ROWS);
+            List<SwiftCodeView> views = new ArrayList<>((int) ROWS);
+            try (BufferedReader reader = Files.newBufferedReader(csvFile);
+                 CSVParser parser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+                for (CSVRecord record : parser) {
+                    SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+                    views.add(new SwiftCodeView(row.swiftCode(), row.address(), row.bankName(),
+                            row.iso2Code(), row.countryName(), row.isHeadquarter()));
+                }
+            }
+            return views;
+        } finally {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+}
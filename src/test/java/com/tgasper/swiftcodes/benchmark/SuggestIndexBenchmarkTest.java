@@ -0,0 +1,103 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.SwiftCodeCsvRow;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Latency of SwiftCodeIndex.suggest on a generated directory of 1M codes, for prefixes of every length
+// a user types on the way to a code, with a thousand committed changes waiting to be merged. Every
+// length has to be answered in under 50 us (median), thousands of keystrokes per second on one core.
+// Run with: ./mvnw test -Pbenchmark -Dtest=SuggestIndexBenchmarkTest
+@Tag("benchmark")
+class SuggestIndexBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndexBenchmarkTest.class);
+    private static final long ROWS = Long.getLong("benchmark.rows", 1_000_000);
+    private static final int CODES = 2_000;
+    private static final int LIMIT = 10;
+
+    @Test
+    void everyKeystrokeShouldTakeUnder50Microseconds() throws IOException {
+        List<SwiftCodeView> views = readViews();
+        SwiftCodeRepository repository = mock(SwiftCodeRepository.class);
+        when(repository.findAllViews()).thenReturn(views);
+        SwiftCodeIndex index = new SwiftCodeIndex(repository, true);
+        long start = System.nanoTime();
+        index.rebuild();
+        logger.info("Indexed {} codes in {} ms", index.getStats().size(), (System.nanoTime() - start) / 1_000_000);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000; i++) {
+            index.onSwiftCodeChanged(SwiftCodeChangedEvent.deleted(views.get(random.nextInt(views.size()))));
+        }
+        String[] codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = views.get(random.nextInt(views.size())).swiftCode();
+        }
+
+        // warm up
+        for (int length = 1; length <= 11; length++) {
+            measure(index, codes, length);
+        }
+        for (int length = 1; length <= 11; length++) {
+            long[] nanos = measure(index, codes, length);
+            Arrays.sort(nanos);
+            long median = nanos[CODES / 2] / 1000;
+            logger.info("{} characters: median {} us, p99 {} us, {} prefixes per second",
+                    length, median, nanos[CODES * 99 / 100] / 1000,
+                    CODES * 1_000_000_000L / Math.max(1, Arrays.stream(nanos).sum()));
+            assertTrue(median < 50, length + " characters took " + median + " us");
+        }
+    }
+
+    private static long[] measure(SwiftCodeIndex index, String[] codes, int length) {
+        long[] nanos = new long[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            String prefix = codes[i].substring(0, length);
+            long start = System.nanoTime();
+            index.suggest(prefix, LIMIT);
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private static List<SwiftCodeView> readViews() throws IOException {
+        Path csvFile = Files.createTempFile("swift-codes-suggest", ".csv");
+        try {
+            new SwiftDirectoryGenerator(42).write(csvFile, ROWS);
+            List<SwiftCodeView> views = new ArrayList<>((int) ROWS);
+            try (BufferedReader reader = Files.newBufferedReader(csvFile);
+                 CSVParser parser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+                for (CSVRecord record : parser) {
+                    SwiftCodeCsvRow row = SwiftCodeCsvRow.from(record);
+                    views.add(new SwiftCodeView(row.swiftCode(), row.address(), row.bankName(),
+                            row.iso2Code(), row.countryName(), row.isHeadquarter()));
+                }
+            }
+            return views;
+        } finally {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.tgasper.swiftcodes.benchmark;
+
+import com.tgasper.swiftcodes.SwiftCodesApplication;
+import com.tgasper.swiftcodes.benchmark.LoadDriver.LoadResult;
+import com.tgasper.swiftcodes.model.Bic;
+import com.tgasper.swiftcodes.service.DeltaImportService;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Throughput and tail latency of GET /v1/swift-codes/{swiftCode} with 1000 concurrent clients, on
+// Tomcat's platform-thread pool and on virtual threads (the virtual-threads profile). The in-memory
+// index is disabled so that every request blocks on JDBC. Each client sends its next request as soon
+// as the previous one is answered. Run with: ./mvnw test -Pbenchmark -Dtest=VirtualThreadLoadBenchmarkTest;
+// -Dbenchmark.clients, -Dbenchmark.seconds and -Dbenchmark.rows change the load,
+// and the spring.datasource.* system properties point it at PostgreSQL instead of H2.
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadBenchmarkTest.class);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int WARMUP_SECONDS = 10;
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        Path directory = Files.createTempFile("swift-codes-load", ".csv");
+        try {
+            new SwiftDirectoryGenerator(42).write(directory, ROWS);
+            List<String> swiftCodes = LoadDriver.readColumn(directory, 1).stream()
+                    .map(Bic::toCanonical)
+                    .distinct()
+                    .toList();
+
+            LoadResult platform = run(false, directory, swiftCodes);
+            logger.info("{} clients, {} s: platform {}", CLIENTS, SECONDS, platform);
+            LoadResult virtual = run(true, directory, swiftCodes);
+
+            logger.info("{} clients, {} s: virtual  {}", CLIENTS, SECONDS, virtual);
+            // failed requests are part of the comparison (pool timeouts under overload), not a test failure
+            assertTrue(platform.requestsPerSecond() > 0);
+            assertTrue(virtual.requestsPerSecond() > 0);
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private LoadResult run(boolean virtualThreads, Path directory, List<String> swiftCodes) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SwiftCodesApplication.class)
+                .profiles(virtualThreads ? new String[]{"test", "virtual-threads"} : new String[]{"test"});
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server",
+                "--server.port=0",
+                "--swift-codes.index.enabled=false",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.tgasper.swiftcodes.benchmark=INFO")) {
+            // the same file each time, so a database shared between runs is left unchanged
+            context.getBean(DeltaImportService.class).parseAndSave(directory.toString(), 1000);
+
+            String baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/v1/swift-codes/";
+            LoadDriver driver = new LoadDriver(CLIENTS);
+            driver.drive(baseUri, swiftCodes, WARMUP_SECONDS);
+            return driver.drive(baseUri, swiftCodes, SECONDS);
+        }
+    }
+}
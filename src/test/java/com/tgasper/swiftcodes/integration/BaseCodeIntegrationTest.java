@@ -0,0 +1,116 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.DeltaImportService;
+import com.tgasper.swiftcodes.service.SwiftCodeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class BaseCodeIntegrationTest extends BaseTest {
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private DeltaImportService deltaImportService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank pko = new Bank();
+        pko.setSwiftCode("BPKOPLPW");
+        pko.setBankName("PKO BANK POLSKI");
+        entityManager.persist(pko);
+
+        for (String code : List.of("BPKOPLPWXXX", "BPKOPLPWKRA", "BPKOPLPWGDA")) {
+            SwiftCode swiftCode = new SwiftCode();
+            swiftCode.setSwiftCode(code);
+            swiftCode.setBank(pko);
+            swiftCode.setCountry(poland);
+            swiftCode.setAddress("ADDRESS");
+            swiftCode.setHeadquarter(code.endsWith("XXX"));
+            entityManager.persist(swiftCode);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldStoreBaseCodeOfAddedCode() {
+        swiftCodeService.addSwiftCode(new SwiftCodeRequest(
+                "INGBPLPWXXX", "ING BANK SLASKI", "PL", "POLAND", "UL. SOKOLSKA 34", true));
+        entityManager.flush();
+
+        assertEquals("INGBPLPW", baseCodeOf("INGBPLPWXXX"));
+    }
+
+    @Test
+    void shouldStoreBaseCodeOfImportedCodes() throws IOException {
+        Path file = Files.createTempFile("base-code-swift-codes", ".csv");
+        Files.writeString(file, """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,ADDRESS,WARSZAWA,POLAND,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,ADDRESS,KRAKOW,POLAND,CET
+            DE,DEUTDEFF,BIC11,DEUTSCHE BANK,TAUNUSANLAGE 12,FRANKFURT,GERMANY,CET
+            """);
+        deltaImportService.parseAndSave(file.toString(), 1000);
+        Files.deleteIfExists(file);
+
+        assertEquals("DEUTDEFF", baseCodeOf("DEUTDEFFXXX"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM swift_codes WHERE base_code IS NULL OR base_code <> SUBSTRING(swift_code, 1, 8)",
+                Long.class));
+    }
+
+    @Test
+    void shouldFindBranchesByBaseCode() {
+        List<SwiftCodeView> bankCodes = swiftCodeRepository.findViewsByBaseCode("BPKOPLPW");
+
+        assertEquals(List.of("BPKOPLPWGDA", "BPKOPLPWKRA", "BPKOPLPWXXX"),
+                bankCodes.stream().map(SwiftCodeView::swiftCode).toList());
+        assertEquals(3, swiftCodeRepository.countByBaseCode("BPKOPLPW"));
+        assertEquals(0, swiftCodeRepository.countByBaseCode("BPKOPLP"));
+    }
+
+    @Test
+    void shouldAnswerBranchCountFromBaseCodeIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT count(*) FROM swift_codes WHERE base_code = 'BPKOPLPW'", String.class);
+
+        assertTrue(plan.contains("IDX_SWIFT_CODE_BASE_CODE"), plan);
+    }
+
+    private String baseCodeOf(String swiftCode) {
+        return jdbcTemplate.queryForObject(
+                "SELECT base_code FROM swift_codes WHERE swift_code = ?", String.class, swiftCode);
+    }
+}
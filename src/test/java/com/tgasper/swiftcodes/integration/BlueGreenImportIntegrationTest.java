@@ -0,0 +1,59 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.BlueGreenImportService;
+import com.tgasper.swiftcodes.service.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class BlueGreenImportIntegrationTest extends BaseTest {
+
+    @Autowired
+    private BlueGreenImportService blueGreenImportService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Override
+    protected void setupTestData() {
+        // every test starts from an empty database
+    }
+
+    @Test
+    void shouldFallBackToStandardImportOutsidePostgreSQL() throws IOException {
+        String csvContent = """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            US,CITIUS33XXX,BIC11,CITIBANK NA,399 PARK AVENUE,NEW YORK,UNITED STATES,EST
+            US,CITIUS33LAX,BIC11,CITIBANK NA,,LOS ANGELES,UNITED STATES,PST
+            """;
+        Path tempFile = Files.createTempFile("test-swift-codes", ".csv");
+        Files.writeString(tempFile, csvContent);
+
+        // the test database is H2, so the rows go through SwiftCodeParserService
+        ImportResult result = blueGreenImportService.parseAndSave(tempFile.toString());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2, result.rows());
+        assertEquals(2, swiftCodeRepository.count());
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void shouldRefuseRollbackOutsidePostgreSQL() {
+        IOException exception = assertThrows(IOException.class, () -> blueGreenImportService.rollback());
+        assertEquals("Blue/green rollback requires PostgreSQL", exception.getMessage());
+    }
+}
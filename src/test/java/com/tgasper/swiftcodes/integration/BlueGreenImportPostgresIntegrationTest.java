@@ -0,0 +1,159 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.PostgresBaseTest;
+import com.tgasper.swiftcodes.service.BlueGreenImportService;
+import com.tgasper.swiftcodes.service.DatasetVersion;
+import com.tgasper.swiftcodes.service.DatasetVersionStore;
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueGreenImportPostgresIntegrationTest extends PostgresBaseTest {
+    private static final List<String> TABLES = List.of("countries", "banks", "swift_codes");
+
+    private static final String FIRST_FILE = """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            US,CITIUS33XXX,BIC11,CITIBANK NA,399 PARK AVENUE,NEW YORK,UNITED STATES,EST
+            US,CITIUS33LAX,BIC11,CITIBANK NA,,LOS ANGELES,UNITED STATES,PST
+            """;
+
+    private static final String SECOND_FILE = """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            DE,DEUTDEFFXXX,BIC11,DEUTSCHE BANK AG,TAUNUSANLAGE 12,FRANKFURT,GERMANY,CET
+            """;
+
+    @Autowired
+    private BlueGreenImportService blueGreenImportService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private DatasetVersionStore datasetVersionStore;
+
+    @Autowired
+    private SwiftCodeIndex swiftCodeIndex;
+
+    @Test
+    void shouldSwitchGenerationsWithTheirKeysAndIndexes() throws IOException {
+        Map<String, List<String>> liveNames = keyAndIndexNames("");
+        long before = datasetVersion.countryVersion("US");
+
+        ImportResult result = importFile(FIRST_FILE);
+
+        assertEquals(2, result.rows());
+        assertEquals(List.of("CITIUS33LAX", "CITIUS33XXX"), codes("swift_codes"));
+        assertEquals(List.of(), codes("swift_codes_previous"));
+        assertFalse(tableExists("swift_codes_next"));
+
+        // the new generation carries the names of the replaced one, which is kept with the suffix
+        assertEquals(liveNames, keyAndIndexNames(""));
+        Map<String, List<String>> previousNames = keyAndIndexNames("_previous");
+        for (String table : TABLES) {
+            assertFalse(liveNames.get(table).isEmpty());
+            assertEquals(liveNames.get(table).stream().map(name -> name + "_previous").sorted().toList(),
+                    previousNames.get(table));
+        }
+        assertForeignKeysReferTo("swift_codes", "banks", "countries");
+        assertForeignKeysReferTo("swift_codes_previous", "banks_previous", "countries_previous");
+        assertEquals(List.of("CITIUS33LAX", "CITIUS33XXX"), jdbcTemplate.queryForList(
+                "SELECT s.swift_code FROM swift_codes s JOIN banks b ON b.id = s.bank_id " +
+                "WHERE b.swift_code = 'CITIUS33' ORDER BY 1", String.class));
+
+        // stamped for every instance on the database, rebuilt here
+        long version = datasetVersionStore.changesAfter(before).get(DatasetVersionStore.ALL);
+        assertEquals(version, datasetVersion.countryVersion("US"));
+        assertEquals("CITIBANK NA", swiftCodeIndex.lookup("CITIUS33LAX").orElseThrow().bankName());
+    }
+
+    @Test
+    void shouldRollBackToThePreviousGeneration() throws IOException {
+        Map<String, List<String>> liveNames = keyAndIndexNames("");
+        importFile(FIRST_FILE);
+        importFile(SECOND_FILE);
+        assertEquals(List.of("DEUTDEFFXXX"), codes("swift_codes"));
+        assertEquals(List.of("CITIUS33LAX", "CITIUS33XXX"), codes("swift_codes_previous"));
+        long before = datasetVersion.countryVersion("US");
+
+        blueGreenImportService.rollback();
+
+        assertEquals(List.of("CITIUS33LAX", "CITIUS33XXX"), codes("swift_codes"));
+        assertEquals(List.of("DEUTDEFFXXX"), codes("swift_codes_previous"));
+        assertEquals(liveNames, keyAndIndexNames(""));
+        assertForeignKeysReferTo("swift_codes", "banks", "countries");
+        assertForeignKeysReferTo("swift_codes_previous", "banks_previous", "countries_previous");
+
+        long version = datasetVersionStore.changesAfter(before).get(DatasetVersionStore.ALL);
+        assertEquals(version, datasetVersion.countryVersion("US"));
+        assertTrue(swiftCodeIndex.lookup("CITIUS33XXX").isPresent());
+        assertTrue(swiftCodeIndex.lookup("DEUTDEFFXXX").isEmpty());
+    }
+
+    @Test
+    void shouldKeepThePreviousGenerationWhenAReloadFails() throws IOException {
+        importFile(FIRST_FILE);
+        importFile(SECOND_FILE);
+
+        // a bank name longer than the column fails the load of the next generation
+        assertThrows(IOException.class, () -> importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            PL,PKOPPLPWXXX,BIC11,%s,UL. GRZYBOWSKA 53,WARSZAWA,POLAND,CET
+            """.formatted("BANK PEKAO ".repeat(30))));
+
+        assertEquals(List.of("DEUTDEFFXXX"), codes("swift_codes"));
+        assertEquals(List.of("CITIUS33LAX", "CITIUS33XXX"), codes("swift_codes_previous"));
+        blueGreenImportService.rollback();
+        assertEquals(List.of("CITIUS33LAX", "CITIUS33XXX"), codes("swift_codes"));
+    }
+
+    @Test
+    void shouldRefuseRollbackWithoutAPreviousGeneration() {
+        IOException exception = assertThrows(IOException.class, () -> blueGreenImportService.rollback());
+        assertEquals("No previous generation to roll back to", exception.getMessage());
+    }
+
+    private ImportResult importFile(String csvContent) throws IOException {
+        Path tempFile = Files.createTempFile("test-swift-codes", ".csv");
+        try {
+            Files.writeString(tempFile, csvContent);
+            return blueGreenImportService.parseAndSave(tempFile.toString());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private List<String> codes(String table) {
+        return jdbcTemplate.queryForList("SELECT swift_code FROM " + table + " ORDER BY swift_code", String.class);
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    // constraint and index names of each table of a generation
+    private Map<String, List<String>> keyAndIndexNames(String suffix) {
+        return TABLES.stream().collect(Collectors.toMap(table -> table, table ->
+                jdbcTemplate.queryForList("""
+                        SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass
+                        UNION
+                        SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND tablename = ?
+                        """, String.class, table + suffix, table + suffix).stream().sorted().toList()));
+    }
+
+    private void assertForeignKeysReferTo(String table, String... referenced) {
+        List<String> targets = jdbcTemplate.queryForList("""
+                SELECT confrelid::regclass::text FROM pg_constraint
+                WHERE conrelid = ?::regclass AND contype = 'f' ORDER BY 1""", String.class, table);
+        assertEquals(List.of(referenced), targets);
+    }
+}
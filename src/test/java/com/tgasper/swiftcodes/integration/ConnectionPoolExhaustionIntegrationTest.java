@@ -0,0 +1,76 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.exception.ErrorResponse;
+import com.tgasper.swiftcodes.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// a pool of one connection held by the test: lookups have to go to the database and cannot get a connection
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=250",
+        "swift-codes.index.enabled=false",
+        "swift-codes.response-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConnectionPoolExhaustionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    void shouldShedRequestsWithServiceUnavailable() throws Exception {
+        try (Connection ignored = dataSource.getConnection()) {
+            mockMvc.perform(get("/v1/swift-codes/BPKOPLPWXXX"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error", is("Service Unavailable")))
+                    .andExpect(jsonPath("$.message", is("No database connection available, retry later")))
+                    .andExpect(jsonPath("$.path", is("/v1/swift-codes/BPKOPLPWXXX")));
+
+            mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                    .andExpect(status().isServiceUnavailable());
+        }
+    }
+
+    @Test
+    void shouldNotShedOtherDatabaseFailures() {
+        // only a pool timeout is load to shed
+        DataAccessResourceFailureException failure =
+                new DataAccessResourceFailureException("Connection lost", new SQLException("I/O error", "08006"));
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleConnectionUnavailableException(
+                failure, new ServletWebRequest(new MockHttpServletRequest("GET", "/v1/swift-codes/BPKOPLPWXXX")));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
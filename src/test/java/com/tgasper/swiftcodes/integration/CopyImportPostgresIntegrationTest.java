@@ -0,0 +1,114 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.PostgresBaseTest;
+import com.tgasper.swiftcodes.service.CopyImportService;
+import com.tgasper.swiftcodes.service.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyImportPostgresIntegrationTest extends PostgresBaseTest {
+
+    @Autowired
+    private CopyImportService copyImportService;
+
+    @Test
+    void shouldCopyAndMergeLikeTheStandardImport() throws IOException {
+        ImportResult result = importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            us,CITIUS33,BIC8,CITIBANK NA,399 PARK AVENUE,NEW YORK,United States,EST
+            US,CITIUS33LAX,BIC11,CITIBANK N.A.,,LOS ANGELES,UNITED STATES,PST
+            US,CITIUS33LAX,BIC11,CITIBANK NA,"1 SOUTH GRAND \\ SUITE\t2",LOS ANGELES,UNITED STATES,PST
+            """);
+
+        assertEquals(3, result.rows());
+        // the first row of a country or bank names it, the last row of a code wins
+        assertEquals(List.of(Map.of("iso2_code", "US", "name", "UNITED STATES")),
+                jdbcTemplate.queryForList("SELECT iso2_code, name FROM countries"));
+        assertEquals(List.of("CITIBANK NA"), jdbcTemplate.queryForList("SELECT bank_name FROM banks", String.class));
+        assertEquals(List.of(
+                        Map.of("swift_code", "CITIUS33LAX", "base_code", "CITIUS33",
+                                "address", "1 SOUTH GRAND \\ SUITE\t2", "is_headquarter", false),
+                        Map.of("swift_code", "CITIUS33XXX", "base_code", "CITIUS33",
+                                "address", "399 PARK AVENUE", "is_headquarter", true)),
+                jdbcTemplate.queryForList("SELECT swift_code, base_code, address, is_headquarter " +
+                        "FROM swift_codes ORDER BY swift_code"));
+        // the staging table goes away with the transaction
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('swift_codes_staging')", String.class));
+    }
+
+    @Test
+    void shouldSkipRowsWithoutAValidSwiftOrCountryCode() throws IOException {
+        ImportResult result = importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,BPKOPL,BIC11,PKO BANK POLSKI,,WARSZAWA,POLAND,CET
+            POL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,UL. WIELOPOLE 19,KRAKOW,POLAND,CET
+            PL,BPKOPLPWKRAKOW,BIC11,PKO BANK POLSKI,UL. WIELOPOLE 19,KRAKOW,POLAND,CET
+            PL,BPKO-LPWGDA,BIC11,PKO BANK POLSKI,UL. DLUGA 1,GDANSK,POLAND,CET
+            """);
+
+        assertEquals(1, result.rows());
+        assertEquals(4, result.skippedRows());
+        assertEquals(List.of("BPKOPLPWXXX"), jdbcTemplate.queryForList("SELECT swift_code FROM swift_codes", String.class));
+    }
+
+    @Test
+    void shouldKeepCountriesAndBanksAndUpdateCodesOnReimport() throws IOException {
+        importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            DE,DEUTDEFFXXX,BIC11,DEUTSCHE BANK AG,TAUNUSANLAGE 12,FRANKFURT,GERMANY,CET
+            """);
+        long bankId = jdbcTemplate.queryForObject("SELECT id FROM banks WHERE swift_code = 'DEUTDEFF'", Long.class);
+
+        importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            DE,DEUTDEFFXXX,BIC11,DEUTSCHE BANK,TAUNUSANLAGE 14,FRANKFURT,DEUTSCHLAND,CET
+            DE,DEUTDEFF500,BIC11,DEUTSCHE BANK,,BERLIN,DEUTSCHLAND,CET
+            """);
+
+        assertEquals("GERMANY", jdbcTemplate.queryForObject("SELECT name FROM countries", String.class));
+        assertEquals(List.of(Map.of("id", bankId, "bank_name", "DEUTSCHE BANK AG")),
+                jdbcTemplate.queryForList("SELECT id, bank_name FROM banks"));
+        assertEquals(List.of("BERLIN, DEUTSCHLAND", "TAUNUSANLAGE 14"),
+                jdbcTemplate.queryForList("SELECT address FROM swift_codes ORDER BY swift_code", String.class));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM swift_codes WHERE bank_id = ?", Long.class, bankId));
+    }
+
+    @Test
+    void shouldLeaveTheTablesUntouchedWhenTheFileFails() throws IOException {
+        importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            DE,DEUTDEFFXXX,BIC11,DEUTSCHE BANK AG,TAUNUSANLAGE 12,FRANKFURT,GERMANY,CET
+            """);
+
+        // a bank name longer than the column fails the COPY, as it fails the standard import
+        assertThrows(IOException.class, () -> importFile("""
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,PKOPPLPWXXX,BIC11,%s,UL. GRZYBOWSKA 53,WARSZAWA,POLAND,CET
+            """.formatted("BANK PEKAO ".repeat(30))));
+
+        assertEquals(List.of("DEUTDEFFXXX"),
+                jdbcTemplate.queryForList("SELECT swift_code FROM swift_codes", String.class));
+        assertEquals(List.of("DE"), jdbcTemplate.queryForList("SELECT iso2_code FROM countries", String.class));
+    }
+
+    private ImportResult importFile(String csvContent) throws IOException {
+        Path tempFile = Files.createTempFile("test-swift-codes", ".csv");
+        try {
+            Files.writeString(tempFile, csvContent);
+            return copyImportService.parseAndSave(tempFile.toString());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.event.SwiftCodesImportedEvent;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.service.CountryResponseCache;
+import com.tgasper.swiftcodes.service.DatasetVersion;
+import com.tgasper.swiftcodes.service.DatasetVersionStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"swift-codes.response-cache.enabled=true", BaseTest.HIBERNATE_STATISTICS})
+@AutoConfigureMockMvc
+@Transactional
+class CountryResponseCacheIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private DatasetVersionStore datasetVersionStore;
+
+    @Autowired
+    private CountryResponseCache countryResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        // entries of earlier tests were built from rows that have been truncated since
+        countryResponseCache.onSwiftCodesImported(new SwiftCodesImportedEvent("test"));
+
+        Country poland = createCountry("PL", "POLAND");
+        Country germany = createCountry("DE", "GERMANY");
+
+        Bank pko = createBank("BPKOPLPW", "PKO BANK POLSKI");
+        createSwiftCode("BPKOPLPWXXX", pko, poland, true);
+        createSwiftCode("BPKOPLPWKRA", pko, poland, false);
+        createSwiftCode("DEUTDEFFXXX", createBank("DEUTDEFF", "DEUTSCHE BANK"), germany, true);
+
+        entityManager.flush();
+        entityManager.clear();
+        // catch up with the imports of other test contexts sharing the database
+        datasetVersion.poll();
+    }
+
+    @Test
+    void shouldServeRepeatedListingWithoutStatements() throws Exception {
+        String first = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(jsonPath("$.countryName").value("POLAND"))
+                .andExpect(jsonPath("$.swiftCodes", hasSize(2)))
+                .andReturn().getResponse().getContentAsString();
+        Statistics statistics = statistics();
+
+        String second = mockMvc.perform(get("/v1/swift-codes/country/pl"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(countryResponseCache.getCachedBytes() > 0);
+    }
+
+    @Test
+    void shouldServeGzipToClientsAcceptingIt() throws Exception {
+        String plain = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsString();
+
+        byte[] compressed = mockMvc.perform(get("/v1/swift-codes/country/PL")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(plain, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void shouldTagEachContentCodingWithItsOwnETag() throws Exception {
+        String plainEtag = mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mockMvc.perform(get("/v1/swift-codes/country/PL").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(plainEtag, gzipEtag);
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+
+        // the identity body is not the representation the client holds
+        mockMvc.perform(get("/v1/swift-codes/country/PL").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void shouldRebuildOnlyTheChangedCountry() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/PL")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/country/DE")).andExpect(status().isOk());
+
+        // stands in for a POST committed by another instance, found in the shared versions
+        SwiftCode added = new SwiftCode();
+        added.setSwiftCode("BPKOPLPWGDA");
+        added.setBank(entityManager.find(Bank.class, bankId("BPKOPLPW")));
+        added.setCountry(entityManager.find(Country.class, "PL"));
+        added.setAddress("UL. DLUGA 1");
+        added.setHeadquarter(false);
+        entityManager.persist(added);
+        entityManager.flush();
+        datasetVersionStore.stampInNewTransaction(List.of("PL", "BPKOPLPWGDA"));
+        datasetVersion.poll();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/v1/swift-codes/country/DE"))
+                .andExpect(jsonPath("$.swiftCodes", hasSize(1)));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL"))
+                .andExpect(jsonPath("$.swiftCodes", hasSize(3)));
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+    }
+
+    @Test
+    void shouldKeepPagedListingsOutOfTheCache() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/PL").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("BPKOPLPWKRA"));
+
+        assertEquals(0, countryResponseCache.getCachedBytes());
+    }
+
+    @Test
+    void shouldNotCacheUnknownCountry() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/FR"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, countryResponseCache.getCachedBytes());
+    }
+
+    private Long bankId(String swiftCode) {
+        return entityManager.createQuery("SELECT b.id FROM Bank b WHERE b.swiftCode = :swiftCode", Long.class)
+                .setParameter("swiftCode", swiftCode)
+                .getSingleResult();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Country createCountry(String iso2Code, String name) {
+        Country country = new Country();
+        country.setIso2Code(iso2Code);
+        country.setName(name);
+        entityManager.persist(country);
+        return country;
+    }
+
+    private Bank createBank(String swiftCode, String bankName) {
+        Bank bank = new Bank();
+        bank.setSwiftCode(swiftCode);
+        bank.setBankName(bankName);
+        entityManager.persist(bank);
+        return bank;
+    }
+
+    private void createSwiftCode(String code, Bank bank, Country country, boolean isHeadquarter) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress("ADDRESS");
+        swiftCode.setHeadquarter(isHeadquarter);
+        entityManager.persist(swiftCode);
+    }
+}
@@ -112,4 +112,38 @@ class CountrySwiftCodesControllerIntegrationTest extends BaseTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message", containsString("Invalid country code format. Must be exactly 2 letters.")));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldPageThroughCountryWithCursor() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/PL?limit=3")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countryName", is("POLAND")))
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("BPKOPLPWKRA", "BPKOPLPWXXX", "PKOPPLPWGDA")))
+                .andExpect(jsonPath("$.nextCursor", is("PKOPPLPWGDA")));
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL?limit=3&after=PKOPPLPWGDA")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("PKOPPLPWXXX")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnEmptyPageAfterLastCode() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/PL?after=PKOPPLPWXXX")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countryISO2", is("PL")))
+                .andExpect(jsonPath("$.swiftCodes", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectOutOfRangeLimit() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/PL?limit=0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Limit must be between 1 and 1000")));
+    }
+}
@@ -0,0 +1,90 @@
+package com.tgasper.swiftcodes.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// the body is written on an async thread in a transaction of its own, so the test data has to be committed
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CountrySwiftCodesStreamingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        clearDatabase();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO countries (iso2_code, name) VALUES ('PL', 'POLAND'), ('DE', 'GERMANY')");
+            jdbcTemplate.update("INSERT INTO banks (id, bank_name, swift_code) VALUES (1, 'PKO BANK POLSKI', 'BPKOPLPW')");
+            jdbcTemplate.update("INSERT INTO swift_codes (swift_code, address, is_headquarter, bank_id, country_iso2_code) VALUES " +
+                    "('BPKOPLPWXXX', 'WARSZAWA, PULAWSKA 15', TRUE, 1, 'PL'), " +
+                    "('BPKOPLPWKRA', 'KRAKOW, RYNEK 1', FALSE, 1, 'PL')");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearDatabase();
+    }
+
+    @Test
+    void shouldStreamAllCodesOfCountry() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/swift-codes/country/pl/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countryISO2", is("PL")))
+                .andExpect(jsonPath("$.countryName", is("POLAND")))
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("BPKOPLPWKRA", "BPKOPLPWXXX")))
+                .andExpect(jsonPath("$.swiftCodes[1].isHeadquarter", is(true)))
+                .andExpect(jsonPath("$.swiftCodes[1].bankName", is("PKO BANK POLSKI")));
+    }
+
+    @Test
+    void shouldReturnNotFoundForCountryWithoutCodes() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/DE/stream"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is("No SWIFT codes found for country DE")));
+    }
+
+    @Test
+    void shouldReturnNotFoundBeforeStreamingForUnknownCountry() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/XY/stream"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("Country with ISO2 code XY not found")));
+    }
+
+    private void clearDatabase() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            jdbcTemplate.execute("TRUNCATE TABLE swift_codes");
+            jdbcTemplate.execute("TRUNCATE TABLE banks");
+            jdbcTemplate.execute("TRUNCATE TABLE countries");
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        });
+    }
+}
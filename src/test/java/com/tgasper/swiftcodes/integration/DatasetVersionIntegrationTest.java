@@ -0,0 +1,160 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.DatasetVersion;
+import com.tgasper.swiftcodes.service.DatasetVersionStore;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Writes are committed here, without a test transaction: what other instances see is what was committed.
+// Changes made through the repositories publish no events and stand in for another instance.
+@SpringBootTest(properties = "swift-codes.index.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DatasetVersionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private DatasetVersionStore datasetVersionStore;
+
+    @Autowired
+    private SwiftCodeIndex swiftCodeIndex;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // the imports of other test contexts sharing the database are changes of other instances too
+        datasetVersion.poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM swift_codes WHERE swift_code LIKE 'ZZZZ%'");
+        jdbcTemplate.update("DELETE FROM banks WHERE swift_code LIKE 'ZZZZ%'");
+        swiftCodeIndex.rebuild();
+    }
+
+    @Test
+    void shouldStampCommittedWritesInTheSharedTable() throws Exception {
+        long before = datasetVersion.countryVersion("PL");
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SwiftCodeRequest(
+                                "ZZZZPLPWXXX", "ZZZZ BANK", "PL", "POLAND", "WARSZAWA", true))))
+                .andExpect(status().isOk());
+
+        Map<String, Long> changes = datasetVersionStore.changesAfter(before);
+        assertEquals(List.of("PL", "ZZZZPLPWXXX"), changes.keySet().stream().sorted().toList());
+        long version = changes.get("PL");
+        assertEquals(version, changes.get("ZZZZPLPWXXX"));
+        assertEquals(version, datasetVersion.countryVersion("PL"));
+        assertEquals(version, datasetVersion.bankVersion("ZZZZPLPWKRA"));
+    }
+
+    @Test
+    void shouldApplyWritesOfOtherInstances() {
+        SwiftCode swiftCode = saveCode("ZZZZPLPWXXX");
+        long added = datasetVersionStore.stampInNewTransaction(List.of("PL", "ZZZZPLPWXXX"));
+        assertTrue(swiftCodeIndex.lookup("ZZZZPLPWXXX").isEmpty());
+
+        datasetVersion.poll();
+
+        assertEquals("ZZZZ BANK", swiftCodeIndex.lookup("ZZZZPLPWXXX").orElseThrow().bankName());
+        assertEquals(added, datasetVersion.countryVersion("PL"));
+        assertEquals(added, datasetVersion.bankVersion("ZZZZPLPWXXX"));
+
+        swiftCodeRepository.delete(swiftCode);
+        long deleted = datasetVersionStore.stampInNewTransaction(List.of("PL", "ZZZZPLPWXXX"));
+
+        datasetVersion.poll();
+
+        assertTrue(swiftCodeIndex.lookup("ZZZZPLPWXXX").isEmpty());
+        assertEquals(deleted, datasetVersion.bankVersion("ZZZZPLPWXXX"));
+    }
+
+    @Test
+    void shouldRebuildAfterAnImportOfAnotherInstance() {
+        saveCode("ZZZZPLPWXXX");
+        long imported = datasetVersionStore.stampInNewTransaction(List.of(DatasetVersionStore.ALL));
+
+        datasetVersion.poll();
+
+        // the rebuild reads the rows written without events
+        assertTrue(swiftCodeIndex.lookup("ZZZZPLPWXXX").isPresent());
+        assertEquals(imported, datasetVersion.countryVersion("DE"));
+        assertEquals(imported, datasetVersion.bankVersion("DEUTDEFFXXX"));
+    }
+
+    @Test
+    void shouldDropTheScopesAnImportSupersedes() {
+        datasetVersionStore.stampInNewTransaction(List.of("PL", "ZZZZPLPWXXX"));
+
+        long imported = datasetVersionStore.stampInNewTransaction(List.of(DatasetVersionStore.ALL));
+
+        assertEquals(Map.of(DatasetVersionStore.ALL, imported), datasetVersionStore.changesAfter(0));
+    }
+
+    private SwiftCode saveCode(String code) {
+        Country poland = countryRepository.findById("PL").orElseGet(() -> {
+            Country country = new Country();
+            country.setIso2Code("PL");
+            country.setName("POLAND");
+            return countryRepository.save(country);
+        });
+        Bank bank = new Bank();
+        bank.setSwiftCode(code.substring(0, 8));
+        bank.setBankName("ZZZZ BANK");
+        bank = bankRepository.save(bank);
+
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(poland);
+        swiftCode.setAddress("WARSZAWA");
+        swiftCode.setHeadquarter(code.endsWith("XXX"));
+        return swiftCodeRepository.save(swiftCode);
+    }
+}
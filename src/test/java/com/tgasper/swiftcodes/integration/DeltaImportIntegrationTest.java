@@ -0,0 +1,195 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.DeltaImportResult;
+import com.tgasper.swiftcodes.service.DeltaImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class DeltaImportIntegrationTest extends BaseTest {
+    private static final String HEADER =
+            "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n";
+
+    @Autowired
+    private DeltaImportService deltaImportService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank pko = createBank("BPKOPLPW", "PKO BANK POLSKI");
+        createSwiftCode("BPKOPLPWXXX", pko, poland, "UL. PULAWSKA 15, WARSZAWA", true);
+        createSwiftCode("BPKOPLPWKRA", pko, poland, "RYNEK 1", false);
+        createSwiftCode("BPKOPLPWGDA", pko, poland, "UL. DLUGA 1, GDANSK", false);
+
+        Bank ing = createBank("INGBPLPW", "ING BANK SLASKI");
+        createSwiftCode("INGBPLPWXXX", ing, poland, "UL. SOKOLSKA 34, KATOWICE", true);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldWriteOnlyTheDifferences() throws IOException {
+        Path file = writeCsv("""
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,RYNEK 1,KRAKOW,POLAND,CET
+            PL,BPKOPLPWPOZ,BIC11,PKO BANK POLSKI,PLAC WOLNOSCI 3,POZNAN,POLAND,CET
+            DE,DEUTDEFF,BIC11,DEUTSCHE BANK,TAUNUSANLAGE 12,FRANKFURT,GERMANY,CET
+            """);
+
+        DeltaImportResult result = deltaImportService.parseAndSave(file.toString(), 2);
+        entityManager.clear();
+
+        assertEquals(4, result.rows());
+        assertEquals(2, result.inserted());
+        assertEquals(1, result.updated());
+        assertEquals(2, result.deleted());
+        assertEquals(1, result.unchanged());
+        assertEquals(0, result.renamedBanks());
+
+        assertEquals(4, swiftCodeRepository.count());
+        assertEquals("UL. PULAWSKA 15", swiftCodeRepository.findById("BPKOPLPWXXX").orElseThrow().getAddress());
+        assertTrue(swiftCodeRepository.findById("BPKOPLPWGDA").isEmpty());
+        assertTrue(swiftCodeRepository.findById("INGBPLPWXXX").isEmpty());
+
+        SwiftCode added = swiftCodeRepository.findById("DEUTDEFFXXX").orElseThrow();
+        assertTrue(added.isHeadquarter());
+        assertEquals("DEUTSCHE BANK", added.getBank().getBankName());
+        assertEquals("GERMANY", countryRepository.findById("DE").orElseThrow().getName());
+
+        // the bank of the deleted codes goes with them
+        assertEquals(2, bankRepository.count());
+        assertTrue(bankRepository.findBySwiftCode("INGBPLPW").isEmpty());
+
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void shouldLeaveUnchangedDirectoryAlone() throws IOException {
+        Path file = writeCsv("""
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,RYNEK 1,KRAKOW,POLAND,CET
+            PL,BPKOPLPWGDA,BIC11,PKO BANK POLSKI,UL. DLUGA 1,GDANSK,POLAND,CET
+            PL,INGBPLPWXXX,BIC11,ING BANK SLASKI,UL. SOKOLSKA 34,KATOWICE,POLAND,CET
+            """);
+        deltaImportService.parseAndSave(file.toString(), 1000);
+
+        DeltaImportResult result = deltaImportService.parseAndSave(file.toString(), 1000);
+
+        assertEquals(4, result.unchanged());
+        assertEquals(0, result.inserted() + result.updated() + result.deleted());
+
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void shouldRenameBankOnce() throws IOException {
+        Path file = writeCsv("""
+            PL,BPKOPLPWXXX,BIC11,PKO BP,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK,RYNEK 1,KRAKOW,POLAND,CET
+            PL,BPKOPLPWGDA,BIC11,PKO BP,UL. DLUGA 1,GDANSK,POLAND,CET
+            PL,INGBPLPWXXX,BIC11,ING BANK SLASKI,UL. SOKOLSKA 34,KATOWICE,POLAND,CET
+            """);
+
+        DeltaImportResult result = deltaImportService.parseAndSave(file.toString(), 1000);
+        entityManager.clear();
+
+        assertEquals(1, result.renamedBanks());
+        assertEquals("PKO BP", bankRepository.findBySwiftCode("BPKOPLPW").orElseThrow().getBankName());
+
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void shouldReplaceAStoredEightCharacterCodeWithItsHeadquarters() throws IOException {
+        // written before 8-character codes were stored as their XXX code
+        Country poland = countryRepository.findById("PL").orElseThrow();
+        Bank pekao = createBank("PKOPPLPW", "BANK PEKAO");
+        createSwiftCode("PKOPPLPW", pekao, poland, "UL. GRZYBOWSKA 53, WARSZAWA", true);
+        createSwiftCode("PKOPPLPWAAA", pekao, poland, "UL. MARSZALKOWSKA 1", false);
+        entityManager.flush();
+        entityManager.clear();
+        Path file = writeCsv("""
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,RYNEK 1,KRAKOW,POLAND,CET
+            PL,BPKOPLPWGDA,BIC11,PKO BANK POLSKI,UL. DLUGA 1,GDANSK,POLAND,CET
+            PL,INGBPLPWXXX,BIC11,ING BANK SLASKI,UL. SOKOLSKA 34,KATOWICE,POLAND,CET
+            PL,PKOPPLPWXXX,BIC11,BANK PEKAO,UL. GRZYBOWSKA 53,WARSZAWA,POLAND,CET
+            PL,PKOPPLPWAAA,BIC11,BANK PEKAO,UL. MARSZALKOWSKA 1,,POLAND,CET
+            """);
+
+        DeltaImportResult result = deltaImportService.parseAndSave(file.toString(), 1000);
+        entityManager.clear();
+
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.deleted());
+        assertTrue(swiftCodeRepository.findById("PKOPPLPW").isEmpty());
+        assertEquals("UL. GRZYBOWSKA 53", swiftCodeRepository.findById("PKOPPLPWXXX").orElseThrow().getAddress());
+        assertEquals(6, swiftCodeRepository.count());
+
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void shouldRejectFileWithoutValidRows() throws IOException {
+        Path file = writeCsv("");
+
+        assertThrows(IOException.class, () -> deltaImportService.parseAndSave(file.toString(), 1000));
+        assertEquals(4, swiftCodeRepository.count());
+
+        Files.deleteIfExists(file);
+    }
+
+    private Bank createBank(String swiftCode, String bankName) {
+        Bank bank = new Bank();
+        bank.setSwiftCode(swiftCode);
+        bank.setBankName(bankName);
+        entityManager.persist(bank);
+        return bank;
+    }
+
+    private void createSwiftCode(String code, Bank bank, Country country, String address, boolean isHeadquarter) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress(address);
+        swiftCode.setHeadquarter(isHeadquarter);
+        entityManager.persist(swiftCode);
+    }
+
+    private Path writeCsv(String rows) throws IOException {
+        Path file = Files.createTempFile("delta-swift-codes", ".csv");
+        Files.writeString(file, HEADER + rows);
+        return file;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.SwiftCodeCsvRow;
+import com.tgasper.swiftcodes.service.SwiftCodeParserService;
+import com.tgasper.swiftcodes.testdata.SwiftDirectoryGenerator;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class GeneratedDirectoryImportIntegrationTest extends BaseTest {
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private SwiftCodeParserService swiftCodeParserService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    private Path csvFile;
+
+    @Override
+    protected void setupTestData() {
+        // every test starts from an empty database
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (csvFile != null) {
+            Files.deleteIfExists(csvFile);
+        }
+    }
+
+    @Test
+    void shouldGenerateTheSameFileForTheSameSeed() throws IOException {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        new SwiftDirectoryGenerator(7).write(first, 1_000);
+        new SwiftDirectoryGenerator(7).write(second, 1_000);
+
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    void shouldImportGeneratedDirectory() throws IOException {
+        csvFile = Files.createTempFile("generated-swift-codes", ".csv");
+        SwiftDirectoryGenerator.Summary summary = new SwiftDirectoryGenerator(7).write(csvFile, ROWS);
+
+        ImportResult result = swiftCodeParserService.parseAndSave(csvFile.toString());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(ROWS, summary.rows());
+        assertEquals(ROWS, result.rows());
+        assertEquals(ROWS, swiftCodeRepository.count());
+        assertEquals(summary.banks(), bankRepository.count());
+        assertEquals(summary.countries(), countryRepository.count());
+
+        CSVRecord shortHeadquarter = null;
+        CSVRecord withoutAddress = null;
+        CSVRecord withoutTown = null;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile);
+             CSVParser csvParser = new CSVParser(reader, SwiftCodeCsvRow.CSV_FORMAT)) {
+            for (CSVRecord record : csvParser) {
+                if (shortHeadquarter == null && record.get("SWIFT CODE").length() == 8) {
+                    shortHeadquarter = record;
+                }
+                if (withoutAddress == null && record.get("ADDRESS").isEmpty() && !record.get("TOWN NAME").isEmpty()) {
+                    withoutAddress = record;
+                }
+                if (withoutTown == null && record.get("TOWN NAME").isEmpty()) {
+                    withoutTown = record;
+                }
+            }
+        }
+        assertNotNull(shortHeadquarter);
+        assertNotNull(withoutAddress);
+        assertNotNull(withoutTown);
+
+        assertTrue(swiftCodeRepository.findById(shortHeadquarter.get("SWIFT CODE") + "XXX").orElseThrow().isHeadquarter());
+
+        SwiftCode branch = swiftCodeRepository.findById(withoutAddress.get("SWIFT CODE")).orElseThrow();
+        assertEquals(withoutAddress.get("TOWN NAME") + ", " + withoutAddress.get("COUNTRY NAME"), branch.getAddress());
+
+        String withoutTownCode = withoutTown.get("SWIFT CODE");
+        SwiftCode code = swiftCodeRepository.findById(withoutTownCode.length() == 8 ? withoutTownCode + "XXX" : withoutTownCode)
+                .orElseThrow();
+        assertEquals(withoutTown.get("COUNTRY NAME"), code.getAddress());
+    }
+}
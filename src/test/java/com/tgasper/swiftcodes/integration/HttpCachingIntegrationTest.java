@@ -0,0 +1,167 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.service.DatasetVersion;
+import com.tgasper.swiftcodes.service.DatasetVersionStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = BaseTest.HIBERNATE_STATISTICS)
+@AutoConfigureMockMvc
+@Transactional
+class HttpCachingIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private DatasetVersionStore datasetVersionStore;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = createCountry("PL", "POLAND");
+        Country germany = createCountry("DE", "GERMANY");
+
+        Bank pko = createBank("BPKOPLPW", "PKO BANK POLSKI");
+        createSwiftCode("BPKOPLPWXXX", pko, poland, true);
+        createSwiftCode("BPKOPLPWKRA", pko, poland, false);
+        createSwiftCode("INGBPLPWXXX", createBank("INGBPLPW", "ING BANK SLASKI"), poland, true);
+        createSwiftCode("DEUTDEFFXXX", createBank("DEUTDEFF", "DEUTSCHE BANK"), germany, true);
+
+        entityManager.flush();
+        entityManager.clear();
+        // catch up with the imports of other test contexts sharing the database
+        datasetVersion.poll();
+    }
+
+    @Test
+    void shouldSendValidators() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/BPKOPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertEquals(1, result.getResponse().getHeaders(HttpHeaders.ETAG).size()))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutStatements() throws Exception {
+        String codeEtag = etag("/v1/swift-codes/BPKOPLPWXXX");
+        String countryEtag = etag("/v1/swift-codes/country/PL");
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/v1/swift-codes/BPKOPLPWXXX").header(HttpHeaders.IF_NONE_MATCH, codeEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, codeEtag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/v1/swift-codes/country/pl").header(HttpHeaders.IF_NONE_MATCH, countryEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/swift-codes/country/PL/stream").header(HttpHeaders.IF_NONE_MATCH, countryEtag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldChangeEtagsOfChangedBankAndCountryOnly() throws Exception {
+        String pkoEtag = etag("/v1/swift-codes/BPKOPLPWKRA");
+        String ingEtag = etag("/v1/swift-codes/INGBPLPWXXX");
+        String polandEtag = etag("/v1/swift-codes/country/PL");
+        String germanyEtag = etag("/v1/swift-codes/country/DE");
+
+        // another instance commits a new PKO branch, this one finds it in the shared versions
+        datasetVersionStore.stampInNewTransaction(List.of("PL", "BPKOPLPWGDA"));
+        datasetVersion.poll();
+
+        // a branch answers for its whole bank, the headquarters lists the new branch
+        mockMvc.perform(get("/v1/swift-codes/BPKOPLPWKRA").header(HttpHeaders.IF_NONE_MATCH, pkoEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/country/PL").header(HttpHeaders.IF_NONE_MATCH, polandEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/INGBPLPWXXX").header(HttpHeaders.IF_NONE_MATCH, ingEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/swift-codes/country/DE").header(HttpHeaders.IF_NONE_MATCH, germanyEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldChangeEveryEtagAfterImport() throws Exception {
+        String ingEtag = etag("/v1/swift-codes/INGBPLPW");
+        String germanyEtag = etag("/v1/swift-codes/country/DE");
+
+        datasetVersion.importCommitted("test");
+
+        String newIngEtag = etag("/v1/swift-codes/INGBPLPW");
+        assertNotEquals(ingEtag, newIngEtag);
+        assertTrue(Long.parseLong(newIngEtag.replace("\"", "")) > Long.parseLong(ingEtag.replace("\"", "")));
+        mockMvc.perform(get("/v1/swift-codes/country/DE").header(HttpHeaders.IF_NONE_MATCH, germanyEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldNotVersionInvalidCodes() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/INVALID"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String etag(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Country createCountry(String iso2Code, String name) {
+        Country country = new Country();
+        country.setIso2Code(iso2Code);
+        country.setName(name);
+        entityManager.persist(country);
+        return country;
+    }
+
+    private Bank createBank(String swiftCode, String bankName) {
+        Bank bank = new Bank();
+        bank.setSwiftCode(swiftCode);
+        bank.setBankName(bankName);
+        entityManager.persist(bank);
+        return bank;
+    }
+
+    private void createSwiftCode(String code, Bank bank, Country country, boolean isHeadquarter) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress("ADDRESS");
+        swiftCode.setHeadquarter(isHeadquarter);
+        entityManager.persist(swiftCode);
+    }
+}
@@ -0,0 +1,119 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.service.SwiftCodeParserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus",
+        "management.metrics.tags.application=swift-codes",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+class MetricsIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeParserService swiftCodeParserService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank pko = new Bank();
+        pko.setSwiftCode("BPKOPLPW");
+        pko.setBankName("PKO BANK POLSKI");
+        entityManager.persist(pko);
+
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode("BPKOPLPWXXX");
+        swiftCode.setBank(pko);
+        swiftCode.setCountry(poland);
+        swiftCode.setAddress("UL. PULAWSKA 15");
+        swiftCode.setHeadquarter(true);
+        entityManager.persist(swiftCode);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldExportRequestServiceRepositoryAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/BPKOPLPWXXX")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/v1/swift-codes/{swiftCode}\""),
+                        containsString("swiftcodes_service_seconds_count{"),
+                        containsString("method=\"getSwiftCodeDetails\""),
+                        containsString("spring_data_repository_invocations_seconds_count{"),
+                        containsString("hikaricp_connections_pending{"),
+                        containsString("hikaricp_connections_max{"))));
+    }
+
+    @Test
+    void shouldExportProgressOfTheImport() throws Exception {
+        // the application context imported the bundled file on startup already
+        long swiftCodePhases = phaseCount("swift-codes");
+        Path file = Files.createTempFile("metrics-swift-codes", ".csv");
+        Files.writeString(file, """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            DE,DEUTDEFFXXX,BIC11,DEUTSCHE BANK,TAUNUSANLAGE 12,FRANKFURT,GERMANY,CET
+            DE,DEUTDEFFBER,BIC11,DEUTSCHE BANK,UNTER DEN LINDEN 13,BERLIN,GERMANY,CET
+            DE,INVALID,BIC11,INVALID,ADDRESS,BERLIN,GERMANY,CET
+            """);
+        swiftCodeParserService.parseAndSave(file.toString());
+        Files.deleteIfExists(file);
+
+        assertEquals(3, meterRegistry.get("swiftcodes.import.rows.parsed").gauge().value());
+        assertEquals(2, meterRegistry.get("swiftcodes.import.rows.written").gauge().value());
+        assertTrue(meterRegistry.get("swiftcodes.import.rows.per.second").gauge().value() > 0);
+        assertEquals(swiftCodePhases + 1, phaseCount("swift-codes"));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("swiftcodes_import_rows_parsed{"),
+                        containsString("swiftcodes_import_rows_written{"),
+                        containsString("swiftcodes_import_rows_per_second{"),
+                        containsString("phase=\"countries\""),
+                        containsString("phase=\"banks\""),
+                        containsString("phase=\"swift-codes\""))));
+    }
+
+    private long phaseCount(String phase) {
+        Timer timer = meterRegistry.find("swiftcodes.import.phase").tag("phase", phase).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,158 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.ParallelImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// writers commit on their own threads, so this test cannot run inside a rolled back test transaction
+@SpringBootTest
+@ActiveProfiles("test")
+class ParallelImportIntegrationTest {
+
+    @Autowired
+    private ParallelImportService parallelImportService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Path csvFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clearDatabase();
+        csvFile = Files.createTempFile("test-swift-codes", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        clearDatabase();
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Test
+    void shouldImportThroughAllStages() throws IOException {
+        String[] countries = {"PL", "DE", "FR"};
+        StringBuilder csv = new StringBuilder("COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+        for (int bank = 0; bank < 150; bank++) {
+            String country = countries[bank % countries.length];
+            String baseCode = "B" + (char) ('A' + bank / 26 % 26) + (char) ('A' + bank % 26) + "K" + country + String.format("%02d", bank % 100);
+            csv.append(String.format("%s,%sXXX,BIC11,BANK %d,\"MAIN STREET %d, CITY\",CITY,COUNTRY %s,UTC%n",
+                    country, baseCode, bank, bank, country));
+            for (int branch = 1; branch < 8; branch++) {
+                csv.append(String.format("%s,%sB%02d,BIC11,BANK %d,,TOWN %d,COUNTRY %s,UTC%n",
+                        country, baseCode, branch, bank, branch, country));
+            }
+        }
+        // quoted line break inside a field and a row that fails validation
+        csv.append("PL,MULTPLPWXXX,BIC11,MULTI LINE BANK,\"FIRST LINE\nSECOND LINE\",WARSZAWA,POLAND,CET\n");
+        csv.append("PL,BAD,BIC11,BROKEN BANK,,WARSZAWA,POLAND,CET\n");
+        Files.writeString(csvFile, csv.toString());
+
+        ImportResult result = parallelImportService.parseAndSave(csvFile.toString(), 3, 3, 50);
+
+        assertEquals(1201, result.rows());
+        assertEquals(1201, swiftCodeRepository.count());
+        assertEquals(151, bankRepository.count());
+        assertEquals(3, countryRepository.count());
+        assertEquals("FIRST LINE\nSECOND LINE",
+            swiftCodeRepository.findById("MULTPLPWXXX").orElseThrow().getAddress());
+    }
+
+    @Test
+    void shouldWriteTheLastRowOfRepeatedCodesAndUpdateStoredCodes() throws IOException {
+        String header = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n";
+        Files.writeString(csvFile, header + "PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET\n");
+        parallelImportService.parseAndSave(csvFile.toString(), 1, 1, 10);
+
+        // the repeats land in other batches than the first rows of their codes
+        Files.writeString(csvFile, header
+                + "PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 17,WARSZAWA,POLAND,CET\n"
+                + "PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,UL. WIELOPOLE 19,KRAKOW,POLAND,CET\n"
+                + "PL,BPKOPLPWGDA,BIC11,PKO BANK POLSKI,UL. DLUGA 1,GDANSK,POLAND,CET\n"
+                + "PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,UL. WIELOPOLE 21,KRAKOW,POLAND,CET\n"
+                + "PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 19,WARSZAWA,POLAND,CET\n"
+                + "PL,BAD,BIC11,BROKEN BANK,,WARSZAWA,POLAND,CET\n");
+
+        ImportResult result = parallelImportService.parseAndSave(csvFile.toString(), 2, 2, 2);
+
+        assertEquals(3, result.rows());
+        assertEquals(3, result.skippedRows());
+        assertEquals(0, result.failedRows());
+        assertEquals(3, swiftCodeRepository.count());
+        assertEquals(1, bankRepository.count());
+        // the last row wins, whichever row a writer claimed first
+        assertEquals("UL. PULAWSKA 19", swiftCodeRepository.findById("BPKOPLPWXXX").orElseThrow().getAddress());
+        assertEquals("UL. WIELOPOLE 21", swiftCodeRepository.findById("BPKOPLPWKRA").orElseThrow().getAddress());
+    }
+
+    @Test
+    void shouldImportRowsWithoutBankNameLikeTheStandardImport() throws IOException {
+        Files.writeString(csvFile, "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n"
+                + "pl,bpkoplpw,BIC8,,UL. PULAWSKA 15,WARSZAWA,POLAND,CET\n"
+                + "PL,BPKOPLPWKRA,BIC11,,UL. WIELOPOLE 19,KRAKOW,POLAND,CET\n"
+                + "POL,BPKOPLPWGDA,BIC11,PKO BANK POLSKI,UL. DLUGA 1,GDANSK,POLAND,CET\n");
+
+        ImportResult result = parallelImportService.parseAndSave(csvFile.toString(), 1, 1, 10);
+
+        assertEquals(2, result.rows());
+        assertEquals(1, result.skippedRows());
+        assertTrue(swiftCodeRepository.existsById("BPKOPLPWXXX"));
+        assertEquals("", bankRepository.findBySwiftCode("BPKOPLPW").orElseThrow().getBankName());
+    }
+
+    @Test
+    void shouldCountRowsOfBatchesThatCannotBeWritten() throws IOException {
+        Files.writeString(csvFile, "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n"
+                + "PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET\n"
+                + "PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,UL. WIELOPOLE 19,KRAKOW,POLAND,CET\n"
+                // longer than the address column, fails its batch
+                + "PL,BPKOPLPWGDA,BIC11,PKO BANK POLSKI," + "X".repeat(300) + ",GDANSK,POLAND,CET\n"
+                + "PL,BPKOPLPWPOZ,BIC11,PKO BANK POLSKI,UL. GARBARY 1,POZNAN,POLAND,CET\n");
+
+        ImportResult result = parallelImportService.parseAndSave(csvFile.toString(), 1, 1, 2);
+
+        assertEquals(2, result.rows());
+        assertEquals(2, result.failedRows());
+        // the other batch was committed on its own
+        assertEquals(2, swiftCodeRepository.count());
+        assertTrue(swiftCodeRepository.existsById("BPKOPLPWXXX"));
+    }
+
+    private void clearDatabase() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            jdbcTemplate.execute("TRUNCATE TABLE swift_codes");
+            jdbcTemplate.execute("TRUNCATE TABLE banks");
+            jdbcTemplate.execute("TRUNCATE TABLE countries");
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        });
+    }
+}
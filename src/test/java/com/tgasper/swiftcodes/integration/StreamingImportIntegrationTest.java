@@ -0,0 +1,115 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.ImportResult;
+import com.tgasper.swiftcodes.service.StreamingImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class StreamingImportIntegrationTest extends BaseTest {
+
+    @Autowired
+    private StreamingImportService streamingImportService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Override
+    protected void setupTestData() {
+        // every test starts from an empty database
+    }
+
+    @Test
+    void shouldImportAcrossChunkBoundaries() throws IOException {
+        String csvContent = """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            US,CITIUS33XXX,BIC11,CITIBANK NA,399 PARK AVENUE,NEW YORK,UNITED STATES,EST
+            US,CITIUS33LAX,BIC11,CITIBANK NA,,LOS ANGELES,UNITED STATES,PST
+            pl,BPKOPLPW,BIC11,PKO BANK POLSKI,,,Poland,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,RYNEK 1,KRAKOW,POLAND,CET
+            GB,BARCGB22XXX,BIC11,BARCLAYS,1 CHURCHILL PLACE,LONDON,UNITED KINGDOM,GMT
+            """;
+        Path tempFile = Files.createTempFile("test-swift-codes", ".csv");
+        Files.writeString(tempFile, csvContent);
+
+        // chunk size smaller than the file forces several flush/clear cycles
+        ImportResult result = streamingImportService.parseAndSave(tempFile.toString(), 2);
+        entityManager.clear();
+
+        assertEquals(5, result.rows());
+        assertEquals(5, swiftCodeRepository.count());
+        assertEquals(3, bankRepository.count());
+        assertEquals(3, countryRepository.count());
+        assertEquals("POLAND", countryRepository.findById("PL").orElseThrow().getName());
+
+        SwiftCode hq = swiftCodeRepository.findById("BPKOPLPWXXX").orElseThrow();
+        assertTrue(hq.isHeadquarter());
+        assertEquals("Poland", hq.getAddress());
+        assertEquals("PKO BANK POLSKI", hq.getBank().getBankName());
+
+        SwiftCode branch = swiftCodeRepository.findById("CITIUS33LAX").orElseThrow();
+        assertFalse(branch.isHeadquarter());
+        assertEquals("LOS ANGELES, UNITED STATES", branch.getAddress());
+        assertEquals(branch.getBank().getId(),
+            swiftCodeRepository.findById("CITIUS33XXX").orElseThrow().getBank().getId());
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void shouldMergeStoredAndRepeatedCodesLikeTheStandardImport() throws IOException {
+        Path tempFile = Files.createTempFile("test-swift-codes", ".csv");
+        Files.writeString(tempFile, """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,UL. PULAWSKA 15,WARSZAWA,POLAND,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BANK POLSKI,RYNEK 1,KRAKOW,POLAND,CET
+            """);
+        streamingImportService.parseAndSave(tempFile.toString(), 2);
+        long bankId = bankRepository.findAll().get(0).getId();
+
+        // a re-import: one code repeated within a chunk, one across chunks
+        Files.writeString(tempFile, """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            PL,BPKOPLPWXXX,BIC11,PKO BP,UL. PULAWSKA 17,WARSZAWA,POLSKA,CET
+            PL,BPKOPLPWXXX,BIC11,PKO BP,UL. PULAWSKA 19,WARSZAWA,POLSKA,CET
+            PL,BPKOPLPWGDA,BIC11,PKO BP,UL. DLUGA 1,GDANSK,POLSKA,CET
+            PL,BPKOPLPWKRA,BIC11,PKO BP,RYNEK 2,KRAKOW,POLSKA,CET
+            PL,BPKOPLPWGDA,BIC11,PKO BP,UL. DLUGA 3,GDANSK,POLSKA,CET
+            """);
+
+        ImportResult result = streamingImportService.parseAndSave(tempFile.toString(), 2);
+        entityManager.clear();
+
+        assertEquals(5, result.rows());
+        assertEquals(3, swiftCodeRepository.count());
+        assertEquals("UL. PULAWSKA 19", swiftCodeRepository.findById("BPKOPLPWXXX").orElseThrow().getAddress());
+        assertEquals("RYNEK 2", swiftCodeRepository.findById("BPKOPLPWKRA").orElseThrow().getAddress());
+        assertEquals("UL. DLUGA 3", swiftCodeRepository.findById("BPKOPLPWGDA").orElseThrow().getAddress());
+        // existing countries and banks are kept
+        assertEquals("POLAND", countryRepository.findById("PL").orElseThrow().getName());
+        assertEquals(1, bankRepository.count());
+        assertEquals("PKO BANK POLSKI", bankRepository.findById(bankId).orElseThrow().getBankName());
+
+        Files.deleteIfExists(tempFile);
+    }
+}
@@ -0,0 +1,174 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeBulkRequest;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeRequest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.BankRepository;
+import com.tgasper.swiftcodes.repository.CountryRepository;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// the test application.properties shadows the main one, so the batching settings are repeated here
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        BaseTest.HIBERNATE_STATISTICS
+})
+@AutoConfigureMockMvc
+@Transactional
+class SwiftCodeBulkControllerIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank pkoBp = createBank("BPKOPLPW", "PKO BANK POLSKI");
+        Bank pekao = createBank("PKOPPLPW", "BANK PEKAO");
+        entityManager.persist(createSwiftCode("BPKOPLPWXXX", pkoBp, poland, "WARSZAWA, PULAWSKA 15", true));
+        entityManager.persist(createSwiftCode("BPKOPLPWKRA", pkoBp, poland, "KRAKOW, RYNEK 1", false));
+        entityManager.persist(createSwiftCode("PKOPPLPWXXX", pekao, poland, "WARSZAWA, GRZYBOWSKA 53", true));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Bank createBank(String swiftCode, String name) {
+        Bank bank = new Bank();
+        bank.setSwiftCode(swiftCode);
+        bank.setBankName(name);
+        entityManager.persist(bank);
+        return bank;
+    }
+
+    private SwiftCode createSwiftCode(String code, Bank bank, Country country, String address, boolean isHq) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress(address);
+        swiftCode.setHeadquarter(isHq);
+        return swiftCode;
+    }
+
+    @Test
+    void shouldApplyUpsertsAndDeletesAndReportEachItem() throws Exception {
+        SwiftCodeBulkRequest request = new SwiftCodeBulkRequest(
+                List.of(
+                        new SwiftCodeRequest("BPKOPLPWGDA", "PKO BANK POLSKI", "PL", "POLAND", "GDANSK, DLUGA 1", false),
+                        new SwiftCodeRequest("BPKOPLPWKRA", "PKO BANK POLSKI", "PL", "POLAND", "KRAKOW, FLORIANSKA 2", false),
+                        new SwiftCodeRequest("DEUTDEFFXXX", "DEUTSCHE BANK", "de", "GERMANY", "FRANKFURT", true)),
+                List.of("PKOPPLPW", "BREXPLPWXXX"));
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(true)))
+                .andExpect(jsonPath("$.results[*].status", contains("CREATED", "UPDATED", "CREATED", "DELETED", "NOT_FOUND")))
+                .andExpect(jsonPath("$.results[3].swiftCode", is("PKOPPLPWXXX")))
+                .andExpect(jsonPath("$.results[3].operation", is("DELETE")));
+
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals("KRAKOW, FLORIANSKA 2", swiftCodeRepository.findById("BPKOPLPWKRA").orElseThrow().getAddress());
+        assertTrue(swiftCodeRepository.findById("BPKOPLPWGDA").isPresent());
+        assertEquals("GERMANY", countryRepository.findById("DE").orElseThrow().getName());
+        assertTrue(bankRepository.findBySwiftCode("DEUTDEFF").isPresent());
+        // the last code of BANK PEKAO was deleted, so the bank went with it
+        assertFalse(swiftCodeRepository.findById("PKOPPLPWXXX").isPresent());
+        assertFalse(bankRepository.findBySwiftCode("PKOPPLPW").isPresent());
+    }
+
+    @Test
+    void shouldWriteNothingWhenAnyItemIsInvalid() throws Exception {
+        SwiftCodeBulkRequest request = new SwiftCodeBulkRequest(
+                List.of(
+                        new SwiftCodeRequest("BPKOPLPWGDA", "PKO BANK POLSKI", "PL", "POLAND", "GDANSK, DLUGA 1", false),
+                        new SwiftCodeRequest("BPKOPLPWWAW", "OTHER NAME", "PL", "POLAND", "WARSZAWA", false),
+                        new SwiftCodeRequest("INVALID", "SOME BANK", "PL", "POLAND", "WARSZAWA", true)),
+                List.of("BPKOPLPWGDA"));
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.applied", is(false)))
+                .andExpect(jsonPath("$.results[*].status", contains("SKIPPED", "INVALID", "INVALID", "INVALID")))
+                .andExpect(jsonPath("$.results[1].message", startsWith("Bank name mismatch")))
+                .andExpect(jsonPath("$.results[2].message", is("Invalid SWIFT code format")))
+                .andExpect(jsonPath("$.results[3].message", is("SWIFT code appears more than once in the request")));
+
+        assertFalse(swiftCodeRepository.findById("BPKOPLPWGDA").isPresent());
+    }
+
+    @Test
+    void shouldResolveAndWriteWithAConstantNumberOfStatements() throws Exception {
+        List<SwiftCodeRequest> upserts = new ArrayList<>();
+        for (int bank = 0; bank < 10; bank++) {
+            for (int branch = 0; branch < 50; branch++) {
+                String code = "BLK" + (char) ('A' + bank) + "PLPW" + (branch == 0 ? "XXX" : String.format("%03d", branch));
+                upserts.add(new SwiftCodeRequest(code, "BULK BANK " + bank, "PL", "POLAND", "ADDRESS " + branch, branch == 0));
+            }
+        }
+        upserts.add(new SwiftCodeRequest("BPKOPLPWKRA", "PKO BANK POLSKI", "PL", "POLAND", "KRAKOW, FLORIANSKA 2", false));
+        SwiftCodeBulkRequest request = new SwiftCodeBulkRequest(upserts, List.of("BPKOPLPWXXX"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(502)));
+        entityManager.flush();
+
+        // 3 resolving queries, sequence calls, batched inserts, update, delete and the unused bank check,
+        // independent of the number of items
+        assertTrue(statistics.getPrepareStatementCount() <= 12,
+                "statements prepared: " + statistics.getPrepareStatementCount());
+        assertEquals(500, swiftCodeRepository.countBySwiftCodeStartingWith("BLK"));
+    }
+}
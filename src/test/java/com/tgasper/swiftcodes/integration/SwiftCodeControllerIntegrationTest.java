@@ -114,4 +114,39 @@ class SwiftCodeControllerIntegrationTest extends BaseTest {
                 .andExpect(jsonPath("$.swiftCode", is("BPKOPLPWXXX")))
                 .andExpect(jsonPath("$.isHeadquarter", is(true)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturn400ForInvalidCharactersInWellSizedCode() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/BPKOPL-WXXX")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Validation Error")))
+                .andExpect(jsonPath("$.message", is("Invalid SWIFT code format")));
+
+        mockMvc.perform(get("/v1/swift-codes/1PKOPLPW")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid SWIFT code format")));
+    }
+
+    @Test
+    void shouldSuggestFromTheDatabaseWithoutTheIndex() throws Exception {
+        // the index is disabled in tests, suggestions come from a range of the primary key
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "bpkoplpw"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[*].swiftCode", contains("BPKOPLPWKRA", "BPKOPLPWXXX")));
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BPKOPLPWK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[*].swiftCode", contains("BPKOPLPWKRA")));
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BPKOPLPWZ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions", hasSize(0)));
+    }
+
+    @Test
+    void shouldReturn404ForSearchWhenItIsDisabled() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "pko"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is("Search is not enabled on this instance")));
+    }
+}
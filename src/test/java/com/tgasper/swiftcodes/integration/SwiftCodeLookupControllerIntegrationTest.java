@@ -0,0 +1,117 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeLookupRequest;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = BaseTest.HIBERNATE_STATISTICS)
+@AutoConfigureMockMvc
+@Transactional
+class SwiftCodeLookupControllerIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank pkoBp = new Bank();
+        pkoBp.setSwiftCode("BPKOPLPW");
+        pkoBp.setBankName("PKO BANK POLSKI");
+        entityManager.persist(pkoBp);
+
+        entityManager.persist(createSwiftCode("BPKOPLPWXXX", pkoBp, poland, "WARSZAWA, PULAWSKA 15", true));
+        entityManager.persist(createSwiftCode("BPKOPLPWKRA", pkoBp, poland, "KRAKOW, RYNEK 1", false));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private SwiftCode createSwiftCode(String code, Bank bank, Country country, String address, boolean isHq) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress(address);
+        swiftCode.setHeadquarter(isHq);
+        return swiftCode;
+    }
+
+    @Test
+    void shouldResolveFoundNotFoundAndInvalidCodesInOneStatement() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // 8-character code maps to the headquarters, duplicates are resolved once
+        SwiftCodeLookupRequest request = new SwiftCodeLookupRequest(
+                Arrays.asList("bpkoplpw", "BPKOPLPWKRA", "BPKOPLPWKRA", "DEUTDEFFXXX", "SHORT", null));
+
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[*].swiftCode", contains("BPKOPLPWXXX", "BPKOPLPWKRA")))
+                .andExpect(jsonPath("$.found[0].isHeadquarter", is(true)))
+                .andExpect(jsonPath("$.found[0].bankName", is("PKO BANK POLSKI")))
+                .andExpect(jsonPath("$.found[0].branches").doesNotExist())
+                .andExpect(jsonPath("$.found[1].address", is("KRAKOW, RYNEK 1")))
+                .andExpect(jsonPath("$.notFound", contains("DEUTDEFFXXX")))
+                .andExpect(jsonPath("$.invalid", contains("SHORT", null)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldRejectEmptyLookup() throws Exception {
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"swiftCodes\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("At least one SWIFT code is required")));
+    }
+
+    @Test
+    void shouldRejectTooManyCodes() throws Exception {
+        List<String> swiftCodes = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            swiftCodes.add(String.format("BPKOPL%05d", i));
+        }
+
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SwiftCodeLookupRequest(swiftCodes))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("At most 1000 SWIFT codes can be looked up at once")));
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -127,6 +128,71 @@ class SwiftCodePostControllerIntegrationTest extends BaseTest {
                 .andExpect(jsonPath("$.message", containsString("already exists")));
     }
 
+    @Test
+    void shouldStoreAnEightCharacterCodeAsItsHeadquarters() throws Exception {
+        SwiftCodeRequest request = new SwiftCodeRequest(
+            "pkopplpw",
+            "BANK PEKAO",
+            "PL",
+            "POLAND",
+            "WARSZAWA, GRZYBOWSKA 53",
+            true
+        );
+
+        mockMvc.perform(post("/v1/swift-codes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        assertTrue(swiftCodeRepository.findById("PKOPPLPWXXX").isPresent());
+        assertTrue(swiftCodeRepository.findById("PKOPPLPW").isEmpty());
+        mockMvc.perform(get("/v1/swift-codes/PKOPPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCode", is("PKOPPLPWXXX")))
+                .andExpect(jsonPath("$.isHeadquarter", is(true)));
+    }
+
+    @Test
+    void shouldRejectAnEightCharacterCodeNextToItsHeadquarters() throws Exception {
+        SwiftCodeRequest request = new SwiftCodeRequest(
+            "BPKOPLPW",
+            "PKO BANK POLSKI",
+            "PL",
+            "POLAND",
+            "WARSZAWA, PULAWSKA 15",
+            true
+        );
+
+        mockMvc.perform(post("/v1/swift-codes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("SWIFT code BPKOPLPWXXX already exists")));
+
+        assertEquals(1, swiftCodeRepository.count());
+        mockMvc.perform(get("/v1/swift-codes/BPKOPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCode", is("BPKOPLPWXXX")));
+    }
+
+    @Test
+    void shouldRejectAnEightCharacterCodeMarkedAsBranch() throws Exception {
+        SwiftCodeRequest request = new SwiftCodeRequest(
+            "PKOPPLPW",
+            "BANK PEKAO",
+            "PL",
+            "POLAND",
+            "WARSZAWA, GRZYBOWSKA 53",
+            false
+        );
+
+        mockMvc.perform(post("/v1/swift-codes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Inconsistent headquarters flag")));
+    }
+
     @Test
     void shouldRejectInvalidSwiftCodeFormat() throws Exception {
         SwiftCodeRequest request = new SwiftCodeRequest(
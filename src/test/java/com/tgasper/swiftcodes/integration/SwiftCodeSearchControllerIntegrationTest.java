@@ -0,0 +1,150 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.service.SwiftCodeSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {BaseTest.HIBERNATE_STATISTICS, "swift-codes.search.enabled=true"})
+@AutoConfigureMockMvc
+@Transactional
+class SwiftCodeSearchControllerIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeSearchIndex swiftCodeSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = createCountry("PL", "POLAND");
+        Country germany = createCountry("DE", "GERMANY");
+
+        Bank pko = createBank("BPKOPLPW", "PKO BANK POLSKI");
+        createSwiftCode("BPKOPLPWXXX", pko, poland, "UL. PULAWSKA 15 WARSZAWA, MAZOWIECKIE, 02-515", true);
+        createSwiftCode("BPKOPLPWKRA", pko, poland, "UL. WIELOPOLE 19 KRAKOW, MALOPOLSKIE, 31-072", false);
+        Bank deutsche = createBank("DEUTDEFF", "DEUTSCHE BANK AG");
+        createSwiftCode("DEUTDEFFXXX", deutsche, germany, "TAUNUSANLAGE 12 FRANKFURT AM MAIN, HESSEN, 60325", true);
+        createSwiftCode("DEUTDEFFWAW", deutsche, poland, "AL. ARMII LUDOWEJ 26 WARSZAWA, MAZOWIECKIE, 00-609", false);
+
+        entityManager.flush();
+        entityManager.clear();
+        // the index reads the rows of this test's transaction
+        swiftCodeSearchIndex.rebuild();
+    }
+
+    @Test
+    void shouldFindCodesByBankNameAndTown() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "deutsche warsz"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query").value("deutsche warsz"))
+                .andExpect(jsonPath("$.countryISO2").doesNotExist())
+                .andExpect(jsonPath("$.swiftCodes", hasSize(1)))
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("DEUTDEFFWAW"))
+                .andExpect(jsonPath("$.swiftCodes[0].bankName").value("DEUTSCHE BANK AG"))
+                .andExpect(jsonPath("$.swiftCodes[0].countryISO2").value("PL"));
+    }
+
+    @Test
+    void shouldRankAndLimitMatches() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("BPKOPLPWXXX", "DEUTDEFFXXX")));
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank").param("country", "pl"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countryISO2").value("PL"))
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode",
+                        contains("BPKOPLPWXXX", "BPKOPLPWKRA", "DEUTDEFFWAW")));
+    }
+
+    @Test
+    void shouldAnswerWithoutDatabaseStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "krakow"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("BPKOPLPWKRA"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldFindCommittedCodes() throws Exception {
+        // stands in for the committed POST, listeners run after commit
+        swiftCodeSearchIndex.onSwiftCodeChanged(SwiftCodeChangedEvent.added(new SwiftCodeView(
+                "INGBPLPWXXX", "UL. SOKOLSKA 34 KATOWICE, SLASKIE, 40-086", "ING BANK SLASKI", "PL", "POLAND", true)));
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "katowice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("INGBPLPWXXX")));
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenNothingMatches() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "citibank"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes", hasSize(0)));
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/search"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", " ,. "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query must contain at least one letter or digit"));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank").param("country", "POL"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Country createCountry(String iso2Code, String name) {
+        Country country = new Country();
+        country.setIso2Code(iso2Code);
+        country.setName(name);
+        entityManager.persist(country);
+        return country;
+    }
+
+    private Bank createBank(String swiftCode, String bankName) {
+        Bank bank = new Bank();
+        bank.setSwiftCode(swiftCode);
+        bank.setBankName(bankName);
+        entityManager.persist(bank);
+        return bank;
+    }
+
+    private void createSwiftCode(String code, Bank bank, Country country, String address, boolean isHeadquarter) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress(address);
+        swiftCode.setHeadquarter(isHeadquarter);
+        entityManager.persist(swiftCode);
+    }
+}
@@ -0,0 +1,249 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.BranchResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeLookupResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.dto.request.SwiftCodeLookupRequest;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.repository.SwiftCodeRepository;
+import com.tgasper.swiftcodes.service.DatasetVersionStore;
+import com.tgasper.swiftcodes.service.SwiftCodeService;
+import com.tgasper.swiftcodes.service.SwiftCodeSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = BaseTest.HIBERNATE_STATISTICS)
+@Transactional
+class SwiftCodeSnapshotIntegrationTest extends BaseTest {
+    private static final Path SNAPSHOT = createSnapshotPath();
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeSnapshot swiftCodeSnapshot;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private DatasetVersionStore datasetVersionStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) {
+        registry.add("swift-codes.snapshot.path", SNAPSHOT::toString);
+    }
+
+    @Override
+    protected void setupTestData() {
+        Country poland = createCountry("PL", "POLAND");
+        Country germany = createCountry("DE", "GERMANY");
+
+        Bank pko = createBank("BPKOPLPW", "PKO BANK POLSKI");
+        createSwiftCode("BPKOPLPWXXX", pko, poland, "UL. PULAWSKA 15, WARSZAWA", true);
+        createSwiftCode("BPKOPLPWKRA", pko, poland, "UL. WIELOPOLE 19, KRAKOW", false);
+        createSwiftCode("BPKOPLPW123", pko, poland, null, false);
+
+        Bank deutsche = createBank("DEUTDEFF", "DEUTSCHE BANK");
+        createSwiftCode("DEUTDEFFXXX", deutsche, germany, "TAUNUSANLAGE 12, FRANKFURT", true);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        try {
+            swiftCodeSnapshot.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void shouldServeHeadquartersWithBranchesWithoutStatements() {
+        Statistics statistics = statistics();
+
+        SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("bpkoplpw");
+
+        assertEquals("BPKOPLPWXXX", response.getSwiftCode());
+        assertEquals("PKO BANK POLSKI", response.getBankName());
+        assertEquals("POLAND", response.getCountryName());
+        assertEquals(List.of("BPKOPLPW123", "BPKOPLPWKRA"), response.getBranches().stream()
+                .map(BranchResponse::getSwiftCode)
+                .toList());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldKeepMissingAddress() {
+        SwiftCodeView view = swiftCodeSnapshot.lookup("BPKOPLPW123").orElseThrow();
+
+        assertNull(view.address());
+        assertFalse(view.isHeadquarter());
+        assertEquals("PL", view.countryISO2());
+    }
+
+    @Test
+    void shouldResolveLookupWithoutStatements() {
+        Statistics statistics = statistics();
+
+        SwiftCodeLookupResponse response = swiftCodeService.lookupSwiftCodes(
+                new SwiftCodeLookupRequest(List.of("DEUTDEFFXXX", "BPKOPLPWKRA")));
+
+        assertEquals(2, response.getFound().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldLookUpCodesMissingFromSnapshotInDatabase() {
+        Statistics statistics = statistics();
+
+        SwiftCodeLookupResponse response = swiftCodeService.lookupSwiftCodes(
+                new SwiftCodeLookupRequest(List.of("DEUTDEFFXXX", "BPKOPLPW999")));
+
+        assertEquals(1, response.getFound().size());
+        assertEquals(List.of("BPKOPLPW999"), response.getNotFound());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldReadChangedBankFromDatabase() {
+        SwiftCodeView added = new SwiftCodeView("BPKOPLPWGDA", "UL. DLUGA 1, GDANSK",
+                "PKO BANK POLSKI", "PL", "POLAND", false);
+        swiftCodeSnapshot.onSwiftCodeChanged(SwiftCodeChangedEvent.added(added));
+
+        // the file no longer matches the database
+        assertFalse(Files.exists(SNAPSHOT));
+        assertTrue(swiftCodeSnapshot.lookup("BPKOPLPWXXX").isEmpty());
+        assertTrue(swiftCodeSnapshot.lookup("DEUTDEFFXXX").isPresent());
+
+        Statistics statistics = statistics();
+        SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("BPKOPLPWXXX");
+
+        assertEquals(2, response.getBranches().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldMapSnapshotMatchingTheDatabase() {
+        SwiftCodeSnapshot reloaded = new SwiftCodeSnapshot(
+                swiftCodeRepository, datasetVersionStore, transactionManager, SNAPSHOT.toString());
+        reloaded.afterSingletonsInstantiated();
+
+        assertTrue(reloaded.isLoaded());
+        assertEquals(3, reloaded.findByBaseCode("BPKOPLPW").size());
+        assertTrue(reloaded.lookup("BPKOPLPWWAW").isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreSnapshotOfAnEarlierDatasetVersion() {
+        Bank bank = createBank("INGBPLPW", "ING BANK SLASKI");
+        createSwiftCode("INGBPLPWXXX", bank, entityManager.find(Country.class, "PL"), "UL. SOKOLSKA 34, KATOWICE", true);
+        entityManager.flush();
+        // as committed by another instance, or by this one before a crash
+        datasetVersionStore.stampInNewTransaction(List.of("PL", "INGBPLPWXXX"));
+
+        SwiftCodeSnapshot reloaded = new SwiftCodeSnapshot(
+                swiftCodeRepository, datasetVersionStore, transactionManager, SNAPSHOT.toString());
+        reloaded.afterSingletonsInstantiated();
+
+        assertFalse(reloaded.isLoaded());
+        assertTrue(reloaded.lookup("BPKOPLPWXXX").isEmpty());
+    }
+
+    @Test
+    void shouldServeRewrittenSnapshotAfterUnmappingTheReplacedOne() throws IOException {
+        assertTrue(swiftCodeSnapshot.lookup("DEUTDEFFXXX").isPresent());
+
+        swiftCodeSnapshot.write();
+        swiftCodeSnapshot.write();
+
+        assertEquals("DEUTSCHE BANK", swiftCodeSnapshot.lookup("DEUTDEFFXXX").orElseThrow().bankName());
+        assertEquals(3, swiftCodeSnapshot.findByBaseCode("BPKOPLPW").size());
+    }
+
+    @Test
+    void shouldLeaveOutCodesNotStoredAsBic11() throws IOException {
+        // an 8-character code written before writes were canonicalized, next to a branch of its bank
+        Bank bank = createBank("INGBPLPW", "ING BANK SLASKI");
+        Country poland = entityManager.find(Country.class, "PL");
+        createSwiftCode("INGBPLPW", bank, poland, "UL. SOKOLSKA 34, KATOWICE", true);
+        createSwiftCode("INGBPLPWAAA", bank, poland, "UL. PLAC 1, WARSZAWA", false);
+        entityManager.flush();
+
+        swiftCodeSnapshot.write();
+
+        assertTrue(swiftCodeSnapshot.lookup("INGBPLPWAAA").isPresent());
+        assertTrue(swiftCodeSnapshot.lookup("INGBPLPWXXX").isEmpty());
+        assertEquals(List.of("INGBPLPWAAA"), swiftCodeSnapshot.findByBaseCode("INGBPLPW").stream()
+                .map(SwiftCodeView::swiftCode)
+                .toList());
+    }
+
+    private Country createCountry(String iso2Code, String name) {
+        Country country = new Country();
+        country.setIso2Code(iso2Code);
+        country.setName(name);
+        entityManager.persist(country);
+        return country;
+    }
+
+    private Bank createBank(String swiftCode, String bankName) {
+        Bank bank = new Bank();
+        bank.setSwiftCode(swiftCode);
+        bank.setBankName(bankName);
+        entityManager.persist(bank);
+        return bank;
+    }
+
+    private void createSwiftCode(String code, Bank bank, Country country, String address, boolean isHeadquarter) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress(address);
+        swiftCode.setHeadquarter(isHeadquarter);
+        entityManager.persist(swiftCode);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static Path createSnapshotPath() {
+        try {
+            Path directory = Files.createTempDirectory("swift-codes-snapshot");
+            directory.toFile().deleteOnExit();
+            return directory.resolve("swift-codes.snapshot");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
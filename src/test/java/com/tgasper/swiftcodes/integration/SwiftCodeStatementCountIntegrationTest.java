@@ -0,0 +1,97 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.CountrySwiftCodesResponse;
+import com.tgasper.swiftcodes.dto.SwiftCodeResponse;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.service.SwiftCodeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = BaseTest.HIBERNATE_STATISTICS)
+@Transactional
+class SwiftCodeStatementCountIntegrationTest extends BaseTest {
+    private static final int BRANCHES = 200;
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank bank = new Bank();
+        bank.setSwiftCode("BPKOPLPW");
+        bank.setBankName("PKO BANK POLSKI");
+        entityManager.persist(bank);
+
+        for (int i = 0; i <= BRANCHES; i++) {
+            SwiftCode swiftCode = new SwiftCode();
+            swiftCode.setSwiftCode(i == 0 ? "BPKOPLPWXXX" : String.format("BPKOPLPW%03d", i));
+            swiftCode.setBank(bank);
+            swiftCode.setCountry(poland);
+            swiftCode.setAddress("UL. PULAWSKA 15, WARSZAWA");
+            swiftCode.setHeadquarter(i == 0);
+            entityManager.persist(swiftCode);
+        }
+
+        // start from an empty persistence context so nothing is served from the first-level cache
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldLoadHeadquartersWithAllBranchesInOneStatement() {
+        Statistics statistics = statistics();
+
+        SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("BPKOPLPWXXX");
+
+        assertEquals(BRANCHES, response.getBranches().size());
+        assertEquals("PKO BANK POLSKI", response.getBranches().get(0).getBankName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldLoadBranchInOneStatement() {
+        Statistics statistics = statistics();
+
+        SwiftCodeResponse response = swiftCodeService.getSwiftCodeDetails("BPKOPLPW042");
+
+        assertNull(response.getBranches());
+        assertEquals("POLAND", response.getCountryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldListCountryInOneStatementWithoutManagedEntities() {
+        Statistics statistics = statistics();
+
+        CountrySwiftCodesResponse response = swiftCodeService.getSwiftCodesByCountry("PL");
+
+        assertEquals(BRANCHES + 1, response.getSwiftCodes().size());
+        assertEquals("POLAND", response.getCountryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
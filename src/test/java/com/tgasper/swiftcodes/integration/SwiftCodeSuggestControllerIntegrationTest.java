@@ -0,0 +1,134 @@
+package com.tgasper.swiftcodes.integration;
+
+import com.tgasper.swiftcodes.BaseTest;
+import com.tgasper.swiftcodes.dto.projection.SwiftCodeView;
+import com.tgasper.swiftcodes.event.SwiftCodeChangedEvent;
+import com.tgasper.swiftcodes.model.Bank;
+import com.tgasper.swiftcodes.model.Country;
+import com.tgasper.swiftcodes.model.SwiftCode;
+import com.tgasper.swiftcodes.service.SwiftCodeIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {BaseTest.HIBERNATE_STATISTICS, "swift-codes.index.enabled=true"})
+@AutoConfigureMockMvc
+@Transactional
+class SwiftCodeSuggestControllerIntegrationTest extends BaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeIndex swiftCodeIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    protected void setupTestData() {
+        Country poland = new Country();
+        poland.setIso2Code("PL");
+        poland.setName("POLAND");
+        entityManager.persist(poland);
+
+        Bank pko = new Bank();
+        pko.setSwiftCode("BPKOPLPW");
+        pko.setBankName("PKO BANK POLSKI");
+        entityManager.persist(pko);
+        createSwiftCode("BPKOPLPWXXX", pko, poland, true);
+        createSwiftCode("BPKOPLPWKRA", pko, poland, false);
+
+        Bank mbank = new Bank();
+        mbank.setSwiftCode("BREXPLPW");
+        mbank.setBankName("MBANK S.A.");
+        entityManager.persist(mbank);
+        createSwiftCode("BREXPLPWXXX", mbank, poland, true);
+
+        entityManager.flush();
+        entityManager.clear();
+        // the index reads the rows of this test's transaction
+        swiftCodeIndex.rebuild();
+    }
+
+    @Test
+    void shouldSuggestCodesForAPrefix() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "bpko"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prefix").value("BPKO"))
+                .andExpect(jsonPath("$.suggestions[*].swiftCode", contains("BPKOPLPWKRA", "BPKOPLPWXXX")))
+                .andExpect(jsonPath("$.suggestions[0].bankName").value("PKO BANK POLSKI"))
+                .andExpect(jsonPath("$.suggestions[0].countryISO2").value("PL"))
+                .andExpect(jsonPath("$.suggestions[0].countryName").value("POLAND"))
+                .andExpect(jsonPath("$.suggestions[0].isHeadquarter").value(false));
+
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "B").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[*].swiftCode", contains("BPKOPLPWKRA")));
+    }
+
+    @Test
+    void shouldAnswerWithoutDatabaseStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BREX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[*].swiftCode", contains("BREXPLPWXXX")));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldSuggestCommittedCodes() throws Exception {
+        // stands in for the committed POST, listeners run after commit
+        swiftCodeIndex.onSwiftCodeChanged(SwiftCodeChangedEvent.added(new SwiftCodeView(
+                "BREXPLPWWA1", "UL. PROSTA 18 WARSZAWA", "MBANK S.A.", "PL", "POLAND", false)));
+
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BREXPLPW"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[*].swiftCode", contains("BREXPLPWWA1", "BREXPLPWXXX")));
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenNothingMatches() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "CITI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions", hasSize(0)));
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/suggest"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BPKOPLPWXXXX"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Prefix must have between 1 and 11 characters"));
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BP1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid SWIFT code prefix format"));
+        mockMvc.perform(get("/v1/swift-codes/suggest").param("prefix", "BP").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void createSwiftCode(String code, Bank bank, Country country, boolean isHeadquarter) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(code);
+        swiftCode.setBank(bank);
+        swiftCode.setCountry(country);
+        swiftCode.setAddress("UL. PULAWSKA 15 WARSZAWA");
+        swiftCode.setHeadquarter(isHeadquarter);
+        entityManager.persist(swiftCode);
+    }
+}
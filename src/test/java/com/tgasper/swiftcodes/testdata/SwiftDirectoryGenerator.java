@@ -0,0 +1,207 @@
+package com.tgasper.swiftcodes.testdata;
+
+import com.tgasper.swiftcodes.service.SwiftCodeCsvRow;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Writes synthetic SWIFT directory CSVs in the layout of SwiftCodeCsvRow.HEADERS. The distributions
+// follow the bundled swift-codes.csv: most banks have a single code with a long tail of banks with
+// hundreds of branches, a few countries hold most of the banks, some headquarters are written as
+// 8-character codes and some rows have an empty ADDRESS (and sometimes an empty TOWN NAME as well).
+// Rows are streamed, so the size of the file is only bounded by the disk, and the same seed always
+// produces the same file. Every swift code is unique within a file.
+//
+// from the command line: SwiftDirectoryGenerator <file> <rows> [seed]
+public final class SwiftDirectoryGenerator {
+    private static final String[] COUNTRY_CODES = Locale.getISOCountries();
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final String[] SYLLABLES = {
+            "BA", "KO", "RI", "MA", "NE", "TU", "LO", "SA", "VI", "DE", "GRA", "STO", "PO", "LEN", "KA", "RU"
+    };
+    private static final String[] BANK_SUFFIXES = {"BANK", "BANK S.A.", "BANK AG", "CAPITAL LTD", "SECURITIES", "SAVINGS BANK"};
+    private static final int TOWNS_PER_COUNTRY = 50;
+    private static final int BANK_CODES = 26 * 26 * 26 * 26;
+    private static final int MAX_CODES_PER_BANK = 1000;
+
+    private static final double SINGLE_CODE_SHARE = 0.9;
+    private static final double SHORT_HEADQUARTER_SHARE = 0.2;
+    private static final double MISSING_HEADQUARTER_SHARE = 0.01;
+    private static final double EMPTY_ADDRESS_SHARE = 0.08;
+    private static final double EMPTY_TOWN_SHARE = 0.25;
+
+    private final long seed;
+
+    public SwiftDirectoryGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SwiftDirectoryGenerator <file> <rows> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        long start = System.nanoTime();
+        Summary summary = new SwiftDirectoryGenerator(seed).write(Path.of(args[0]), Long.parseLong(args[1]));
+        System.out.printf("Wrote %d rows, %d banks, %d countries to %s in %d ms%n", summary.rows(), summary.banks(),
+                summary.countries(), args[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Summary write(Path file, long rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            return write(writer, rows);
+        }
+    }
+
+    public Summary write(Writer writer, long rows) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] countryWeights = countryWeights(random);
+        boolean[] usedCountries = new boolean[COUNTRY_CODES.length];
+        CSVFormat format = SwiftCodeCsvRow.CSV_FORMAT.builder()
+                .setSkipHeaderRecord(false)
+                .build();
+        CSVPrinter printer = new CSVPrinter(writer, format);
+
+        long written = 0;
+        long banks = 0;
+        while (written < rows) {
+            int country = pick(countryWeights, random.nextDouble());
+            usedCountries[country] = true;
+            String countryCode = COUNTRY_CODES[country];
+            String countryName = countryName(country);
+            String baseCode = baseCode(banks, countryCode);
+            String bankName = bankName(random);
+
+            int codes = (int) Math.min(codesPerBank(random), rows - written);
+            boolean withHeadquarter = codes == 1 || random.nextDouble() >= MISSING_HEADQUARTER_SHARE;
+            for (int code = withHeadquarter ? 0 : 1; code < (withHeadquarter ? codes : codes + 1); code++) {
+                String swiftCode;
+                if (code == 0) {
+                    swiftCode = random.nextDouble() < SHORT_HEADQUARTER_SHARE ? baseCode : baseCode + "XXX";
+                } else {
+                    swiftCode = baseCode + branchCode(code);
+                }
+                String town = random.nextDouble() < EMPTY_ADDRESS_SHARE * EMPTY_TOWN_SHARE
+                        ? "" : townName(country, random.nextInt(TOWNS_PER_COUNTRY));
+                String address = town.isEmpty() || random.nextDouble() < EMPTY_ADDRESS_SHARE * (1 - EMPTY_TOWN_SHARE)
+                        ? "" : address(random, town);
+                printer.printRecord(countryCode, swiftCode, swiftCode.length() == 8 ? "BIC8" : "BIC11", bankName,
+                        address, town, countryName, "Etc/UTC");
+            }
+            written += codes;
+            banks++;
+        }
+        printer.flush();
+
+        int countries = 0;
+        for (boolean used : usedCountries) {
+            countries += used ? 1 : 0;
+        }
+        return new Summary(written, banks, countries);
+    }
+
+    // Zipf-like weights over a seeded shuffle of the country codes, so a handful of countries
+    // hold most of the banks while every country can still appear
+    private static double[] countryWeights(SplittableRandom random) {
+        int[] ranks = new int[COUNTRY_CODES.length];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = i;
+        }
+        for (int i = ranks.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int rank = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = rank;
+        }
+
+        double[] cumulative = new double[COUNTRY_CODES.length];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += 1.0 / (ranks[i] + 1);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    // number of codes of a bank: one for most banks, otherwise a Pareto tail capped at MAX_CODES_PER_BANK
+    private static int codesPerBank(SplittableRandom random) {
+        if (random.nextDouble() < SINGLE_CODE_SHARE) {
+            return 1;
+        }
+        double tail = 1 / (1 - random.nextDouble());
+        return (int) Math.min(MAX_CODES_PER_BANK, 1 + tail);
+    }
+
+    // 4-letter bank code from the bank number, 2-character location code from the overflow,
+    // so base codes stay unique up to BANK_CODES * 36 * 36 banks
+    private static String baseCode(long bank, String countryCode) {
+        char[] code = new char[8];
+        long value = bank % BANK_CODES;
+        for (int i = 3; i >= 0; i--) {
+            code[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        code[4] = countryCode.charAt(0);
+        code[5] = countryCode.charAt(1);
+        long location = bank / BANK_CODES;
+        code[6] = ALPHANUMERIC.charAt((int) (location / ALPHANUMERIC.length() % ALPHANUMERIC.length()));
+        code[7] = ALPHANUMERIC.charAt((int) (location % ALPHANUMERIC.length()));
+        return new String(code);
+    }
+
+    // three alphanumeric characters, skipping XXX which is reserved for the headquarters
+    private static String branchCode(int branch) {
+        int value = branch >= 23 * 36 * 36 + 23 * 36 + 23 ? branch + 1 : branch;
+        return new String(new char[]{
+                ALPHANUMERIC.charAt(value / (36 * 36) % 36),
+                ALPHANUMERIC.charAt(value / 36 % 36),
+                ALPHANUMERIC.charAt(value % 36)
+        });
+    }
+
+    private static String countryName(int country) {
+        return new Locale("", COUNTRY_CODES[country]).getDisplayCountry(Locale.ENGLISH).toUpperCase(Locale.ROOT);
+    }
+
+    private static String townName(int country, int town) {
+        SplittableRandom random = new SplittableRandom(country * 1_000L + town);
+        return word(random, 2 + random.nextInt(2));
+    }
+
+    private static String bankName(SplittableRandom random) {
+        return word(random, 2 + random.nextInt(3)) + " " + BANK_SUFFIXES[random.nextInt(BANK_SUFFIXES.length)];
+    }
+
+    private static String address(SplittableRandom random, String town) {
+        return String.format("%s STREET %d %s, %s, %05d",
+                word(random, 2), 1 + random.nextInt(200), town, town, random.nextInt(100_000));
+    }
+
+    private static String word(SplittableRandom random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    public record Summary(long rows, long banks, int countries) {
+    }
+}